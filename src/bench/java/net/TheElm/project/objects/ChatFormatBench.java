@@ -0,0 +1,165 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.TheElm.project.objects;
+
+import net.TheElm.project.enums.ChatRooms;
+import net.TheElm.project.interfaces.chat.ChatFunction;
+import net.TheElm.project.utilities.CasingUtils;
+import net.TheElm.project.utilities.ChatVariables;
+import net.TheElm.project.utilities.FormattingUtils;
+import net.TheElm.project.utilities.text.TextUtils;
+import net.minecraft.server.command.CommandOutput;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.LiteralText;
+import net.minecraft.text.MutableText;
+import net.minecraft.text.Text;
+import net.minecraft.util.math.Vec2f;
+import net.minecraft.util.math.Vec3d;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Renders 10k chat messages through a compiled ChatFormat, and through the per-message parsing that it replaced
+ * The server variables resolve without a player or a running server, so the formats use those for their variable slots
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ChatFormatBench {
+    
+    private static final int MESSAGES = 10_000;
+    
+    @Param({
+        "&7[${version}] &b${config.epoch}&r: ${message}",
+        "&9[Local] &b${config.epoch^^}&r (${version}) &7said&r: ${message}"
+    })
+    public String raw;
+    
+    private ServerCommandSource source;
+    private Text[] messages;
+    private ChatFormat compiled;
+    private LegacyChatFormat legacy;
+    
+    @Setup
+    public void setup() {
+        this.source = new ServerCommandSource(CommandOutput.DUMMY, Vec3d.ZERO, Vec2f.ZERO, null, 4, "Bench", new LiteralText("Bench"), null, null);
+        this.messages = new Text[ChatFormatBench.MESSAGES];
+        for (int i = 0; i < this.messages.length; i++)
+            this.messages[i] = new LiteralText("Message number " + i);
+        
+        this.compiled = ChatFormat.parse(this.raw);
+        this.legacy = new LegacyChatFormat(this.raw);
+    }
+    
+    @Benchmark
+    public void compiled(@NotNull Blackhole blackhole) {
+        for (Text message : this.messages)
+            blackhole.consume(this.compiled.format(this.source, ChatRooms.GLOBAL, message));
+    }
+    
+    @Benchmark
+    public void legacy(@NotNull Blackhole blackhole) {
+        for (Text message : this.messages)
+            blackhole.consume(this.legacy.format(this.source, ChatRooms.GLOBAL, message));
+    }
+    
+    /**
+     * The formatting as it was before formats were compiled, a deep copy of the format and a regex pass over every segment of it per message
+     */
+    private static final class LegacyChatFormat {
+        private final @Nullable Text formatted;
+        
+        private LegacyChatFormat(@NotNull String raw) {
+            this.formatted = FormattingUtils.stringToText(raw);
+        }
+        
+        private @NotNull Text format(@NotNull final ServerCommandSource source, @NotNull final ChatRooms chatRoom, @NotNull final Text message) {
+            return FormattingUtils.visitVariables(
+                TextUtils.deepCopy(this.formatted),
+                (text, segment) -> LegacyChatFormat.replaceVariables(text, segment, source, chatRoom, message)
+            );
+        }
+        
+        private static @Nullable String replaceVariables(
+            @NotNull final MutableText text,
+            @Nullable final String segment,
+            @NotNull final ServerCommandSource source,
+            @NotNull final ChatRooms chatRoom,
+            @NotNull final Text message
+        ) {
+            String out = segment;
+            if (out != null) {
+                Pattern pattern = Pattern.compile("\\$\\{([A-Za-z.]+)([\\^_]{0,2})}");
+                Matcher matcher = pattern.matcher(segment);
+                int end = 0;
+                
+                while (matcher.find()) {
+                    ChatFunction function = ChatVariables.get(matcher.group(1).toLowerCase());
+                    if (function != null) {
+                        if (!function.canBeParsed(source))
+                            continue;
+                        
+                        CasingUtils.Casing casing = switch (matcher.group(2)) {
+                            case "__" -> CasingUtils.Casing.LOWER;
+                            case "^^" -> CasingUtils.Casing.UPPER;
+                            case "^" -> CasingUtils.Casing.WORDS;
+                            default -> CasingUtils.Casing.DEFAULT;
+                        };
+                        
+                        String pre = segment.substring(end, matcher.start());
+                        if (end == 0) out = pre; else text.append(pre);
+                        
+                        text.append(function.parseVar(source, chatRoom, message, casing));
+                        end = matcher.end();
+                    }
+                }
+                
+                if (end != 0)
+                    text.append(segment.substring(end));
+            }
+            return out;
+        }
+    }
+}
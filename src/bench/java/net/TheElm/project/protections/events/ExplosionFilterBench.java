@@ -0,0 +1,112 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.TheElm.project.protections.events;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.ActionResult;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filters a 1000 block explosion that crosses four claimed chunks,
+ *   checking every block against the claim like before, and checking each claim once
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExplosionFilterBench {
+    
+    private final @NotNull List<BlockPos> blast = new ArrayList<>();
+    private final @NotNull Long2ObjectMap<UUID> owners = new Long2ObjectOpenHashMap<>();
+    private final @NotNull Map<UUID, Boolean> allowed = new HashMap<>();
+    
+    @Setup
+    public void setup() {
+        // A 10x10x10 cube centered on the corner of four chunks
+        for (int x = -5; x < 5; x++)
+            for (int y = 60; y < 70; y++)
+                for (int z = -5; z < 5; z++)
+                    this.blast.add(new BlockPos(x, y, z));
+        
+        // Two of the chunks are protected
+        for (int x = -1; x <= 0; x++) {
+            for (int z = -1; z <= 0; z++) {
+                UUID owner = UUID.randomUUID();
+                this.owners.put(ChunkPos.toLong(x, z), owner);
+                this.allowed.put(owner, x == z);
+            }
+        }
+    }
+    
+    /**
+     * Stands in for the claim check, which looks up the owner and then their permissions
+     */
+    private @NotNull ActionResult decide(@NotNull BlockPos blockPos) {
+        UUID owner = this.owners.get(ChunkPos.toLong(blockPos.getX() >> 4, blockPos.getZ() >> 4));
+        if (owner == null || this.allowed.get(owner))
+            return ActionResult.PASS;
+        return ActionResult.FAIL;
+    }
+    private @NotNull Object group(@NotNull BlockPos blockPos) {
+        return ChunkPos.toLong(blockPos.getX() >> 4, blockPos.getZ() >> 4);
+    }
+    
+    @Benchmark
+    public @NotNull List<BlockPos> perBlock() {
+        List<BlockPos> positions = new ArrayList<>(this.blast);
+        positions.removeIf(blockPos -> this.decide(blockPos) == ActionResult.FAIL);
+        return positions;
+    }
+    
+    @Benchmark
+    public @NotNull List<BlockPos> perClaim() {
+        List<BlockPos> positions = new ArrayList<>(this.blast);
+        BlockBreak.filterGrouped(positions, blockPos -> false, this::group, this::decide);
+        return positions;
+    }
+}
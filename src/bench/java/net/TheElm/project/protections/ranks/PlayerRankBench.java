@@ -0,0 +1,159 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.TheElm.project.protections.ranks;
+
+import net.TheElm.project.enums.Permissions;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks permissions on the bottom rank of a deep inheritance chain, with the compiled nodes,
+ *   and by walking up the chain of parents like before ranks were compiled
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PlayerRankBench {
+    
+    // How many ranks are in the chain
+    @Param({"4", "16", "64"})
+    public int depth;
+    
+    private PlayerRank compiled;
+    private LegacyRank legacy;
+    
+    // A node that is only given by the top rank, and one that no rank has
+    private final @NotNull String inherited = "bench.inherited";
+    private final @NotNull String missing = "bench.missing";
+    
+    @Setup
+    public void setup() {
+        Map<String, PlayerRank> ranks = new HashMap<>();
+        Map<String, LegacyRank> legacies = new HashMap<>();
+        
+        String parent = null;
+        for (int i = 0; i < this.depth; i++) {
+            String iden = "rank" + i;
+            PlayerRank rank = new PlayerRank(iden, null);
+            LegacyRank legacy = new LegacyRank(iden, legacies);
+            if (parent != null) {
+                rank.setParent(parent);
+                legacy.parent = parent;
+            }
+            
+            // Every rank has a few nodes of its own
+            for (int n = 0; n < 8; n++) {
+                rank.addNode("+" + iden + ".node" + n);
+                legacy.nodes.add("+" + iden + ".node" + n);
+            }
+            if (i == 0) {
+                rank.addNode("+" + this.inherited);
+                legacy.nodes.add("+" + this.inherited);
+            }
+            
+            ranks.put(iden, rank);
+            legacies.put(iden, legacy);
+            this.compiled = rank;
+            this.legacy = legacy;
+            parent = iden;
+        }
+        
+        for (PlayerRank rank : ranks.values())
+            rank.compile(ranks::get);
+    }
+    
+    @Benchmark
+    public void compiled(@NotNull Blackhole blackhole) {
+        blackhole.consume(this.compiled.isAdditive(this.inherited));
+        blackhole.consume(this.compiled.isAdditive(this.missing));
+        blackhole.consume(this.compiled.isSubtractive(this.missing));
+    }
+    
+    @Benchmark
+    public void legacy(@NotNull Blackhole blackhole) {
+        blackhole.consume(this.legacy.isAdditive(this.inherited));
+        blackhole.consume(this.legacy.isAdditive(this.missing));
+        blackhole.consume(this.legacy.isSubtractive(this.missing));
+    }
+    
+    /**
+     * The permission checks as they were before ranks were compiled
+     */
+    private static final class LegacyRank {
+        private final @NotNull SortedSet<String> nodes = new TreeSet<>();
+        private final @NotNull String iden;
+        private final @NotNull Map<String, LegacyRank> ranks;
+        private @Nullable String parent = null;
+        
+        private LegacyRank(@NotNull String iden, @NotNull Map<String, LegacyRank> ranks) {
+            this.iden = iden;
+            this.ranks = ranks;
+        }
+        
+        private @Nullable LegacyRank getParentReference() {
+            if (this.parent != null && !this.parent.equals(this.iden)) {
+                LegacyRank rank = this.ranks.get(this.parent);
+                if (rank != this)
+                    return rank;
+            }
+            return null;
+        }
+        private boolean hasNode(String node) {
+            boolean contains = this.nodes.contains(node);
+            LegacyRank parent;
+            if ((!contains) && ((parent = this.getParentReference()) != null))
+                return parent.hasNode(node);
+            return contains;
+        }
+        private boolean isAdditive(String node) {
+            return this.hasNode("+" + Permissions.ALL_PERMISSIONS) || this.hasNode("+" + node);
+        }
+        private boolean isSubtractive(String node) {
+            return this.hasNode("-" + Permissions.ALL_PERMISSIONS) || this.hasNode("-" + node);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.TheElm.project.utilities;
+
+import net.minecraft.world.HeightLimitView;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up the claim at every Y position of a column, through the ClaimSlice binary search over its column snapshot,
+ *   and through the synchronized TreeMap floor lookup that it replaced
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ClaimSliceBench {
+    
+    private static final @NotNull HeightLimitView VIEW = new HeightLimitView() {
+        @Override
+        public int getHeight() {
+            return 384;
+        }
+        @Override
+        public int getBottomY() {
+            return -64;
+        }
+    };
+    
+    // How many separate claims are stacked in the column
+    @Param({"1", "8", "32"})
+    public int claims;
+    
+    private ChunkUtils.ClaimSlice slice;
+    private NavigableMap<Integer, ChunkUtils.InnerClaim> legacy;
+    
+    @Setup
+    public void setup() {
+        // Spread the claims over the column with gaps between them
+        int step = ClaimSliceBench.VIEW.getHeight() / this.claims;
+        List<ChunkUtils.InnerClaim> list = new ArrayList<>();
+        for (int i = 0; i < this.claims; i++) {
+            int lower = ClaimSliceBench.VIEW.getBottomY() + i * step;
+            list.add(new ChunkUtils.InnerClaim(ClaimSliceBench.VIEW, null, lower + step / 2, lower));
+        }
+        
+        this.slice = new ChunkUtils.ClaimSlice(ClaimSliceBench.VIEW, 0);
+        this.slice.setAll(list);
+        
+        this.legacy = Collections.synchronizedNavigableMap(new TreeMap<>());
+        for (ChunkUtils.InnerClaim claim : list)
+            this.legacy.put(claim.lower(), claim);
+    }
+    
+    @Benchmark
+    public void column(@NotNull Blackhole blackhole) {
+        for (int y = ClaimSliceBench.VIEW.getBottomY(); y < ClaimSliceBench.VIEW.getTopY(); y++)
+            blackhole.consume(this.slice.get(y));
+    }
+    
+    @Benchmark
+    public void treeMap(@NotNull Blackhole blackhole) {
+        for (int y = ClaimSliceBench.VIEW.getBottomY(); y < ClaimSliceBench.VIEW.getTopY(); y++) {
+            Map.Entry<Integer, ChunkUtils.InnerClaim> pair = this.legacy.floorEntry(y);
+            blackhole.consume(pair != null && pair.getValue().isWithin(y) ? pair.getValue() : null);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.TheElm.project.utilities;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.TheElm.project.CoreMod;
+import net.minecraft.text.LiteralText;
+import net.minecraft.text.MutableText;
+import net.minecraft.text.TranslatableText;
+import net.minecraft.util.Formatting;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.text.NumberFormat;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Translates a message through the cached TranslatableServerSide templates,
+ *   and through the per-call language file read and split that they replaced
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TranslationBench {
+    
+    // A text variable, and a number variable
+    @Param({"chat.muted", "claim.chunk.claimed"})
+    public String key;
+    
+    @Setup
+    public void setup() {
+        // Fill the template cache before measuring
+        TranslatableServerSide.text(Locale.US, this.key, this.arguments());
+    }
+    
+    @Benchmark
+    public void cached(@NotNull Blackhole blackhole) {
+        blackhole.consume(TranslatableServerSide.text(Locale.US, this.key, this.arguments()));
+    }
+    
+    @Benchmark
+    public void legacy(@NotNull Blackhole blackhole) {
+        blackhole.consume(LegacyTranslation.text(Locale.US, this.key, this.arguments()));
+    }
+    
+    private @NotNull Object[] arguments() {
+        return new Object[] { this.key.startsWith("chat") ? new LiteralText("world") : 1250 };
+    }
+    
+    /**
+     * Copy of the translation lookup from before the templates were cached
+     */
+    private static final class LegacyTranslation {
+        private static @NotNull MutableText text(@NotNull Locale language, @NotNull String key, @NotNull Object... objects) {
+            String text = LegacyTranslation.getTranslation(language, key);
+            if ( objects.length <= 0 )
+                return new LiteralText(text);
+            String[] separated = text.split( "((?<=%[a-z])|(?=%[a-z]))" );
+            
+            // Get the formatter for numbers
+            NumberFormat formatter = NumberFormat.getInstance( language );
+            int c = 0;
+            
+            MutableText out = null;
+            for ( String seg : separated ) {
+                // If is a variable
+                if ( LegacyTranslation.matchAny( seg, "%s", "%d", "%f" ) ) {
+                    Object obj = objects[c++];
+                    if ( ("%s".equalsIgnoreCase(seg)) && ( obj instanceof MutableText mutableText) ) {
+                        if (out == null) out = new LiteralText("");
+                        if (obj instanceof TranslatableText translatableText) translatableText.formatted(Formatting.DARK_AQUA);
+                        out.append(mutableText);
+                    } else if ( ("%d".equalsIgnoreCase( seg )) && (obj instanceof Number number) ) {
+                        if (out == null) out = new LiteralText("");
+                        out.append(new LiteralText(formatter.format(number.longValue())).formatted(Formatting.AQUA));
+                    } else {
+                        if (out == null) out = new LiteralText(obj.toString());
+                        else out.append(obj.toString());
+                    }
+                } else {
+                    if (out == null) out = new LiteralText(seg);
+                    else out.append(seg);
+                }
+            }
+            
+            return (out == null ? new LiteralText( "" ) : out);
+        }
+        private static @NotNull String getTranslation(@NotNull Locale language, @NotNull String key) {
+            JsonObject object = LegacyTranslation.readLanguageFile( language );
+            JsonElement element = object.get( key );
+            return element == null ? "" : element.getAsString();
+        }
+        private static @NotNull JsonObject readLanguageFile(@NotNull Locale language) {
+            String filePath = "/assets/" + CoreMod.MOD_ID + "/lang/" + (language.getLanguage() + "_" + language.getCountry()).toLowerCase() + ".json";
+            InputStream resource = CoreMod.class.getResourceAsStream(filePath);
+            if (resource == null)
+                throw new NullPointerException("Could not read language file \"" + filePath + "\"");
+            return JsonParser.parseReader(new InputStreamReader( resource )).getAsJsonObject();
+        }
+        private static boolean matchAny(@NotNull String needle, @NotNull String... haystack ) {
+            for ( String hay : haystack ) {
+                if ( needle.equalsIgnoreCase( hay ) )
+                    return true;
+            }
+            return false;
+        }
+    }
+    
+}
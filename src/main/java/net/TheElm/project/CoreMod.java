@@ -32,6 +32,7 @@ import net.TheElm.project.MySQL.MySQLStatement;
 import net.TheElm.project.MySQL.MySQLite;
 import net.TheElm.project.config.SewConfig;
 import net.TheElm.project.protections.claiming.Claimant;
+import net.TheElm.project.protections.claiming.ClaimantCache;
 import net.TheElm.project.protections.claiming.ClaimantPlayer;
 import net.TheElm.project.protections.claiming.ClaimantTown;
 import net.TheElm.project.protections.logging.EventLogger;
@@ -55,11 +56,10 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
-import java.lang.ref.WeakReference;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -76,8 +76,8 @@ public abstract class CoreMod {
     // Mod memory cache for claims
     public static final Map<ServerPlayerEntity, UUID> PLAYER_LOCATIONS = Collections.synchronizedMap(new WeakHashMap<>()); // Reference of where players are
     public static final Map<ServerPlayerEntity, Pair<UUID, String>> PLAYER_WARP_INVITES = Collections.synchronizedMap(new WeakHashMap<>()); // Reference of warp invitations
-    private static final Map<UUID, WeakReference<ClaimantPlayer>> PLAYER_CLAIM_CACHE = Collections.synchronizedMap(new HashMap<>()); // Reference from player UUID
-    private static final Map<UUID, WeakReference<ClaimantTown>> TOWN_CLAIM_CACHE = Collections.synchronizedMap(new HashMap<>()); // Reference from owner UUID
+    public static final ClaimantCache<ClaimantPlayer> PLAYER_CLAIM_CACHE = new ClaimantCache<>(() -> SewConfig.get(SewConfig.CLAIM_CACHE_SIZE), Claimant::save); // Reference from player UUID
+    public static final ClaimantCache<ClaimantTown> TOWN_CLAIM_CACHE = new ClaimantCache<>(() -> SewConfig.get(SewConfig.CLAIM_CACHE_SIZE), Claimant::save); // Reference from town UUID
     
     public static final @NotNull UUID SPAWN_ID = Util.NIL_UUID;
     
@@ -100,26 +100,25 @@ public abstract class CoreMod {
      */
     public static void addToCache(Claimant claimant) {
         if (claimant instanceof ClaimantPlayer claimantPlayer)
-            PLAYER_CLAIM_CACHE.put(claimant.getId(), new WeakReference<>(claimantPlayer));
+            PLAYER_CLAIM_CACHE.put(claimantPlayer);
         else if (claimant instanceof ClaimantTown claimantTown)
-            TOWN_CLAIM_CACHE.put(claimant.getId(), new WeakReference<>(claimantTown));
+            TOWN_CLAIM_CACHE.put(claimantTown);
     }
     @Nullable
     public static Claimant removeFromCache(Claimant claimant) {
-        if (claimant instanceof ClaimantPlayer) {
-            WeakReference<ClaimantPlayer> reference;
-            if ((reference = PLAYER_CLAIM_CACHE.remove(claimant.getId())) != null)
-                return reference.get();
-        } else if (claimant instanceof ClaimantTown) {
-            WeakReference<ClaimantTown> reference;
-            if ((reference = TOWN_CLAIM_CACHE.remove(claimant.getId())) != null)
-                return reference.get();
-        }
+        if (claimant instanceof ClaimantPlayer)
+            return PLAYER_CLAIM_CACHE.remove(claimant.getId());
+        else if (claimant instanceof ClaimantTown)
+            return TOWN_CLAIM_CACHE.remove(claimant.getId());
         return null;
     }
     @Nullable
     public static <T extends Claimant> T getFromCache(@NotNull Class<T> type, @NotNull UUID uuid) {
-        return CoreMod.getCacheStream( type ).filter((claimant) -> claimant.getId().equals(uuid)).findFirst().orElse( null );
+        if (type.equals(ClaimantPlayer.class))
+            return type.cast(PLAYER_CLAIM_CACHE.get(uuid));
+        if (type.equals(ClaimantTown.class))
+            return type.cast(TOWN_CLAIM_CACHE.get(uuid));
+        return null;
     }
     @Nullable
     public static <T extends Claimant> T getFromCache(@NotNull Class<T> type, @NotNull String name) {
@@ -129,22 +128,12 @@ public abstract class CoreMod {
         return CoreMod.getCacheStream( null );
     }
     public static <T extends Claimant> Stream<T> getCacheStream(@Nullable Class<T> type) {
-        List<T> out = new ArrayList<>();
-        if ((type == null) || type.equals(ClaimantPlayer.class)) {
-            ClaimantPlayer player;
-            for (WeakReference<ClaimantPlayer> reference : PLAYER_CLAIM_CACHE.values()) {
-                if ((player = reference.get()) != null)
-                    out.add((T) player);
-            }
-        }
-        if ((type == null) || type.equals(ClaimantTown.class)) {
-            ClaimantTown town;
-            for ( WeakReference<ClaimantTown> reference : TOWN_CLAIM_CACHE.values() ) {
-                if ((town = reference.get()) != null)
-                    out.add((T) town);
-            }
-        }
-        return out.stream();
+        Stream<T> out = Stream.empty();
+        if ((type == null) || type.equals(ClaimantPlayer.class))
+            out = Stream.concat(out, PLAYER_CLAIM_CACHE.stream().map(player -> (T) player));
+        if ((type == null) || type.equals(ClaimantTown.class))
+            out = Stream.concat(out, TOWN_CLAIM_CACHE.stream().map(town -> (T) town));
+        return out;
     }
     
     /*
@@ -196,6 +185,8 @@ public abstract class CoreMod {
     protected static boolean initDB() throws SQLException {
         ArrayList<String> tables = new ArrayList<>();
         ArrayList<String> alters = new ArrayList<>();
+        ArrayList<Pair<String, String>> columns = new ArrayList<>();
+        ArrayList<Pair<String, String>> indexes = new ArrayList<>();
         
         if (( SewConfig.get(SewConfig.LOG_CHUNKS_CLAIMED) || SewConfig.get(SewConfig.LOG_CHUNKS_UNCLAIMED) ) && ( SewConfig.get(SewConfig.LOG_BLOCKS_BREAKING) || SewConfig.get(SewConfig.LOG_BLOCKS_PLACING) )) {
             String blockUpdateEnums = getDatabaseReadyEnumerators( EventLogger.BlockAction.class );
@@ -203,6 +194,22 @@ public abstract class CoreMod {
             tables.add(
                 "CREATE TABLE IF NOT EXISTS `logging_Blocks` (`blockWorld` int(11) NOT NULL, `blockX` bigint(20) NOT NULL, `blockY` bigint(20) NOT NULL, `blockZ` bigint(20) NOT NULL, `block` blob NOT NULL, `updatedBy` varchar(36) NOT NULL, `updatedEvent` enum(" + blockUpdateEnums + ") NOT NULL, `updatedAt` datetime NOT NULL) ENGINE=InnoDB DEFAULT CHARSET=latin1;"
             );
+            
+            // Row identifier used for paging through results
+            columns.add(new Pair<>(
+                "logId",
+                "ALTER TABLE `logging_Blocks` ADD `logId` bigint(20) NOT NULL AUTO_INCREMENT PRIMARY KEY FIRST;"
+            ));
+            
+            // Indexes for the block log lookups
+            indexes.add(new Pair<>(
+                "idx_blocks_position",
+                "CREATE INDEX `idx_blocks_position` ON `logging_Blocks` (`blockWorld`, `blockX`, `blockY`, `blockZ`, `updatedAt`);"
+            ));
+            indexes.add(new Pair<>(
+                "idx_blocks_owner",
+                "CREATE INDEX `idx_blocks_owner` ON `logging_Blocks` (`updatedBy`, `updatedAt`);"
+            ));
             alters.add(
                 "ALTER TABLE `logging_Blocks` CHANGE `updatedEvent` `updatedEvent` ENUM(" + blockUpdateEnums + ") CHARACTER SET latin1 COLLATE latin1_swedish_ci NOT NULL;"
             );
@@ -228,8 +235,34 @@ public abstract class CoreMod {
             }
         }
         
+        for (Pair<String, String> column : columns) {
+            if (CoreMod.hasSchemaObject("COLUMNS", "COLUMN_NAME", column.getLeft()))
+                continue;
+            
+            CoreMod.logInfo("Adding column " + column.getLeft() + " to the database");
+            getSQL().prepare(column.getRight(), false)
+                .executeUpdate(true);
+        }
+        
+        for (Pair<String, String> index : indexes) {
+            if (CoreMod.hasSchemaObject("STATISTICS", "INDEX_NAME", index.getLeft()))
+                continue;
+            
+            CoreMod.logInfo("Adding index " + index.getLeft() + " to the database, this may take a while");
+            getSQL().prepare(index.getRight(), false)
+                .executeUpdate(true);
+        }
+        
         return !tables.isEmpty();
     }
+    private static boolean hasSchemaObject(@NotNull String schemaTable, @NotNull String column, @NotNull String name) throws SQLException {
+        try (MySQLStatement statement = getSQL().prepare("SELECT COUNT(1) FROM `information_schema`.`" + schemaTable + "` WHERE `TABLE_SCHEMA` = DATABASE() AND `TABLE_NAME` = 'logging_Blocks' AND `" + column + "` = ?;", false)
+            .addPrepared(name)) {
+            
+            ResultSet results = statement.executeStatement();
+            return results.next() && results.getInt(1) > 0;
+        }
+    }
     public static @NotNull File getConfDir() throws RuntimeException {
         // Get the directory
         final File config = CoreMod.getFabric().getConfigDirectory();
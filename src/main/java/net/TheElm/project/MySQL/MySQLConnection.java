@@ -29,25 +29,15 @@ import com.mysql.cj.jdbc.MysqlDataSource;
 import net.TheElm.project.CoreMod;
 import net.TheElm.project.config.SewConfig;
 
+import org.jetbrains.annotations.NotNull;
+
 import java.sql.Connection;
 import java.sql.SQLException;
 
-public class MySQLConnection implements MySQLHost {
-    
-    private Connection conn = null;
+public class MySQLConnection extends MySQLPool {
     
     @Override
-    public Connection getConnection() throws SQLException {
-        /* 
-         * Test if MySQL is still connected
-         */
-        if ( this.conn != null ) {
-            if ( (!this.conn.isClosed()) && this.conn.isValid(5) )
-                return this.conn;
-            if ( !this.conn.isClosed() )
-                this.conn.close();
-        }
-        
+    protected @NotNull Connection createConnection() throws SQLException {
         /*
          * Create a new connection
          */
@@ -77,7 +67,10 @@ public class MySQLConnection implements MySQLHost {
         // Auto reconnect if closed
         dataSource.setAutoReconnect( true );
         
-        return ( this.conn = dataSource.getConnection() );
+        // Send batched inserts as a single multi-row statement
+        dataSource.setRewriteBatchedStatements( true );
+        
+        return dataSource.getConnection();
     }
     
 }
@@ -25,12 +25,14 @@
 
 package net.TheElm.project.MySQL;
 
-import java.sql.Connection;
+import org.jetbrains.annotations.NotNull;
+
 import java.sql.SQLException;
 
 public interface MySQLHost {
     
-    Connection getConnection() throws SQLException;
+    @NotNull MySQLPooledConnection borrow() throws SQLException;
+    void release(@NotNull MySQLPooledConnection connection);
     
     default MySQLStatement prepare(String preparedStmt) throws SQLException {
         return new MySQLStatement( this, preparedStmt );
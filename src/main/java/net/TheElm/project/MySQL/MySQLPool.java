@@ -0,0 +1,137 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.TheElm.project.MySQL;
+
+import net.TheElm.project.CoreMod;
+import net.TheElm.project.config.SewConfig;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out a limited number of database connections
+ * Idle connections are only re-validated after sitting for a while, and are retired once they get too old
+ */
+public abstract class MySQLPool implements MySQLHost {
+    
+    private static final long BORROW_TIMEOUT = TimeUnit.SECONDS.toNanos(10);
+    
+    private final @NotNull LinkedBlockingDeque<MySQLPooledConnection> idle = new LinkedBlockingDeque<>();
+    private final @NotNull AtomicInteger open = new AtomicInteger(0);
+    
+    /**
+     * Open a brand new connection to the database
+     * @return The connection
+     * @throws SQLException If the database could not be reached
+     */
+    protected abstract @NotNull Connection createConnection() throws SQLException;
+    
+    /**
+     * @return The most connections that can be open at once
+     */
+    protected int getMaxSize() {
+        return Math.max(1, SewConfig.get(SewConfig.DB_POOL_SIZE));
+    }
+    
+    @Override
+    public @NotNull MySQLPooledConnection borrow() throws SQLException {
+        final long deadline = System.nanoTime() + MySQLPool.BORROW_TIMEOUT;
+        
+        while (true) {
+            // Use the most recently returned connection first, it is the least likely to have gone stale
+            MySQLPooledConnection connection = this.idle.pollFirst();
+            
+            if (connection == null) {
+                // Open a new connection if we're still under the limit
+                int current = this.open.get();
+                if (current < this.getMaxSize()) {
+                    if (!this.open.compareAndSet(current, current + 1))
+                        continue;
+                    try {
+                        return new MySQLPooledConnection(this.createConnection());
+                    } catch (SQLException | RuntimeException e) {
+                        this.open.decrementAndGet();
+                        throw e;
+                    }
+                }
+                
+                // Wait for another thread to return a connection
+                long remaining = deadline - System.nanoTime();
+                try {
+                    if (remaining <= 0 || (connection = this.idle.pollFirst(remaining, TimeUnit.NANOSECONDS)) == null)
+                        throw new SQLException("Timed out waiting for a database connection");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted waiting for a database connection", e);
+                }
+            }
+            
+            if (this.isUsable(connection))
+                return connection;
+            this.discard(connection);
+        }
+    }
+    
+    @Override
+    public void release(@NotNull MySQLPooledConnection connection) {
+        connection.markUsed();
+        
+        if (connection.isClosed() || this.isExpired(connection, System.nanoTime()))
+            this.discard(connection);
+        else this.idle.offerFirst(connection);
+    }
+    
+    private boolean isUsable(@NotNull MySQLPooledConnection connection) {
+        long now = System.nanoTime();
+        if (this.isExpired(connection, now))
+            return false;
+        
+        // Only check with the server if the connection has been sitting unused
+        if (connection.getIdle(now) > TimeUnit.SECONDS.toNanos(SewConfig.get(SewConfig.DB_POOL_VALIDATE_IDLE)))
+            return connection.isValid(5);
+        return !connection.isClosed();
+    }
+    private boolean isExpired(@NotNull MySQLPooledConnection connection, long now) {
+        int lifetime = SewConfig.get(SewConfig.DB_POOL_LIFETIME);
+        return lifetime > 0 && connection.getAge(now) > TimeUnit.MINUTES.toNanos(lifetime);
+    }
+    private void discard(@NotNull MySQLPooledConnection connection) {
+        CoreMod.logDebug("Retiring pooled SQL connection");
+        connection.close();
+        this.open.decrementAndGet();
+    }
+    
+    public int getOpen() {
+        return this.open.get();
+    }
+    public int getIdle() {
+        return this.idle.size();
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.TheElm.project.MySQL;
+
+import net.TheElm.project.CoreMod;
+import net.TheElm.project.config.SewConfig;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A Connection held by a MySQLPool, along with the statements that have been prepared on it
+ */
+public final class MySQLPooledConnection {
+    
+    private final @NotNull Connection connection;
+    private final @NotNull Map<String, PreparedStatement> statements;
+    private final long created;
+    private long lastUsed;
+    
+    MySQLPooledConnection(@NotNull Connection connection) {
+        this.connection = connection;
+        this.created = System.nanoTime();
+        this.lastUsed = this.created;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (this.size() <= Math.max(0, SewConfig.get(SewConfig.DB_POOL_STATEMENTS)))
+                    return false;
+                MySQLPooledConnection.closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+    }
+    
+    /**
+     * Get a PreparedStatement for the SQL, reusing one that was prepared on this connection before
+     * @param sql The SQL string
+     * @return A statement with no parameters set
+     * @throws SQLException If the statement could not be prepared
+     */
+    @NotNull PreparedStatement prepare(@NotNull String sql) throws SQLException {
+        PreparedStatement statement = this.statements.get(sql);
+        if (statement != null && !statement.isClosed())
+            return statement;
+        
+        statement = this.connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+        this.statements.put(sql, statement);
+        return statement;
+    }
+    
+    public @NotNull Connection getConnection() {
+        return this.connection;
+    }
+    
+    long getAge(long now) {
+        return now - this.created;
+    }
+    long getIdle(long now) {
+        return now - this.lastUsed;
+    }
+    void markUsed() {
+        this.lastUsed = System.nanoTime();
+    }
+    
+    boolean isValid(int timeout) {
+        try {
+            return (!this.connection.isClosed()) && this.connection.isValid(timeout);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+    boolean isClosed() {
+        try {
+            return this.connection.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+    
+    void close() {
+        for (PreparedStatement statement : this.statements.values())
+            MySQLPooledConnection.closeQuietly(statement);
+        this.statements.clear();
+        try {
+            if (!this.connection.isClosed())
+                this.connection.close();
+        } catch (SQLException e) {
+            CoreMod.logError( e );
+        }
+    }
+    private static void closeQuietly(@NotNull PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            CoreMod.logError( e );
+        }
+    }
+}
@@ -29,16 +29,18 @@ import net.TheElm.project.CoreMod;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.sql.Timestamp;
 import java.util.UUID;
 
 public class MySQLStatement implements AutoCloseable {
     
+    private final MySQLHost host;
+    private final MySQLPooledConnection connection;
     private final PreparedStatement stmt;
+    private boolean released = false;
     
     private final String rawStatement;
     private boolean batched = false;
@@ -50,11 +52,15 @@ public class MySQLStatement implements AutoCloseable {
     }
     MySQLStatement(MySQLHost host, String preparedStmt, boolean batchMode ) throws SQLException {
         this.rawStatement = preparedStmt;
-        Connection conn = host.getConnection();
+        this.host = host;
+        this.connection = host.borrow();
         
-        CoreMod.logDebug( "Preparing new MySQL statement." );
-        
-        this.stmt = conn.prepareStatement( preparedStmt, Statement.RETURN_GENERATED_KEYS );
+        try {
+            this.stmt = this.connection.prepare( preparedStmt );
+        } catch ( SQLException | RuntimeException e ) {
+            host.release( this.connection );
+            throw e;
+        }
         this.batched = batchMode;
     }
     
@@ -80,6 +86,9 @@ public class MySQLStatement implements AutoCloseable {
     public MySQLStatement addPrepared( @Nullable Number i ) {
         return this.addPrepared( (Object) i );
     }
+    public MySQLStatement addPrepared( @Nullable Timestamp timestamp ) {
+        return this.addPrepared( (Object) timestamp );
+    }
     public MySQLStatement addPrepared( @NotNull Enum e ) {
         return this.addPrepared( e.name() );
     }
@@ -99,6 +108,14 @@ public class MySQLStatement implements AutoCloseable {
     public int batchCount() {
         return this.batchCount;
     }
+    public int[] executeBatch() throws SQLException {
+        if ( !this.batched )
+            throw new SQLException("Statement was not prepared in batch mode");
+        
+        this.slider = 0;
+        this.batchCount = 0;
+        return this.stmt.executeBatch();
+    }
     
     public ResultSet executeStatement() throws SQLException {
         return this.executeStatement( false );
@@ -130,30 +147,31 @@ public class MySQLStatement implements AutoCloseable {
     }
     
     public boolean isClosed() {
-        if ( this.stmt == null )
+        if ( this.released )
             return true;
         try {
-            // Check if connection is still open
-            Connection connection = this.stmt.getConnection();
-            
-            if ( connection.isClosed() | (!connection.isValid( 5 )) )
-                this.stmt.close();
-            
             return this.stmt.isClosed();
-            
         } catch ( SQLException e ) {
             return true;
         }
     }
     public void close() {
+        if ( this.released )
+            return;
+        this.released = true;
+        
         try {
-            if ( this.stmt != null ) {
-                // Close the statement
-                if ( !this.stmt.isClosed() )
-                    this.stmt.close();
+            // Reset the statement so the connection can reuse it
+            if ( !this.stmt.isClosed() ) {
+                this.stmt.clearParameters();
+                if ( this.batchCount > 0 )
+                    this.stmt.clearBatch();
             }
         } catch ( SQLException e ) {
             CoreMod.logError( e );
+        } finally {
+            // Return the connection to the pool
+            this.host.release( this.connection );
         }
     }
     
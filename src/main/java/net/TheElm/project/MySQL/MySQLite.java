@@ -26,47 +26,36 @@
 package net.TheElm.project.MySQL;
 
 import net.TheElm.project.CoreMod;
+import org.jetbrains.annotations.NotNull;
 
 import java.io.File;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 
-public class MySQLite implements MySQLHost {
-    
-    private Connection conn = null;
+public class MySQLite extends MySQLPool {
     
     @Override
-    public Connection getConnection() throws SQLException {
-        /*
-         * Test if MySQL is still connected
-         */
-        if ( this.conn != null ) {
-            if ( (!this.conn.isClosed()) && this.conn.isValid(5) )
-                return this.conn;
-            if ( !this.conn.isClosed() )
-                this.conn.close();
-        }
-        
+    protected @NotNull Connection createConnection() throws SQLException {
         /*
          * Create a new connection
          */
         
-        try {
-            final File dir = CoreMod.getConfDir();
-            final File jdbc = new File( dir.getAbsolutePath(), "sqlite.db" );
-            
-            System.out.println( "A.1" );
-            this.conn = DriverManager.getConnection("jdbc:sqlite:" + jdbc.getAbsolutePath());
-            System.out.println( "A.2" );
-            
-            if (this.conn != null)
-                System.out.println( this.conn.getMetaData().getDriverName() );
-            
-        } catch (RuntimeException e) {
-            CoreMod.logError( e );
-        }
-        return this.conn;
+        final File dir = CoreMod.getConfDir();
+        final File jdbc = new File( dir.getAbsolutePath(), "sqlite.db" );
+        
+        Connection conn = DriverManager.getConnection("jdbc:sqlite:" + jdbc.getAbsolutePath());
+        CoreMod.logDebug( "Opened SQL connection using " + conn.getMetaData().getDriverName() );
+        
+        return conn;
+    }
+    
+    /**
+     * SQLite only allows a single writer, extra connections would just wait on the file lock
+     */
+    @Override
+    protected int getMaxSize() {
+        return 1;
     }
     
 }
@@ -194,20 +194,6 @@ public final class ServerCore extends CoreMod implements DedicatedServerModIniti
         } catch (IOException e) {
             CoreMod.logError("Error during startup", e);
         }
-        
-        /*LinkedPointChunk[] chunks = new LinkedPointChunk[] {
-            LinkedPointChunk.of(0, 0),
-            LinkedPointChunk.of(0, 1)
-        };
-        
-        LinkedPointChunk chunk = chunks[0];
-        System.out.println("Connected: " + chunk.setLinked(chunks[1]));
-        
-        for (LinkedPointChunk link : chunks) {
-            for (BlockPos point : link.gatherPoints()) {
-                System.out.println(MessageUtils.xzToString(point));
-            }
-        }*/
     }
     
     public static @NotNull MinecraftServer get() {
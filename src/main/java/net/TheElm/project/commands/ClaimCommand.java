@@ -55,6 +55,7 @@ import net.TheElm.project.interfaces.PlayerData;
 import net.TheElm.project.interfaces.PlayerMovement;
 import net.TheElm.project.interfaces.VillagerTownie;
 import net.TheElm.project.interfaces.WhitelistedPlayer;
+import net.TheElm.project.objects.DetachedTickable;
 import net.TheElm.project.objects.ticking.ChunkOwnerUpdate;
 import net.TheElm.project.protections.BlockRange;
 import net.TheElm.project.protections.claiming.Claimant;
@@ -558,7 +559,7 @@ public final class ClaimCommand {
         return ClaimCommand.claimChunkAt(source, world, chunkFor, verify, Arrays.asList(positions));
     }
     public static int claimChunkAt(@NotNull ServerPlayerEntity source, @NotNull World world, @NotNull final UUID chunkFor, final boolean verify, @NotNull Collection<? extends BlockPos> positions) {
-        ((LogicalWorld)world).addTickableEvent(ChunkOwnerUpdate.forPlayer(
+        ((LogicalWorld)world).addTickableEvent(DetachedTickable.Priority.BULK, ChunkOwnerUpdate.forPlayer(
             source,
             chunkFor,
             ChunkOwnerUpdate.Mode.CLAIM,
@@ -642,7 +643,7 @@ public final class ClaimCommand {
         return ClaimCommand.unclaimChunkAt(source, world, chunkFor, verify, Arrays.asList(positions));
     }
     public static int unclaimChunkAt(@NotNull ServerPlayerEntity source, @NotNull World world, @NotNull final UUID chunkFor, final boolean verify, @NotNull Collection<? extends BlockPos> positions) {
-        ((LogicalWorld)world).addTickableEvent(ChunkOwnerUpdate.forPlayer(
+        ((LogicalWorld)world).addTickableEvent(DetachedTickable.Priority.BULK, ChunkOwnerUpdate.forPlayer(
             source,
             chunkFor,
             ChunkOwnerUpdate.Mode.UNCLAIM,
@@ -31,12 +31,29 @@ import com.mojang.brigadier.arguments.BoolArgumentType;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import net.TheElm.project.CoreMod;
 import net.TheElm.project.ServerCore;
+import net.TheElm.project.enums.ChatRooms;
 import net.TheElm.project.enums.DragonLoot;
+import net.TheElm.project.interfaces.LogicalWorld;
 import net.TheElm.project.mixins.Server.ServerWorldAccessor;
+import net.TheElm.project.objects.DetachedTickable;
+import net.TheElm.project.objects.TickableScheduler;
+import net.TheElm.project.objects.WarpSiteFinder;
 import net.TheElm.project.objects.rewards.WeightedReward;
+import net.TheElm.project.protections.claiming.ClaimantCache;
+import net.TheElm.project.protections.claiming.ClaimantWriter;
+import net.TheElm.project.protections.claiming.ProtectionCache;
+import net.TheElm.project.protections.events.BlockBreak;
 import net.TheElm.project.utilities.BossLootRewards;
+import net.TheElm.project.utilities.CasingUtils;
+import net.TheElm.project.utilities.ChunkUtils;
+import net.TheElm.project.utilities.DimensionUtils;
 import net.TheElm.project.utilities.EffectUtils;
+import net.TheElm.project.utilities.MapUtils;
+import net.TheElm.project.utilities.OfflinePlayerCache;
+import net.TheElm.project.utilities.PlayerIndex;
+import net.TheElm.project.utilities.text.MessageUtils;
 import net.minecraft.command.argument.EntityArgumentType;
 import net.minecraft.command.argument.ParticleEffectArgumentType;
 import net.minecraft.entity.Entity;
@@ -47,6 +64,7 @@ import net.minecraft.server.command.CommandManager;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.text.LiteralText;
+import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
 import net.minecraft.world.WanderingTraderManager;
 import net.minecraft.world.spawner.Spawner;
@@ -55,6 +73,8 @@ import org.jetbrains.annotations.NotNull;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
 public class DebugCommands {
@@ -92,6 +112,25 @@ public class DebugCommands {
                 1
             ))
         );
+        
+        ServerCore.register(dispatcher, "Claimant Cache", builder -> builder
+            .executes(DebugCommands::cacheStats)
+        );
+        ServerCore.register(dispatcher, "Movement Checks", builder -> builder
+            .executes(DebugCommands::movementStats)
+        );
+        ServerCore.register(dispatcher, "Tickables", builder -> builder
+            .executes(DebugCommands::tickableStats)
+        );
+        ServerCore.register(dispatcher, "Chat Delivery", builder -> builder
+            .executes(DebugCommands::chatStats)
+        );
+        ServerCore.register(dispatcher, "Claim Map", builder -> builder
+            .executes(DebugCommands::mapStats)
+        );
+        ServerCore.register(dispatcher, "Warp Sites", builder -> builder
+            .executes(DebugCommands::warpSiteStats)
+        );
     }
     
     private static int executeParticle(@NotNull CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
@@ -137,6 +176,109 @@ public class DebugCommands {
         return Command.SINGLE_SUCCESS;
     }
     
+    private static int cacheStats(@NotNull CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+        
+        source.sendFeedback(DebugCommands.cacheStats("Players", CoreMod.PLAYER_CLAIM_CACHE), false);
+        source.sendFeedback(DebugCommands.cacheStats("Towns", CoreMod.TOWN_CLAIM_CACHE), false);
+        long offlineHits = OfflinePlayerCache.getHits(), offlineMisses = OfflinePlayerCache.getMisses();
+        source.sendFeedback(new LiteralText("Offline players: ").formatted(Formatting.YELLOW)
+            .append(new LiteralText(OfflinePlayerCache.size() + " held, " + offlineHits + " hits, " + offlineMisses + " misses (" + (offlineHits + offlineMisses == 0 ? 0 : offlineHits * 100 / (offlineHits + offlineMisses)) + "% hit rate), " + OfflinePlayerCache.getDiskReads() + " disk reads").formatted(Formatting.WHITE)), false);
+        source.sendFeedback(new LiteralText("Writes: ").formatted(Formatting.YELLOW)
+            .append(new LiteralText(ClaimantWriter.getQueueDepth() + " pending, " + ClaimantWriter.getQueued() + " queued, " + ClaimantWriter.getCoalesced() + " coalesced, " + ClaimantWriter.getWritten() + " written, " + ClaimantWriter.getFailed() + " failed, " + ClaimantWriter.getUnsaved() + " unsaved").formatted(Formatting.WHITE)), false);
+        for (ServerWorld world : source.getServer().getWorlds()) {
+            ProtectionCache cache = ((LogicalWorld) world).getProtectionCache();
+            source.sendFeedback(new LiteralText(DimensionUtils.dimensionIdentifier(world) + ": ").formatted(Formatting.YELLOW)
+                .append(new LiteralText(cache.size() + " protection decisions, " + cache.getHits() + " hits, " + cache.getMisses() + " misses, " + ChunkUtils.getClaimIndex(world).size() + " indexed claims").formatted(Formatting.WHITE)), false);
+        }
+        source.sendFeedback(new LiteralText("Unloaded chunk checks: ").formatted(Formatting.YELLOW)
+            .append(new LiteralText(String.valueOf(ChunkUtils.getUnloadedChecks())).formatted(Formatting.WHITE)), false);
+        source.sendFeedback(new LiteralText("Explosions: ").formatted(Formatting.YELLOW)
+            .append(new LiteralText(BlockBreak.getExplosionBlocks() + " blocks checked with " + BlockBreak.getExplosionDecisions() + " claim decisions").formatted(Formatting.WHITE)), false);
+        
+        return Command.SINGLE_SUCCESS;
+    }
+    private static @NotNull Text cacheStats(@NotNull String name, @NotNull ClaimantCache<?> cache) {
+        return new LiteralText(name + ": ").formatted(Formatting.YELLOW)
+            .append(new LiteralText(cache.size() + " held, " + cache.weakSize() + " weak, " + cache.getHits() + " hits, " + cache.getMisses() + " misses, " + cache.getEvictions() + " evictions").formatted(Formatting.WHITE));
+    }
+    
+    private static int movementStats(@NotNull CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+        
+        long fast = ChunkUtils.getFastMovements();
+        long checked = ChunkUtils.getCheckedMovements();
+        long total = fast + checked;
+        
+        source.sendFeedback(new LiteralText("Movement: ").formatted(Formatting.YELLOW)
+            .append(new LiteralText(fast + " skipped, " + checked + " checked (" + (total == 0 ? 0 : fast * 100 / total) + "% skipped)").formatted(Formatting.WHITE)), false);
+        
+        return Command.SINGLE_SUCCESS;
+    }
+    
+    private static int tickableStats(@NotNull CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+        
+        source.sendFeedback(new LiteralText("MSPT: ").formatted(Formatting.YELLOW)
+            .append(new LiteralText(String.format("%.2f", source.getServer().getTickTime())).formatted(Formatting.WHITE)), false);
+        for (ServerWorld world : source.getServer().getWorlds()) {
+            TickableScheduler scheduler = ((LogicalWorld) world).getTickableScheduler();
+            source.sendFeedback(new LiteralText(DimensionUtils.dimensionIdentifier(world) + ": ").formatted(Formatting.YELLOW)
+                .append(new LiteralText(scheduler.size() + " running, " + DebugCommands.millis(scheduler.getLastUsed()) + " of " + DebugCommands.millis(scheduler.getLastBudget()) + " budget used last tick, " + scheduler.getDeferred() + " deferred").formatted(Formatting.WHITE)), false);
+            
+            // Tasks that are still running
+            for (DetachedTickable tickable : scheduler.getRunning())
+                source.sendFeedback(new LiteralText("  " + tickable.getName() + " (" + tickable.getPriority().name().toLowerCase(Locale.ROOT) + "): ").formatted(Formatting.GRAY)
+                    .append(new LiteralText(DebugCommands.millis(tickable.getNanos()) + " over " + tickable.getSteps() + " steps, " + tickable.getTicks() + " ticks").formatted(Formatting.WHITE)), false);
+            
+            // Totals of tasks that have completed
+            Map<String, Long> counts = scheduler.getFinishedCount();
+            for (Map.Entry<String, Long> entry : scheduler.getFinishedNanos().entrySet())
+                source.sendFeedback(new LiteralText("  " + entry.getKey() + " (finished): ").formatted(Formatting.DARK_GRAY)
+                    .append(new LiteralText(DebugCommands.millis(entry.getValue()) + " over " + counts.getOrDefault(entry.getKey(), 0L) + " tasks").formatted(Formatting.WHITE)), false);
+        }
+        
+        return Command.SINGLE_SUCCESS;
+    }
+    private static int chatStats(@NotNull CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+        
+        source.sendFeedback(new LiteralText("Player index: ").formatted(Formatting.YELLOW)
+            .append(new LiteralText(PlayerIndex.size() + " players, " + PlayerIndex.cells() + " cells, " + PlayerIndex.towns() + " towns").formatted(Formatting.WHITE)), false);
+        for (ChatRooms room : ChatRooms.values()) {
+            long delivered = MessageUtils.getDelivered(room);
+            source.sendFeedback(new LiteralText(CasingUtils.words(room.name()) + ": ").formatted(Formatting.YELLOW)
+                .append(new LiteralText(delivered + " messages, " + DebugCommands.millis(delivered == 0 ? 0 : MessageUtils.getDeliveryNanos(room) / delivered) + " average, " + DebugCommands.millis(MessageUtils.getDeliveryMax(room)) + " max").formatted(Formatting.WHITE)), false);
+        }
+        
+        return Command.SINGLE_SUCCESS;
+    }
+    private static int mapStats(@NotNull CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+        long flushes = MapUtils.getFlushes();
+        
+        source.sendFeedback(new LiteralText("Queued: ").formatted(Formatting.YELLOW)
+            .append(new LiteralText(MapUtils.getQueued() + " claimants, " + MapUtils.getCoalesced() + " coalesced changes, " + MapUtils.getPending() + " pending").formatted(Formatting.WHITE)), false);
+        source.sendFeedback(new LiteralText("Flushed: ").formatted(Formatting.YELLOW)
+            .append(new LiteralText(MapUtils.getPushed() + " regions over " + flushes + " flushes, " + DebugCommands.millis(flushes == 0 ? 0 : MapUtils.getFlushNanos() / flushes) + " average").formatted(Formatting.WHITE)), false);
+        
+        return Command.SINGLE_SUCCESS;
+    }
+    private static int warpSiteStats(@NotNull CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+        
+        for (ServerWorld world : source.getServer().getWorlds()) {
+            WarpSiteFinder finder = ((LogicalWorld) world).getWarpSites();
+            source.sendFeedback(new LiteralText(DimensionUtils.dimensionIdentifier(world) + ": ").formatted(Formatting.YELLOW)
+                .append(new LiteralText(finder.size() + " pooled, " + finder.getRefilling() + " searching, " + finder.getFound() + " of " + finder.getChecked() + " chunks valid, " + finder.getFromPool() + " taken from pool, " + finder.getExhausted() + " searches exhausted" + (finder.isPaused() ? ", paused" : "")).formatted(Formatting.WHITE)), false);
+        }
+        
+        return Command.SINGLE_SUCCESS;
+    }
+    private static @NotNull String millis(long nanos) {
+        return String.format("%.2fms", nanos / 1_000_000.0D);
+    }
+    
     private static int forceTrader(@NotNull CommandContext<ServerCommandSource> context) {
         ServerCommandSource source = context.getSource();
         
@@ -37,6 +37,7 @@ import net.TheElm.project.ServerCore;
 import net.TheElm.project.config.SewConfig;
 import net.TheElm.project.interfaces.CommandPredicate;
 import net.TheElm.project.interfaces.SQLFunction;
+import net.TheElm.project.protections.logging.EventLogger;
 import net.TheElm.project.protections.logging.EventLogger.BlockAction;
 import net.TheElm.project.utilities.CommandUtils;
 import net.TheElm.project.utilities.PlayerNameUtils;
@@ -46,7 +47,9 @@ import net.minecraft.command.argument.BlockPosArgumentType;
 import net.minecraft.command.argument.DimensionArgumentType;
 import net.minecraft.command.argument.GameProfileArgumentType;
 import net.minecraft.command.argument.ItemStackArgumentType;
+import net.minecraft.entity.Entity;
 import net.minecraft.item.Item;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.command.CommandManager;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.world.ServerWorld;
@@ -59,18 +62,28 @@ import net.minecraft.text.Text;
 import net.minecraft.text.TranslatableText;
 import net.minecraft.util.Formatting;
 import net.minecraft.util.Identifier;
+import net.minecraft.util.Util;
 import net.minecraft.util.math.BlockPos;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.UnaryOperator;
 
 public final class LoggingCommand {
     
+    private static final Map<UUID, BlockLogQuery> LAST_QUERIES = new ConcurrentHashMap<>();
+    
     private LoggingCommand() {}
     
     public static void register(@NotNull CommandDispatcher<ServerCommandSource> dispatcher) {
@@ -108,6 +121,12 @@ public final class LoggingCommand {
                         .executes(LoggingCommand::getByPlayer)
                     )
                 )
+                .then(CommandManager.literal("next")
+                    .executes(LoggingCommand::getNextPage)
+                )
+                .then(CommandManager.literal("stats")
+                    .executes(LoggingCommand::getLoggerStats)
+                )
             );
         }
     }
@@ -128,46 +147,38 @@ public final class LoggingCommand {
         ServerWorld world = DimensionArgumentType.getDimensionArgument(context, "dimension");
         BlockPos blockPos = BlockPosArgumentType.getBlockPos(context, "pos");
         
-        try (MySQLStatement stmt = CoreMod.getSQL().prepare("SELECT `block`, `updatedEvent`, `updatedBy`, `updatedAt` FROM `logging_Blocks` WHERE `blockWorld` = ? AND `blockX` = ? AND `blockY` = ? AND `blockZ` = ? ORDER BY `updatedAt` DESC" + ( limit > 0 ? " LIMIT ?" : "" ) + ";")
-            .addPrepared(NbtUtils.worldToTag(world))
-            .addPrepared(blockPos.getX())
-            .addPrepared(blockPos.getY())
-            .addPrepared(blockPos.getZ())) {
-            
-            // If limit is set
-            if (limit > 0) stmt.addPrepared( limit );
-            
-            // Create the main text object
-            MutableText heading = new LiteralText("Block History for ")
-                .formatted(Formatting.YELLOW)
-                .append(MessageUtils.xyzToText( blockPos ));
-            
-            // Append our results
-            Text text = executeSQLStatement(heading, stmt, (results -> {
+        // Create the main text object
+        MutableText heading = new LiteralText("Block History for ")
+            .formatted(Formatting.YELLOW)
+            .append(MessageUtils.xyzToText( blockPos ));
+        
+        BlockLogQuery query = new BlockLogQuery(
+            heading,
+            "`block`, `updatedEvent`, `updatedBy`",
+            "`blockWorld` = ? AND `blockX` = ? AND `blockY` = ? AND `blockZ` = ?",
+            stmt -> stmt.addPrepared(NbtUtils.worldToTag(world))
+                .addPrepared(blockPos.getX())
+                .addPrepared(blockPos.getY())
+                .addPrepared(blockPos.getZ()),
+            limit,
+            (results, row) -> {
                 // Get the row statement information
                 String blockTranslation = results.getString("block");
                 boolean add = (BlockAction.valueOf(results.getString("updatedEvent")) == BlockAction.PLACE);
                 UUID updatedBy = UUID.fromString(results.getString("updatedBy"));
                 
                 // Add the row text to the main text
-                return new LiteralText("\n" + results.getRow() + ". ")
+                return new LiteralText("\n" + row + ". ")
                     .append(new LiteralText( add ? "+ " : "- " ).append(new TranslatableText(blockTranslation)).formatted( add ? Formatting.GREEN: Formatting.RED ))
                     .append(" by ")
                     .append(PlayerNameUtils.fetchPlayerName(updatedBy).formatted(Formatting.AQUA)
                         .styled(MessageUtils.simpleHoverText(updatedBy.toString())))
                     .append("\n     at ")
                     .append(new LiteralText(results.getTimestamp("updatedAt").toString()).formatted(Formatting.GRAY));
-            }));
-            
-            // Send the text to the player
-            context.getSource().sendFeedback(text, false);
-            
-        } catch (SQLException e) {
-            // SQL statement
-            CoreMod.logError( e );
-        }
+            }
+        );
         
-        return Command.SINGLE_SUCCESS;
+        return LoggingCommand.runQuery(context.getSource(), query);
     }
     
     private static int getFromRange(@NotNull CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
@@ -188,31 +199,30 @@ public final class LoggingCommand {
         Item item = ItemStackArgumentType.getItemStackArgument(context, "item").getItem();
         String blockTranslation = item.getTranslationKey();
         
-        try (MySQLStatement stmt = CoreMod.getSQL().prepare("SELECT `blockX`, `blockY`, `blockZ`, `updatedEvent`, `updatedBy`, `updatedAt` FROM `logging_Blocks` WHERE `blockWorld` = ? AND `block` = ? AND `blockX` >= ? AND `blockX` <= ? AND `blockZ` >= ? AND `blockZ` <= ? ORDER BY `updatedAt` DESC" + ( limit > 0 ? " LIMIT ?" : "" ) + ";")
-            .addPrepared(NbtUtils.worldToTag(world))
-            .addPrepared(blockTranslation)
-            .addPrepared(centerPos.getX() - 8)
-            .addPrepared(centerPos.getX() + 8)
-            .addPrepared(centerPos.getZ() - 8)
-            .addPrepared(centerPos.getZ() + 8)) {
-            
-            // If limit is set
-            if (limit > 0) stmt.addPrepared( limit );
-            
-            // Create the output heading
-            MutableText heading = new LiteralText("Block History of ")
-                .formatted(Formatting.YELLOW)
-                .append(new TranslatableText( blockTranslation ));
-            
-            // Append our results
-            Text text = executeSQLStatement(heading, stmt, (results -> {
+        // Create the output heading
+        MutableText heading = new LiteralText("Block History of ")
+            .formatted(Formatting.YELLOW)
+            .append(new TranslatableText( blockTranslation ));
+        
+        BlockLogQuery query = new BlockLogQuery(
+            heading,
+            "`blockX`, `blockY`, `blockZ`, `updatedEvent`, `updatedBy`",
+            "`blockWorld` = ? AND `block` = ? AND `blockX` >= ? AND `blockX` <= ? AND `blockZ` >= ? AND `blockZ` <= ?",
+            stmt -> stmt.addPrepared(NbtUtils.worldToTag(world))
+                .addPrepared(blockTranslation)
+                .addPrepared(centerPos.getX() - 8)
+                .addPrepared(centerPos.getX() + 8)
+                .addPrepared(centerPos.getZ() - 8)
+                .addPrepared(centerPos.getZ() + 8),
+            limit,
+            (results, row) -> {
                 // Get the row statement information
                 boolean add = (BlockAction.valueOf(results.getString("updatedEvent")) == BlockAction.PLACE);
                 UUID updatedBy = UUID.fromString(results.getString("updatedBy"));
                 UnaryOperator<Style> hoverEvent = (styler) -> styler.withHoverEvent(new HoverEvent(Action.SHOW_TEXT, new LiteralText(updatedBy.toString())));
                 
                 // Add the row text to the main text
-                return new LiteralText("\n" + results.getRow() + ". ")
+                return new LiteralText("\n" + row + ". ")
                     .append(new LiteralText( add ? "+ " : "- " ).append(new TranslatableText(blockTranslation)).formatted( add ? Formatting.GREEN: Formatting.RED ))
                     .append(" by ")
                     .append(PlayerNameUtils.fetchPlayerName(updatedBy).formatted(Formatting.AQUA).styled(hoverEvent))
@@ -220,18 +230,10 @@ public final class LoggingCommand {
                     .append(MessageUtils.xyzToText(new BlockPos(results.getInt("blockX"), results.getInt("blockY"), results.getInt("blockZ"))).formatted(Formatting.GRAY))
                     .append("\n     at ")
                     .append(new LiteralText(results.getTimestamp("updatedAt").toString()).formatted(Formatting.GRAY));
-            }));
-            
-            // Send the text to the player
-            context.getSource().sendFeedback(text, false);
-            
-        } catch (SQLException e) {
-            // SQL statement
-            CoreMod.logError( e );
-            
-        }
+            }
+        );
         
-        return Command.SINGLE_SUCCESS;
+        return LoggingCommand.runQuery(context.getSource(), query);
     }
     
     private static int getByPlayer(@NotNull CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
@@ -250,25 +252,24 @@ public final class LoggingCommand {
         Collection<GameProfile> gameProfiles = GameProfileArgumentType.getProfileArgument( context, "player" );
         GameProfile player = gameProfiles.stream().findAny().orElseThrow(GameProfileArgumentType.UNKNOWN_PLAYER_EXCEPTION::create);
         
-        try (MySQLStatement stmt = CoreMod.getSQL().prepare("SELECT `block`, `blockX`, `blockY`, `blockZ`, `blockWorld`, `updatedEvent`, `updatedAt` FROM `logging_Blocks` WHERE `updatedBy` = ? ORDER BY `updatedAt` DESC" + ( limit > 0 ? " LIMIT ?" : "" ) + ";")
-            .addPrepared(player.getId().toString())) {
-            
-            // If limit is set
-            if (limit > 0) stmt.addPrepared( limit );
-            
-            // Create the output heading
-            MutableText heading = new LiteralText("Block History for " + player.getName())
-                .formatted(Formatting.YELLOW);
-            
-            // Append our results
-            Text text = executeSQLStatement(heading, stmt, (results) -> {
+        // Create the output heading
+        MutableText heading = new LiteralText("Block History for " + player.getName())
+            .formatted(Formatting.YELLOW);
+        
+        BlockLogQuery query = new BlockLogQuery(
+            heading,
+            "`block`, `blockX`, `blockY`, `blockZ`, `blockWorld`, `updatedEvent`",
+            "`updatedBy` = ?",
+            stmt -> stmt.addPrepared(player.getId().toString()),
+            limit,
+            (results, row) -> {
                 // Get the row statement information
                 String blockTranslation = results.getString("block");
                 boolean add = (BlockAction.valueOf(results.getString("updatedEvent")) == BlockAction.PLACE);
                 UnaryOperator<Style> hoverEvent = (style) -> style.withHoverEvent(new HoverEvent(Action.SHOW_TEXT, new LiteralText(player.getId().toString())));
                 
                 // Add the row text to the main text
-                return new LiteralText("\n" + results.getRow() + ". ")
+                return new LiteralText("\n" + row + ". ")
                     .append(new LiteralText( add ? "+ " : "- " ).append(new TranslatableText(blockTranslation)).formatted( add ? Formatting.GREEN: Formatting.RED ))
                     .append(" by ")
                     .append(new LiteralText(player.getName()).formatted(Formatting.AQUA).styled(hoverEvent))
@@ -276,39 +277,153 @@ public final class LoggingCommand {
                     .append(MessageUtils.xyzToText(new BlockPos(results.getInt("blockX"), results.getInt("blockY"), results.getInt("blockZ")), new Identifier(results.getString("blockWorld"))).formatted(Formatting.GRAY))
                     .append("\n     at ")
                     .append(new LiteralText(results.getTimestamp("updatedAt").toString()).formatted(Formatting.GRAY));
-            });
-            
-            // Send the text to the player
-            context.getSource().sendFeedback(text, false);
-            
-        } catch (SQLException e) {
-            // SQL statement
-            CoreMod.logError( e );
+            }
+        );
         
+        return LoggingCommand.runQuery(context.getSource(), query);
+    }
+    
+    private static int getNextPage(@NotNull CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+        BlockLogQuery query = LoggingCommand.LAST_QUERIES.get(LoggingCommand.getSourceKey(source));
+        if (query == null) {
+            source.sendError(new LiteralText("There is no previous block log search to continue."));
+            return 0;
         }
+        if (query.isExhausted()) {
+            source.sendError(new LiteralText("There are no more results for the previous search."));
+            return 0;
+        }
+        
+        return LoggingCommand.runQuery(source, query);
+    }
+    
+    /**
+     * Run the query on the IO thread and send the results back to the source on the server thread
+     */
+    private static int runQuery(@NotNull ServerCommandSource source, @NotNull BlockLogQuery query) {
+        MinecraftServer server = source.getServer();
+        LoggingCommand.LAST_QUERIES.put(LoggingCommand.getSourceKey(source), query);
+        
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return query.next();
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, Util.getIoWorkerExecutor()).whenCompleteAsync((text, exception) -> {
+            if (exception == null)
+                source.sendFeedback(text, false);
+            else {
+                // SQL statement
+                CoreMod.logError( exception );
+                source.sendError(new LiteralText("An error occurred while reading the block log."));
+            }
+        }, server);
+        
+        return Command.SINGLE_SUCCESS;
+    }
+    private static @NotNull UUID getSourceKey(@NotNull ServerCommandSource source) {
+        Entity entity = source.getEntity();
+        return entity == null ? Util.NIL_UUID : entity.getUuid();
+    }
+    
+    private static int getLoggerStats(@NotNull CommandContext<ServerCommandSource> context) {
+        MutableText text = new LiteralText("Block Logger")
+            .formatted(Formatting.YELLOW)
+            .append(new LiteralText("\n  Queued: ").formatted(Formatting.GRAY))
+            .append(new LiteralText(EventLogger.getQueueDepth() + " (" + EventLogger.getSpillDepth() + " on disk)").formatted(Formatting.WHITE))
+            .append(new LiteralText("\n  Inserted: ").formatted(Formatting.GRAY))
+            .append(new LiteralText(EventLogger.getInserted() + " in " + EventLogger.getBatches() + " batches").formatted(Formatting.WHITE))
+            .append(new LiteralText("\n  Overflowed: ").formatted(Formatting.GRAY))
+            .append(new LiteralText(EventLogger.getSpilled() + " spilled, " + EventLogger.getDropped() + " dropped").formatted(Formatting.WHITE))
+            .append(new LiteralText("\n  Insert latency: ").formatted(Formatting.GRAY))
+            .append(new LiteralText(LoggingCommand.toMillis(EventLogger.getLastInsertNanos()) + "ms last, " + LoggingCommand.toMillis(EventLogger.getAverageInsertNanos()) + "ms average").formatted(Formatting.WHITE));
+        
+        context.getSource().sendFeedback(text, false);
         
         return Command.SINGLE_SUCCESS;
     }
+    private static @NotNull String toMillis(long nanos) {
+        return String.format("%.2f", nanos / 1_000_000D);
+    }
     
-    private static Text executeSQLStatement(@NotNull MutableText text, @NotNull MySQLStatement stmt, @NotNull SQLFunction<ResultSet, Text> function) throws SQLException {
-        ArrayList<Text> list = new ArrayList<>();
+    /**
+     * A block log search that pages through results using the last row seen, instead of an OFFSET
+     */
+    private static final class BlockLogQuery {
+        private final @NotNull MutableText heading;
+        private final @NotNull String columns;
+        private final @NotNull String where;
+        private final @NotNull SQLFunction<MySQLStatement, MySQLStatement> parameters;
+        private final int limit;
+        private final @NotNull BlockLogRow function;
         
-        // Execute the statement
-        ResultSet results = stmt.executeStatement();
+        private int shown = 0;
+        private boolean exhausted = false;
+        private @Nullable Timestamp lastAt = null;
+        private long lastId = 0;
         
-        // For all of the rows
-        int i = 0;
-        while (results.next()) {
-            // Add the row text to the main text
-            list.add(function.apply( results ));
+        private BlockLogQuery(@NotNull MutableText heading, @NotNull String columns, @NotNull String where, @NotNull SQLFunction<MySQLStatement, MySQLStatement> parameters, int limit, @NotNull BlockLogRow function) {
+            this.heading = heading;
+            this.columns = columns;
+            this.where = where;
+            this.parameters = parameters;
+            this.limit = limit;
+            this.function = function;
         }
         
-        // Add the rows
-        for ( i = list.size(); i-- > 0; ) {
-            text.append(list.get(i));
+        public boolean isExhausted() {
+            return this.exhausted;
         }
         
-        return text.append("\nDone.");
+        private synchronized @NotNull Text next() throws SQLException {
+            boolean paging = this.lastAt != null;
+            String sql = "SELECT " + this.columns + ", `updatedAt`, `logId` FROM `logging_Blocks` WHERE " + this.where
+                + (paging ? " AND (`updatedAt` < ? OR (`updatedAt` = ? AND `logId` < ?))" : "")
+                + " ORDER BY `updatedAt` DESC, `logId` DESC LIMIT ?;";
+            
+            try (MySQLStatement stmt = CoreMod.getSQL().prepare(sql)) {
+                this.parameters.apply(stmt);
+                if (paging) {
+                    stmt.addPrepared(this.lastAt)
+                        .addPrepared(this.lastAt)
+                        .addPrepared(this.lastId);
+                }
+                stmt.addPrepared(this.limit);
+                
+                List<Text> list = new ArrayList<>();
+                
+                // Execute the statement
+                ResultSet results = stmt.executeStatement();
+                
+                // For all of the rows
+                while (results.next()) {
+                    // Add the row text to the main text
+                    list.add(this.function.apply(results, this.shown + list.size() + 1));
+                    
+                    // Keep track of where the next page starts
+                    this.lastAt = results.getTimestamp("updatedAt");
+                    this.lastId = results.getLong("logId");
+                }
+                
+                this.shown += list.size();
+                this.exhausted = list.size() < this.limit;
+                
+                // Add the rows
+                MutableText text = this.heading.shallowCopy();
+                for (int i = list.size(); i-- > 0; ) {
+                    text.append(list.get(i));
+                }
+                
+                return text.append(this.exhausted ? "\nDone." : "\nUse /blocklog next for more.");
+            }
+        }
+    }
+    
+    @FunctionalInterface
+    private interface BlockLogRow {
+        Text apply(@NotNull ResultSet results, int row) throws SQLException;
     }
     
 }
@@ -44,6 +44,7 @@ import net.TheElm.project.utilities.CommandUtils;
 import net.TheElm.project.utilities.GuideUtils;
 import net.TheElm.project.utilities.InventoryUtils;
 import net.TheElm.project.utilities.RankUtils;
+import net.TheElm.project.utilities.TranslatableServerSide;
 import net.TheElm.project.utilities.text.MessageUtils;
 import net.minecraft.block.entity.BlockEntity;
 import net.minecraft.block.entity.LootableContainerBlockEntity;
@@ -93,6 +94,9 @@ public final class ModCommands {
                     .requires(CommandPredicate.isEnabled(SewConfig.HANDLE_PERMISSIONS))
                     .executes(ModCommands::reloadPermissions)
                 )
+                .then(CommandManager.literal("translations")
+                    .executes(ModCommands::reloadTranslations)
+                )
             )
             .then(CommandManager.literal("shops")
                 .then(CommandManager.literal("change")
@@ -171,6 +175,15 @@ public final class ModCommands {
         return success ? Command.SINGLE_SUCCESS : -1;
     }
     
+    private static int reloadTranslations(@NotNull CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+        int languages = TranslatableServerSide.reload();
+        
+        source.sendFeedback(new LiteralText("Reloaded " + languages + " language files.").formatted(Formatting.GREEN), true);
+        
+        return Command.SINGLE_SUCCESS;
+    }
+    
     private static void reloadCommandTree(@NotNull MinecraftServer server, boolean reloadPermissions) {
         PlayerManager playerManager = server.getPlayerManager();
         
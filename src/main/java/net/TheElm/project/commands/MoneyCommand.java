@@ -61,6 +61,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
+import java.util.UUID;
 
 public final class MoneyCommand {
     
@@ -299,13 +300,9 @@ public final class MoneyCommand {
         // Get our player reference
         ServerPlayerEntity player = commandSource.getPlayer();
         
-        boolean took = false;
-        boolean sent = false;
         try {
-            if (took = MoneyUtils.takePlayerMoney(player, amount)) {
-                // Give player money
-                sent = MoneyUtils.givePlayerMoney(target.getId(), amount);
-                
+            // Move the money from the player to the target all at once
+            if (MoneyUtils.transferPlayerMoney(UUID.randomUUID(), player.getUuid(), target.getId(), amount)) {
                 // Alert players
                 MoneyCommand.tellPlayersTransaction(commandSource.getServer(), player, target, amount);
             }
@@ -315,10 +312,6 @@ public final class MoneyCommand {
         } catch ( NotEnoughMoneyException e ) {
             throw NOT_ENOUGH_MONEY.create(player);
             
-        } finally {
-            // Refund
-            if (took && (!sent))
-                MoneyUtils.givePlayerMoney(player, amount);
         }
         
         return MoneyCommand.commandMoneyGet(context);
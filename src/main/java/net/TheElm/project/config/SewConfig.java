@@ -36,6 +36,7 @@ import net.TheElm.project.CoreMod;
 import net.TheElm.project.config.addons.SewBluemapConfig;
 import net.TheElm.project.objects.ChatFormat;
 import net.TheElm.project.protections.logging.EventLogger.LoggingIntervals;
+import net.TheElm.project.protections.logging.EventLogger.LoggingOverflow;
 import net.TheElm.project.utilities.DevUtils;
 import net.TheElm.project.utilities.EntityUtils;
 import net.TheElm.project.utilities.FormattingUtils;
@@ -96,6 +97,10 @@ public final class SewConfig extends SewConfigContainer {
     public static final ConfigOption<String> DB_USER = SewConfig.addConfig(ConfigOption.json("database.user", ""));
     public static final ConfigOption<String> DB_PASS = SewConfig.addConfig(ConfigOption.json("database.pass", ""));
     public static final ConfigOption<Integer> DB_PORT = SewConfig.addConfig(ConfigOption.json("database.port", 3306));
+    public static final ConfigOption<Integer> DB_POOL_SIZE = SewConfig.addConfig(ConfigOption.json("database.pool.size", 4, 1, 64));
+    public static final ConfigOption<Integer> DB_POOL_LIFETIME = SewConfig.addConfig(ConfigOption.json("database.pool.max_lifetime_minutes", 30));
+    public static final ConfigOption<Integer> DB_POOL_VALIDATE_IDLE = SewConfig.addConfig(ConfigOption.json("database.pool.validate_idle_seconds", 30));
+    public static final ConfigOption<Integer> DB_POOL_STATEMENTS = SewConfig.addConfig(ConfigOption.json("database.pool.statement_cache", 32));
     
     /*
      * Chat Booleans
@@ -166,6 +171,9 @@ public final class SewConfig extends SewConfigContainer {
     public static final ConfigOption<Boolean> CLAIM_ALLOW_TREE_CAPACITATOR = ConfigOption.json("claims.allow_player_override.tree_capacitate", DevUtils.isDebugging());
     public static final ConfigOption<Boolean> CLAIM_ALLOW_VEIN_MINER = ConfigOption.json("claims.allow_player_override.vein_miner", DevUtils.isDebugging());
     
+    public static final ConfigOption<Integer> CHAIN_BREAK_MAX_BLOCKS = SewConfig.addConfig(ConfigOption.json("claims.chain_breaking.max_blocks", 128, 1, 4096));
+    public static final ConfigOption<Integer> CHAIN_BREAK_PER_TICK = SewConfig.addConfig(ConfigOption.json("claims.chain_breaking.blocks_per_tick", 8, 1, 512));
+    
     /*
      * Protections
      */
@@ -177,6 +185,9 @@ public final class SewConfig extends SewConfigContainer {
     public static final ConfigOption<Integer> MAXIMUM_REGION_WIDTH = SewConfig.addConfig(ConfigOption.json("claims.regions.max_width", 32));
     public static final ConfigOption<Integer> MINIMUM_REGION_WIDTH = SewConfig.addConfig(ConfigOption.json("claims.regions.min_width", 3));
     
+    // Claim map markers
+    public static final ConfigOption<Integer> CLAIM_MAP_FLUSH_TICKS = SewConfig.addConfig(ConfigOption.json("claims.map.flush_ticks", 40, 1, 1200));
+    
     /*
      * Logging
      */
@@ -188,6 +199,10 @@ public final class SewConfig extends SewConfigContainer {
     public static final ConfigOption<LoggingIntervals> LOG_RESET_INTERVAL = SewConfig.addConfig(new ConfigOption<>("logging.reset.interval", LoggingIntervals.DAY, SewConfig::getAsTimeInterval));
     public static final ConfigOption<Long> LOG_RESET_TIME = SewConfig.addConfig(ConfigOption.json("logging.reset.time", 7L));
     public static final ConfigOption<Integer> LOG_VIEW_OP_LEVEL = SewConfig.addConfig(ConfigOption.json("logging.read.op_level", 1));
+    public static final ConfigOption<Integer> LOG_QUEUE_SIZE = SewConfig.addConfig(ConfigOption.json("logging.queue.capacity", 8192, 64, 1048576));
+    public static final ConfigOption<LoggingOverflow> LOG_QUEUE_OVERFLOW = SewConfig.addConfig(new ConfigOption<>("logging.queue.overflow", LoggingOverflow.DROP_OLDEST, SewConfig::getAsOverflowPolicy));
+    public static final ConfigOption<Integer> LOG_BATCH_SIZE = SewConfig.addConfig(ConfigOption.json("logging.queue.batch_size", 250, 1, 10000));
+    public static final ConfigOption<Integer> LOG_BATCH_INTERVAL = SewConfig.addConfig(ConfigOption.json("logging.queue.flush_millis", 1000, 1, 60000));
     
     /*
      * Starting items
@@ -198,6 +213,8 @@ public final class SewConfig extends SewConfigContainer {
     
     public static final ConfigOption<Boolean> START_WITH_RECIPES = SewConfig.addConfig(ConfigOption.json("player.recipes.unlock_all", false));
     
+    public static final ConfigOption<Integer> OFFLINE_PLAYER_CACHE_SIZE = SewConfig.addConfig(ConfigOption.json("player.offline_cache.size", 500, 0, 100000));
+    
     /*
      * Claiming
      */
@@ -207,6 +224,8 @@ public final class SewConfig extends SewConfigContainer {
     public static final ConfigOption<Integer> PLAYER_CLAIM_BUY_LIMIT = SewConfig.addConfig(ConfigOption.json("claims.players.limit_increase.maximum", -1));
     public static final ConfigOption<Integer> PLAYER_CLAIM_BUY_COST = SewConfig.addConfig(ConfigOption.json("claims.players.limit_increase.cost", 200));
     
+    public static final ConfigOption<Integer> CLAIM_CACHE_SIZE = SewConfig.addConfig(ConfigOption.json("claims.cache.size", 2000));
+    
     /*
      * Inventory
      */
@@ -265,6 +284,8 @@ public final class SewConfig extends SewConfigContainer {
     
     public static final ConfigOption<RegistryKey<World>> WARP_DIMENSION = SewConfig.addConfig(ConfigOption.registry("warp.world", Registry.WORLD_KEY, World.OVERWORLD));
     public static final ConfigOption<Integer> WARP_MAX_DISTANCE = SewConfig.addConfig(ConfigOption.json("warp.max_distance", 1000000));
+    public static final ConfigOption<Integer> WARP_POOL_SIZE = SewConfig.addConfig(ConfigOption.json("warp.search.pool_size", 2, 0, 16));
+    public static final ConfigOption<Integer> WARP_SEARCH_ATTEMPTS = SewConfig.addConfig(ConfigOption.json("warp.search.attempts", 16, 1, 256));
     public static final ConfigOption<Integer> WARP_WAYSTONE_COST = SewConfig.addConfig(ConfigOption.json("warp.waystone.cost", 2000));
     public static final ConfigOption<Integer> WARP_WAYSTONES_ALLOWED = SewConfig.addConfig(ConfigOption.json("warp.waystone.maximum", 3));
     
@@ -293,12 +314,22 @@ public final class SewConfig extends SewConfigContainer {
     
     public static final ConfigArray<String> SERVER_MOTD_LIST = SewConfig.addConfig(ConfigArray.jString("server.motd"));
     public static final ConfigArray<String> SERVER_ICON_LIST = SewConfig.addConfig(ConfigArray.jString("server.icons"));
+    public static final ConfigOption<Integer> SERVER_PING_CACHE = SewConfig.addConfig(ConfigOption.json("server.ping.cache_seconds", 5, 0, 300));
+    public static final ConfigOption<Integer> SERVER_PING_LIMIT = SewConfig.addConfig(ConfigOption.json("server.ping.limit_per_minute", 20, 0, 6000));
     
     /*
      * Permission options
      */
     
     public static final ConfigOption<Boolean> HANDLE_PERMISSIONS = SewConfig.addConfig(ConfigOption.json("server.permissions.enabled", true));
+    public static final ConfigOption<Boolean> PERMISSIONS_HOT_RELOAD = SewConfig.addConfig(ConfigOption.json("server.permissions.hot_reload", false));
+    
+    /*
+     * Detached tickables
+     */
+    
+    public static final ConfigOption<Long> TICKABLE_BUDGET = SewConfig.addConfig(ConfigOption.json("server.tickables.budget_nanos", 2_000_000L, 100_000L, 50_000_000L));
+    public static final ConfigOption<Integer> TICKABLE_TARGET_MSPT = SewConfig.addConfig(ConfigOption.json("server.tickables.target_mspt", 40, 1, 50));
     
     /*
      * Miscellaneous
@@ -608,6 +639,12 @@ public final class SewConfig extends SewConfigContainer {
         return LoggingIntervals.valueOf(element.getAsString().toUpperCase());
     }
     
+    private static LoggingOverflow getAsOverflowPolicy(JsonElement element) {
+        if (!LoggingOverflow.contains(element.getAsString()))
+            throw new RuntimeException( "Unacceptable logging overflow policy \"" + element.getAsString() + "\"" );
+        return LoggingOverflow.valueOf(element.getAsString().toUpperCase());
+    }
+    
     private static JsonElement sortObject(JsonElement element) {
         // If not an object, no sort
         if (!(element instanceof JsonObject object))
@@ -102,6 +102,7 @@ public interface IClaimedChunk {
         return chunkPlayer.getName(zonePlayer);
     }
     
+    @NotNull Claim getClaim(@NotNull BlockPos blockPos);
     boolean canPlayerDo(@NotNull BlockPos blockPos, @Nullable UUID player, @Nullable ClaimPermissions perm);
     boolean isSetting(@NotNull BlockPos pos, @NotNull ClaimSettings setting);
     
@@ -122,6 +123,13 @@ public interface IClaimedChunk {
     UUID[] getSliceOwner(int slicePos, int yFrom, int yTo);
     @NotNull ChunkUtils.ClaimSlice[] getSlices();
     void setSlices(@NotNull ChunkUtils.ClaimSlice[] slices);
+    default boolean hasSlices() {
+        for (ChunkUtils.ClaimSlice slice : this.getSlices()) {
+            if (slice != null && !slice.isEmpty())
+                return true;
+        }
+        return false;
+    }
     
     /*
      * Statics
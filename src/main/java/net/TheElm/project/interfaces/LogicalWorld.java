@@ -26,12 +26,28 @@
 package net.TheElm.project.interfaces;
 
 import net.TheElm.project.objects.DetachedTickable;
+import net.TheElm.project.objects.TickableScheduler;
+import net.TheElm.project.objects.WarpSiteFinder;
+import net.TheElm.project.protections.claiming.ClaimIndex;
+import net.TheElm.project.protections.claiming.ProtectionCache;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.function.Predicate;
 
 public interface LogicalWorld {
     
-    @NotNull DetachedTickable addTickableEvent(@NotNull Predicate<DetachedTickable> predicate);
+    default @NotNull DetachedTickable addTickableEvent(@NotNull Predicate<DetachedTickable> predicate) {
+        return this.addTickableEvent(DetachedTickable.Priority.NORMAL, predicate);
+    }
+    
+    @NotNull DetachedTickable addTickableEvent(@NotNull DetachedTickable.Priority priority, @NotNull Predicate<DetachedTickable> predicate);
+    
+    @NotNull TickableScheduler getTickableScheduler();
+    
+    @NotNull ProtectionCache getProtectionCache();
+    
+    @NotNull ClaimIndex getClaimIndex();
+    
+    @NotNull WarpSiteFinder getWarpSites();
     
 }
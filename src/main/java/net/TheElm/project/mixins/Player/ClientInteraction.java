@@ -38,7 +38,11 @@ import net.TheElm.project.protections.claiming.ClaimantTown;
 import net.TheElm.project.utilities.CasingUtils;
 import net.TheElm.project.utilities.ChunkUtils;
 import net.TheElm.project.utilities.FormattingUtils;
+import net.TheElm.project.utilities.MoneyLedger;
 import net.TheElm.project.utilities.MoneyUtils;
+import net.TheElm.project.utilities.OfflinePlayerCache;
+import net.TheElm.project.utilities.PlayerIndex;
+import net.TheElm.project.utilities.ServerListUtils;
 import net.TheElm.project.utilities.TitleUtils;
 import net.TheElm.project.utilities.TranslatableServerSide;
 import net.TheElm.project.utilities.text.MessageUtils;
@@ -62,6 +66,8 @@ import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
 import net.minecraft.util.Util;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.registry.RegistryKey;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.Chunk;
 import net.minecraft.world.chunk.WorldChunk;
@@ -100,6 +106,17 @@ public abstract class ClientInteraction implements ServerPlayPacketListener, Pla
      */
     private ClaimantPlayer playerClaimData = null;
     
+    /*
+     * The claim that the player was last found in, to skip lookups while moving inside of it
+     */
+    private RegistryKey<World> movementWorld = null;
+    private int movementVersion = -1;
+    private long movementChunk = 0;
+    private boolean movementUniform = false;
+    private int movementSlice = -1;
+    private int movementLower = 0;
+    private int movementUpper = -1;
+    
     @Override
     public ClaimantPlayer getClaim() {
         return this.playerClaimData;
@@ -204,6 +221,18 @@ public abstract class ClientInteraction implements ServerPlayPacketListener, Pla
         // (Will show location again when logged back in)
         CoreMod.PLAYER_LOCATIONS.remove(this.player);
         
+        // Hand the players balance back to the ledger while they're offline
+        MoneyLedger.checkIn(this.player.getUuid(), MoneyUtils.getPlayerMoney(this.player));
+        
+        // The players data file was just saved
+        OfflinePlayerCache.invalidate(this.player.getUuid());
+        
+        // Stop sending the player local and town chat
+        PlayerIndex.remove(this.player);
+        
+        // Remove the player from the server list sample
+        ServerListUtils.invalidate();
+        
         // Remove players from the health bar when disconnecting
         // (Don't have floating health bars remaining on-screen)
         this.getHealthBar().clearPlayers();
@@ -248,8 +277,18 @@ public abstract class ClientInteraction implements ServerPlayPacketListener, Pla
         
         World world = player.getEntityWorld();
         BlockPos blockPos = player.getBlockPos();
+        int version = ChunkUtils.getClaimsVersion();
+        
+        // Skip the lookup if the player hasn't left the claim that they were last in
+        // (A respawned player is a new entity that still has to be given a location)
+        if (CoreMod.PLAYER_LOCATIONS.containsKey(player) && this.isWithinLastLocation(world, blockPos, version)) {
+            ChunkUtils.countMovement(true);
+            return;
+        }
+        ChunkUtils.countMovement(false);
         
         WorldChunk chunk = world.getWorldChunk(blockPos);
+        this.updateLastLocation(world, chunk, blockPos, version);
         if ( !CoreMod.PLAYER_LOCATIONS.containsKey( player ) ) {
             this.showPlayerNewLocation(player, chunk);
             
@@ -264,6 +303,42 @@ public abstract class ClientInteraction implements ServerPlayPacketListener, Pla
         }
     }
     
+    private boolean isWithinLastLocation(@NotNull World world, @NotNull BlockPos blockPos, int version) {
+        if (world.getRegistryKey() != this.movementWorld || version != this.movementVersion)
+            return false;
+        if (this.movementChunk != ChunkPos.toLong(blockPos.getX() >> 4, blockPos.getZ() >> 4))
+            return false;
+        if (this.movementUniform)
+            return true;
+        
+        // Chunks with slices can change owner between columns and heights
+        int y = blockPos.getY();
+        return this.movementSlice == ChunkUtils.getPositionWithinChunk(blockPos)
+            && y >= this.movementLower && y <= this.movementUpper;
+    }
+    private void updateLastLocation(@NotNull World world, @Nullable WorldChunk chunk, @NotNull BlockPos blockPos, int version) {
+        this.movementWorld = world.getRegistryKey();
+        this.movementVersion = version;
+        this.movementChunk = ChunkPos.toLong(blockPos.getX() >> 4, blockPos.getZ() >> 4);
+        this.movementUniform = chunk == null || !((IClaimedChunk) chunk).hasSlices();
+        this.movementSlice = ChunkUtils.getPositionWithinChunk(blockPos);
+        
+        int y = blockPos.getY();
+        ChunkUtils.InnerClaim claim = null;
+        if (!this.movementUniform) {
+            ChunkUtils.ClaimSlice slice = ((IClaimedChunk) chunk).getSlices()[this.movementSlice];
+            claim = slice == null ? null : slice.get(y);
+        }
+        
+        if (claim != null && claim.isWithin(y)) {
+            this.movementLower = claim.lower();
+            this.movementUpper = claim.upper();
+        } else {
+            this.movementLower = y;
+            this.movementUpper = y;
+        }
+    }
+    
     public void showPlayerNewLocation(@NotNull final PlayerEntity player, @Nullable final Chunk local) {
         BlockPos playerPos = player.getBlockPos();
         UUID locationOwner;
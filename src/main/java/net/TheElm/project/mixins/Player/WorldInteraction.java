@@ -48,7 +48,9 @@ import net.TheElm.project.protections.ranks.PlayerRank;
 import net.TheElm.project.utilities.EffectUtils;
 import net.TheElm.project.utilities.EntityUtils;
 import net.TheElm.project.utilities.FormattingUtils;
+import net.TheElm.project.utilities.PlayerIndex;
 import net.TheElm.project.utilities.RankUtils;
+import net.TheElm.project.utilities.ServerListUtils;
 import net.TheElm.project.utilities.SleepUtils;
 import net.TheElm.project.utilities.WarpUtils;
 import net.TheElm.project.utilities.nbt.NbtUtils;
@@ -161,6 +163,10 @@ public abstract class WorldInteraction extends PlayerEntity implements PlayerDat
     
     @Inject(at = @At("TAIL"), method = "tick")
     public void onTick(CallbackInfo callback) {
+        // Keep the players position in the index for chat
+        if (!this.notInAnyWorld)
+            PlayerIndex.update((ServerPlayerEntity)(Entity) this);
+        
         // Handle Health Bar
         if ((this.healthBar != null) && (!this.notInAnyWorld)) {
             // Get players from the health bar
@@ -514,6 +520,7 @@ public abstract class WorldInteraction extends PlayerEntity implements PlayerDat
     @Override
     public void setPlayerNickname(@Nullable Text nickname) {
         this.playerNickname = nickname;
+        ServerListUtils.invalidate();
         if (this.healthBar != null)
             this.healthBar.setName(new LiteralText("Player ").append(this.getDisplayName()).formatted(Formatting.WHITE));
     }
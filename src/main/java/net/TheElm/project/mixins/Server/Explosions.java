@@ -25,23 +25,25 @@
 
 package net.TheElm.project.mixins.Server;
 
-import net.TheElm.project.interfaces.BlockBreakCallback;
-import net.minecraft.block.BlockState;
+import net.TheElm.project.protections.events.BlockBreak;
 import net.minecraft.entity.Entity;
-import net.minecraft.entity.EntityType;
 import net.minecraft.entity.TntEntity;
 import net.minecraft.entity.boss.WitherEntity;
 import net.minecraft.entity.mob.CreeperEntity;
 import net.minecraft.entity.projectile.ExplosiveProjectileEntity;
 import net.minecraft.server.world.ServerWorld;
-import net.minecraft.util.ActionResult;
-import net.minecraft.util.Hand;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.world.BlockView;
 import net.minecraft.world.World;
 import net.minecraft.world.explosion.Explosion;
-import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import java.util.List;
 
 /**
  * TntEntity - TNT
@@ -49,21 +51,22 @@ import org.spongepowered.asm.mixin.Mixin;
  * WitherEntity - Wither mob
  * ExplosiveProjectileEntity - Wither projects
  */
-@Mixin({TntEntity.class, CreeperEntity.class, WitherEntity.class, ExplosiveProjectileEntity.class})
-public abstract class Explosions extends Entity {
+@Mixin(Explosion.class)
+public abstract class Explosions {
     
-    public Explosions(EntityType<?> entityType_1, World world_1) {
-        super(entityType_1, world_1);
-    }
+    @Shadow @Final private World world;
+    @Shadow @Final private @Nullable Entity entity;
     
-    @Override
-    public boolean canExplosionDestroyBlock(Explosion explosion, BlockView world, BlockPos blockPos, @NotNull BlockState blockState, float damage) {
-        if ((!blockState.isAir()) && (world instanceof ServerWorld serverWorld)) {
-            ActionResult result = BlockBreakCallback.EVENT.invoker().interact(this, serverWorld, Hand.MAIN_HAND, blockPos, null, null);
-            if (result != ActionResult.PASS)
-                return (result == ActionResult.SUCCESS);
-        }
-        return super.canExplosionDestroyBlock(explosion, world, blockPos, blockState, damage);
-    }
+    @Shadow public abstract List<BlockPos> getAffectedBlocks();
     
+    @Inject(at = @At("HEAD"), method = "affectBlocks")
+    public void onAffectBlocks(boolean particles, CallbackInfo callback) {
+        if (!(this.world instanceof ServerWorld serverWorld))
+            return;
+        
+        // Check the claims of all blocks at once, rather than as each block is collected
+        if (this.entity instanceof TntEntity || this.entity instanceof CreeperEntity || this.entity instanceof WitherEntity || this.entity instanceof ExplosiveProjectileEntity)
+            BlockBreak.filterExplosion(this.entity, serverWorld, this.getAffectedBlocks());
+    }
+
 }
@@ -38,6 +38,7 @@ import net.TheElm.project.utilities.CasingUtils;
 import net.TheElm.project.utilities.FormattingUtils;
 import net.TheElm.project.utilities.PlayerNameUtils;
 import net.TheElm.project.utilities.RankUtils;
+import net.TheElm.project.utilities.ServerListUtils;
 import net.TheElm.project.utilities.ServerVariables;
 import net.TheElm.project.utilities.text.TextUtils;
 import net.minecraft.server.MinecraftServer;
@@ -65,6 +66,8 @@ import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -75,6 +78,17 @@ public abstract class MOTD {
     private final List<CharBuffer> base64 = new ArrayList<>();
     private final List<String> motds = new ArrayList<>();
     
+    // Cached response, rebuilt at most once every few seconds or when a player joins / leaves / renames
+    private volatile Text cachedDescription = null;
+    private volatile int descriptionIndex = -1;
+    private volatile long descriptionCachedAt = 0;
+    private volatile int descriptionGeneration = 0;
+    
+    private final Map<UUID, String> sampleNames = new ConcurrentHashMap<>();
+    private volatile GameProfile[] cachedSample = null;
+    private volatile long sampleCachedAt = 0;
+    private volatile int sampleGeneration = 0;
+    
     @Shadow private ServerMetadata.Players players;
     @Shadow private ServerMetadata.Version version;
     
@@ -123,13 +137,27 @@ public abstract class MOTD {
         int i = this.motds.size() == 1 ? 0 : (int) ((System.currentTimeMillis() / 10000) % this.motds.size());
         int clamp = Integer.min(this.motds.size() - 1, i);
         
+        // Reuse the last formatted MOTD
+        Text cached = this.cachedDescription;
+        if (cached != null && !ServerListUtils.isExpired(this.descriptionCachedAt, this.descriptionGeneration) && (this.descriptionIndex == clamp || ServerListUtils.isThrottled())) {
+            callback.setReturnValue(cached);
+            return;
+        }
+        
         // Get the formatted MOTD
         //String raw = this.descriptionReplaceVariables(this.motds.get(clamp));
         String raw = this.motds.get(clamp);
         if (raw != null) {
+            int generation = ServerListUtils.getGeneration();
             Text motd = FormattingUtils.visitVariables(raw, this::descriptionReplaceVariables);
-            if (motd != null)
+            if (motd != null) {
+                this.descriptionIndex = clamp;
+                this.descriptionCachedAt = System.nanoTime();
+                this.descriptionGeneration = generation;
+                this.cachedDescription = motd;
+                
                 callback.setReturnValue(motd);
+            }
         }
     }
     
@@ -140,27 +168,50 @@ public abstract class MOTD {
         if (profiles == null)
             return;
         
+        // Throttled addresses are never allowed to look up names, only given what was already built
+        if (ServerListUtils.isThrottled()) {
+            GameProfile[] cached = this.cachedSample;
+            players.setSample(cached == null ? new GameProfile[0] : cached);
+            return;
+        }
+        
+        // Forget the cached names if they are outdated
+        if (ServerListUtils.isExpired(this.sampleCachedAt, this.sampleGeneration)) {
+            this.sampleNames.clear();
+            this.sampleCachedAt = System.nanoTime();
+            this.sampleGeneration = ServerListUtils.getGeneration();
+        } else if (profiles == this.cachedSample) {
+            // The sample was already renamed
+            return;
+        }
+        
+        GameProfile[] sample = new GameProfile[profiles.length];
         for (int i = 0; i < profiles.length; i++) {
             GameProfile profile = profiles[i];
-            String name = PlayerNameUtils.fetchPlayerNick(profile.getId())
-                .getString();
-            
-            // If the player has any rank
-            for (PlayerRank rank : RankUtils.getPlayerRanks(profile)) {
-                Text display;
-                if ((display = rank.getDisplay()) != null) {
-                    name += " [" + TextUtils.legacyConvert(display) + "]";
-                    break;
-                }
-            }
-            
-            profiles[i] = new GameProfile(
-            profile.getId(),
-            name
+            sample[i] = new GameProfile(
+                profile.getId(),
+                this.sampleNames.computeIfAbsent(profile.getId(), this::getSampleName)
             );
         }
         
-        players.setSample(profiles);
+        this.cachedSample = sample;
+        players.setSample(sample);
+    }
+    
+    private @NotNull String getSampleName(@NotNull UUID uuid) {
+        String name = PlayerNameUtils.fetchPlayerNick(uuid)
+            .getString();
+        
+        // If the player has any rank
+        for (PlayerRank rank : RankUtils.getPlayerRanks(uuid)) {
+            Text display;
+            if ((display = rank.getDisplay()) != null) {
+                name += " [" + TextUtils.legacyConvert(display) + "]";
+                break;
+            }
+        }
+        
+        return name;
     }
     
     @Inject(at = @At("HEAD"), method = "getFavicon", cancellable = true)
@@ -175,6 +226,7 @@ public abstract class MOTD {
         this.motds.clear();
         this.motds.addAll(SewConfig.get(SewConfig.SERVER_MOTD_LIST));
         Collections.shuffle(this.motds);
+        ServerListUtils.invalidate();
     }
     
     private String descriptionReplaceVariables(@NotNull MutableText text, @Nullable String description) {
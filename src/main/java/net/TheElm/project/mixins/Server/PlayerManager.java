@@ -30,6 +30,10 @@ import net.TheElm.project.config.SewConfig;
 import net.TheElm.project.objects.WanderingTraderProfileCollection;
 import net.TheElm.project.utilities.DimensionUtils;
 import net.TheElm.project.utilities.EntityUtils;
+import net.TheElm.project.utilities.MoneyLedger;
+import net.TheElm.project.utilities.OfflinePlayerCache;
+import net.TheElm.project.utilities.PlayerNameCache;
+import net.TheElm.project.utilities.ServerListUtils;
 import net.TheElm.project.utilities.TeamUtils;
 import net.minecraft.entity.Entity;
 import net.minecraft.network.ClientConnection;
@@ -64,6 +68,10 @@ public abstract class PlayerManager {
     @Inject(at = @At("RETURN"), method = "onPlayerConnect")
     public void onPlayerConnect(ClientConnection connection, ServerPlayerEntity player, CallbackInfo callback) {
         TeamUtils.applyTeams(player);
+        PlayerNameCache.put(player.getUuid(), player.getGameProfile().getName());
+        MoneyLedger.checkOut(player);
+        OfflinePlayerCache.invalidate(player.getUuid());
+        ServerListUtils.invalidate();
         
         // Get the world that the wandering trader spawns in
         ServerWorld world = this.server.getWorld(SewConfig.get(SewConfig.WANDERING_TRADER_FORCE_SPAWN_WORLD));
@@ -76,6 +84,14 @@ public abstract class PlayerManager {
         }
     }
     
+    /**
+     * Once the players data is written it holds their balance, so the ledger can let go of it
+     */
+    @Inject(at = @At("TAIL"), method = "savePlayerData")
+    public void onSavePlayerData(@NotNull ServerPlayerEntity player, CallbackInfo callback) {
+        MoneyLedger.onPlayerSaved(player.getUuid());
+    }
+    
     @Inject(at = @At("HEAD"), method = "setMainWorld", cancellable = true)
     public void onSetMainWorld(ServerWorld world, CallbackInfo callback) {
         if (!SewConfig.get(SewConfig.WORLD_SPECIFIC_WORLD_BORDER))
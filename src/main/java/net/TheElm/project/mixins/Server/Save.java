@@ -28,12 +28,20 @@ package net.TheElm.project.mixins.Server;
 import com.google.common.collect.ImmutableList;
 import net.TheElm.project.CoreMod;
 import net.TheElm.project.config.SewConfig;
+import net.TheElm.project.interfaces.LogicalWorld;
 import net.TheElm.project.objects.DynamicLevelProperties;
+import net.TheElm.project.protections.claiming.ClaimIndex;
 import net.TheElm.project.protections.claiming.Claimant;
 import net.TheElm.project.protections.claiming.ClaimantPlayer;
 import net.TheElm.project.protections.claiming.ClaimantTown;
+import net.TheElm.project.protections.claiming.ClaimantWriter;
+import net.TheElm.project.protections.claiming.TownDirectory;
 import net.TheElm.project.protections.logging.EventLogger;
 import net.TheElm.project.utilities.DimensionUtils;
+import net.TheElm.project.utilities.MapUtils;
+import net.TheElm.project.utilities.MoneyLedger;
+import net.TheElm.project.utilities.PlayerNameCache;
+import net.TheElm.project.utilities.RankUtils;
 import net.TheElm.project.utilities.nbt.NbtUtils;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.ServerTask;
@@ -69,6 +77,7 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
 
 @Mixin(MinecraftServer.class)
 public abstract class Save extends ReentrantThreadExecutor<ServerTask> implements CommandOutput, AutoCloseable {
@@ -90,7 +99,7 @@ public abstract class Save extends ReentrantThreadExecutor<ServerTask> implement
      * Save claim information when the server saves
      */
     @Inject(at = @At("RETURN"), method = "save")
-    public void save(boolean silent, boolean boolean_2, boolean boolean_3, @NotNull CallbackInfoReturnable<Boolean> callback) {
+    public void save(boolean silent, boolean flush, boolean force, @NotNull CallbackInfoReturnable<Boolean> callback) {
         if (callback.getReturnValue()) {
             if (!silent) CoreMod.logInfo("Saving claimed player data");
             CoreMod.getCacheStream(ClaimantPlayer.class)
@@ -99,9 +108,47 @@ public abstract class Save extends ReentrantThreadExecutor<ServerTask> implement
             if (!silent) CoreMod.logInfo("Saving claimed town data");
             CoreMod.getCacheStream(ClaimantTown.class)
                 .forEach(Claimant::save);
+            
+            // Wait for the claims to finish writing when the server asks to flush
+            if (flush)
+                ClaimantWriter.flush();
+            
+            PlayerNameCache.save();
+            MoneyLedger.save();
+            
+            // Chunks have been saved, so the index of their owners is up to date
+            for (ServerWorld world : this.worlds.values())
+                ((LogicalWorld) world).getClaimIndex().save();
         }
     }
     
+    /**
+     * Push changed claim regions to the map
+     */
+    @Inject(at = @At("TAIL"), method = "tick")
+    public void onTick(@NotNull BooleanSupplier shouldKeepTicking, @NotNull CallbackInfo callback) {
+        MapUtils.tick(((MinecraftServer)(Object) this).getTicks());
+    }
+    
+    /**
+     * Read the list of towns (And stored player names) before any chunks (And their owners) start loading
+     */
+    @Inject(at = @At("HEAD"), method = "loadWorld")
+    public void onLoadWorld(@NotNull CallbackInfo callback) {
+        TownDirectory.load();
+        PlayerNameCache.load();
+        MoneyLedger.load();
+        RankUtils.startWatching();
+    }
+    
+    /**
+     * Read the claim index of each world once the worlds exist, before the spawn chunks start loading
+     */
+    @Inject(at = @At(value = "INVOKE", target = "net/minecraft/server/MinecraftServer.createWorlds(Lnet/minecraft/server/WorldGenerationProgressListener;)V", shift = At.Shift.AFTER), method = "loadWorld")
+    public void onCreatedWorlds(@NotNull CallbackInfo callback) {
+        ClaimIndex.loadAll(this.worlds.values());
+    }
+    
     /**
      * Override what world is loaded when the server first starts
      */
@@ -171,6 +218,9 @@ public abstract class Save extends ReentrantThreadExecutor<ServerTask> implement
      */
     @Inject(at = @At("TAIL"), method = "shutdown")
     public void shutdown(CallbackInfo callback) {
+        ClaimantWriter.stop();
+        MoneyLedger.stop();
+        RankUtils.stopWatching();
         EventLogger.stop();
     }
     
@@ -0,0 +1,59 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.TheElm.project.mixins.Server;
+
+import net.TheElm.project.utilities.ServerListUtils;
+import net.minecraft.network.ClientConnection;
+import net.minecraft.network.packet.c2s.query.QueryRequestC2SPacket;
+import net.minecraft.server.network.ServerQueryNetworkHandler;
+import org.jetbrains.annotations.NotNull;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ServerQueryNetworkHandler.class)
+public abstract class ServerQuery {
+    
+    @Shadow @Final
+    private ClientConnection connection;
+    
+    /**
+     * Track how often the address is pinging, the response is written on this thread
+     *   so the MOTD can tell if it is allowed to rebuild the cached response
+     */
+    @Inject(at = @At("HEAD"), method = "onRequest")
+    public void onRequestStart(@NotNull QueryRequestC2SPacket packet, @NotNull CallbackInfo callback) {
+        ServerListUtils.onRequest(this.connection.getAddress());
+    }
+    
+    @Inject(at = @At("RETURN"), method = "onRequest")
+    public void onRequestEnd(@NotNull QueryRequestC2SPacket packet, @NotNull CallbackInfo callback) {
+        ServerListUtils.onResponded();
+    }
+}
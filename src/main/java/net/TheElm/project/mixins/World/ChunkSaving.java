@@ -26,6 +26,7 @@
 package net.TheElm.project.mixins.World;
 
 import net.TheElm.project.interfaces.IClaimedChunk;
+import net.TheElm.project.interfaces.LogicalWorld;
 import net.TheElm.project.utilities.nbt.NbtUtils;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtElement;
@@ -70,6 +71,10 @@ public class ChunkSaving {
         UUID town = ((IClaimedChunk)chunk).getTownId();
         if (town != null)
             levelTag.putUuid(sewingMachineSerializationTown, town);
+        
+        // Keep the index up to date for when the chunk isn't loaded
+        ((LogicalWorld) world).getClaimIndex()
+            .update(chunk.getPos().toLong(), player, town, ((IClaimedChunk) chunk).hasSlices());
     }
     
     @Inject(at = @At("RETURN"), method = "deserialize")
@@ -89,6 +94,10 @@ public class ChunkSaving {
         // Update the chunks town
         if ( NbtUtils.hasUUID(levelTag, sewingMachineSerializationTown) )
             ((IClaimedChunk) chunk).updateTownOwner(NbtUtils.getUUID(levelTag, sewingMachineSerializationTown), false);
+        
+        // Index chunks that were claimed before the index existed
+        ((LogicalWorld) world).getClaimIndex()
+            .update(chunkPos.toLong(), ((IClaimedChunk) chunk).getOwner(), ((IClaimedChunk) chunk).getTownId(), ((IClaimedChunk) chunk).hasSlices());
     }
     
 }
@@ -27,7 +27,6 @@ package net.TheElm.project.mixins.World;
 
 import net.TheElm.project.CoreMod;
 import net.TheElm.project.enums.ClaimPermissions;
-import net.TheElm.project.enums.ClaimRanks;
 import net.TheElm.project.enums.ClaimSettings;
 import net.TheElm.project.exceptions.TranslationKeyException;
 import net.TheElm.project.interfaces.Claim;
@@ -52,9 +51,7 @@ import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 
 import java.lang.ref.WeakReference;
-import java.util.HashSet;
 import java.util.Iterator;
-import java.util.Set;
 import java.util.UUID;
 
 @Mixin(Chunk.class)
@@ -80,8 +77,10 @@ public abstract class ClaimedChunk implements BlockView, IClaimedChunk, Claim {
         // Make sure we have the towns permissions cached
         this.chunkTown = (town == null ? null : new WeakReference<>(town));
         
-        if ( fresh )
+        if ( fresh ) {
             this.setNeedsSaving(true);
+            ChunkUtils.claimsChanged();
+        }
         
         return this.getTown();
     }
@@ -92,8 +91,10 @@ public abstract class ClaimedChunk implements BlockView, IClaimedChunk, Claim {
     public ClaimantPlayer updatePlayerOwner(@Nullable UUID owner, boolean fresh) {
         this.chunkPlayer = ( owner == null ? null : ClaimantPlayer.get( owner ));
         
-        if (fresh)
+        if (fresh) {
             this.setNeedsSaving(true);
+            ChunkUtils.claimsChanged();
+        }
         
         // If there is no player owner, there is no town
         if (owner == null) {
@@ -112,6 +113,7 @@ public abstract class ClaimedChunk implements BlockView, IClaimedChunk, Claim {
             slice.reset();
         }
         this.setNeedsSaving(true);
+        ChunkUtils.claimsChanged();
     }
     @Override
     public void updateSliceOwner(UUID owner, int slicePos, int yFrom, int yTo, boolean fresh) {
@@ -130,8 +132,10 @@ public abstract class ClaimedChunk implements BlockView, IClaimedChunk, Claim {
         slice.insert(owner, yMax, yMin);
         
         // Make sure the chunk gets saved
-        if ( fresh )
+        if ( fresh ) {
             this.setNeedsSaving(true);
+            ChunkUtils.claimsChanged();
+        }
     }
     public UUID[] getSliceOwner(int slicePos, int yFrom, int yTo) {
         ClaimSlice slice;
@@ -143,14 +147,8 @@ public abstract class ClaimedChunk implements BlockView, IClaimedChunk, Claim {
         int yMin = Math.min(yFrom, yTo);
         
         // Get all owners
-        Set<UUID> owners = new HashSet<>();
-        for (int y = yMin; y <= yMax; y++) {
-            InnerClaim claim = slice.get(y);
-            if (claim != null)
-                owners.add(claim.getOwner());
-        }
-        
-        return owners.toArray(new UUID[0]);
+        return slice.getOwners(yMin, yMax)
+            .toArray(new UUID[0]);
     }
     @Override
     public @NotNull ClaimSlice[] getSlices() {
@@ -163,7 +161,8 @@ public abstract class ClaimedChunk implements BlockView, IClaimedChunk, Claim {
             this.claimSlices[i] = slices[i];
     }
     
-    public @NotNull Claim getClaim(BlockPos blockPos) {
+    @Override
+    public @NotNull Claim getClaim(@NotNull BlockPos blockPos) {
         int slicePos = ChunkUtils.getPositionWithinChunk( blockPos );
         
         ClaimSlice slice;
@@ -230,18 +229,7 @@ public abstract class ClaimedChunk implements BlockView, IClaimedChunk, Claim {
     
     @Override
     public boolean canPlayerDo(@Nullable UUID player, @Nullable ClaimPermissions perm) {
-        if (this.chunkPlayer == null || (player != null && player.equals(this.chunkPlayer.getId())))
-            return true;
-        ClaimantTown town;
-        if ( ((town = this.getTown()) != null ) && (player != null) && player.equals( town.getOwner() ) )
-            return true;
-        
-        // Get the ranks of the user and the rank required for performing
-        ClaimRanks userRank = this.chunkPlayer.getFriendRank(player);
-        ClaimRanks permReq = this.chunkPlayer.getPermissionRankRequirement(perm);
-        
-        // Return the test if the user can perform the action (If friend of chunk owner OR if friend of town and chunk owned by town owner)
-        return permReq.canPerform(userRank) || ((town != null) && (this.chunkPlayer.getId().equals(town.getOwner())) && permReq.canPerform(town.getFriendRank(player)));
+        return ChunkUtils.canPlayerDo(this.chunkPlayer, this.chunkPlayer == null ? null : this.getTown(), player, perm);
     }
     @Override
     public boolean canPlayerDo(@NotNull BlockPos pos, @Nullable UUID player, @Nullable ClaimPermissions perm) {
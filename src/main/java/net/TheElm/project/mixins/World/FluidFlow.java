@@ -27,7 +27,7 @@ package net.TheElm.project.mixins.World;
 
 import net.TheElm.project.config.SewConfig;
 import net.TheElm.project.enums.ClaimPermissions;
-import net.TheElm.project.interfaces.IClaimedChunk;
+import net.TheElm.project.utilities.BlockUtils;
 import net.minecraft.block.BlockState;
 import net.minecraft.fluid.FlowableFluid;
 import net.minecraft.fluid.Fluid;
@@ -38,7 +38,6 @@ import net.minecraft.util.math.Direction;
 import net.minecraft.world.BlockView;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldView;
-import net.minecraft.world.chunk.Chunk;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.injection.At;
@@ -56,16 +55,12 @@ public abstract class FluidFlow extends Fluid {
     protected void gettingFluidDirections(BlockView view, Fluid fluid, BlockPos flowPos, BlockState state, Direction face, BlockPos sourcePos, BlockState fromState, FluidState fluidState, CallbackInfoReturnable<Boolean> cir) {
         // If world is Server World
         if (view instanceof World world) {
-            // Get chunks
-            Chunk startingChunk = world.getChunk(sourcePos);
-            Chunk nextChunk = world.getChunk(flowPos);
-            
             // If chunk is the same chunk, Allow
-            if (startingChunk == nextChunk)
+            if (((sourcePos.getX() >> 4) == (flowPos.getX() >> 4)) && ((sourcePos.getZ() >> 4) == (flowPos.getZ() >> 4)))
                 return;
             
             // Check that first chunk owner can modify the next chunk
-            if (!((IClaimedChunk) nextChunk).canPlayerDo(flowPos, ((IClaimedChunk) startingChunk).getOwner(), ClaimPermissions.BLOCKS))
+            if (!BlockUtils.canBlockModifyBlock(world, flowPos, sourcePos, ClaimPermissions.BLOCKS))
                 cir.setReturnValue(false);
         }
     }
@@ -74,16 +69,12 @@ public abstract class FluidFlow extends Fluid {
     protected void gettingFluidDirections(BlockView view, BlockPos sourcePos, BlockState fluidBlockState, Direction flowDirection, BlockPos flowPos, BlockState flowToBlockState, FluidState fluidState, Fluid fluid, CallbackInfoReturnable<Boolean> cir) {
         // If world is Server World
         if (view instanceof World world) {
-            // Get chunks
-            Chunk startingChunk = world.getChunk(sourcePos);
-            Chunk nextChunk = world.getChunk(flowPos);
-
             // If chunk is the same chunk, Allow
-            if (startingChunk == nextChunk)
+            if (((sourcePos.getX() >> 4) == (flowPos.getX() >> 4)) && ((sourcePos.getZ() >> 4) == (flowPos.getZ() >> 4)))
                 return;
-
+            
             // Check that first chunk owner can modify the next chunk
-            if (!((IClaimedChunk) nextChunk).canPlayerDo(flowPos, ((IClaimedChunk) startingChunk).getOwner(), ClaimPermissions.BLOCKS))
+            if (!BlockUtils.canBlockModifyBlock(world, flowPos, sourcePos, ClaimPermissions.BLOCKS))
                 cir.setReturnValue(false);
         }
     }
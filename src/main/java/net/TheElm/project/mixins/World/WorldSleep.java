@@ -30,6 +30,10 @@ import net.TheElm.project.config.SewConfig;
 import net.TheElm.project.interfaces.ConstructableEntity;
 import net.TheElm.project.interfaces.LogicalWorld;
 import net.TheElm.project.objects.DetachedTickable;
+import net.TheElm.project.objects.TickableScheduler;
+import net.TheElm.project.objects.WarpSiteFinder;
+import net.TheElm.project.protections.claiming.ClaimIndex;
+import net.TheElm.project.protections.claiming.ProtectionCache;
 import net.TheElm.project.utilities.CasingUtils;
 import net.TheElm.project.utilities.ChunkUtils;
 import net.TheElm.project.utilities.IntUtils;
@@ -59,12 +63,7 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 import java.text.NumberFormat;
-import java.util.ArrayDeque;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Optional;
-import java.util.Queue;
 import java.util.UUID;
 import java.util.function.BooleanSupplier;
 import java.util.function.Predicate;
@@ -72,8 +71,10 @@ import java.util.function.Supplier;
 
 @Mixin(ServerWorld.class)
 public abstract class WorldSleep extends World implements LogicalWorld, ServerWorldAccess {
-    private final @NotNull Queue<DetachedTickable> detachedTickableQueue = new ArrayDeque<>();
-    private final @NotNull List<DetachedTickable> detachedEvents = new LinkedList<>();
+    private final @NotNull TickableScheduler tickableScheduler = new TickableScheduler((ServerWorld)(World) this);
+    private final @NotNull WarpSiteFinder warpSites = new WarpSiteFinder((ServerWorld)(World) this);
+    private final @NotNull ProtectionCache protectionCache = new ProtectionCache();
+    private final @NotNull ClaimIndex claimIndex = new ClaimIndex(this.getRegistryKey());
 
     protected WorldSleep(MutableWorldProperties properties, RegistryKey<World> registryRef, RegistryEntry<DimensionType> registryEntry, Supplier<Profiler> profiler, boolean isClient, boolean debugWorld, long seed) {
         super(properties, registryRef, registryEntry, profiler, isClient, debugWorld, seed);
@@ -114,19 +115,8 @@ public abstract class WorldSleep extends World implements LogicalWorld, ServerWo
     
     @Inject(at = @At("RETURN"), method = "tickTime")
     public void onWorldTick(@NotNull CallbackInfo callback) {
-        // Move any items from the queue
-        DetachedTickable tickable;
-        while ((tickable = this.detachedTickableQueue.poll()) != null)
-            this.detachedEvents.add(tickable);
-        
-        // Iterate over the items in the event list
-        Iterator<DetachedTickable> iterator = this.detachedEvents.iterator();
-        while (iterator.hasNext()) {
-            tickable = iterator.next();
-            tickable.tick();
-            if (tickable.isRemoved())
-                iterator.remove();
-        }
+        this.tickableScheduler.tick();
+        this.warpSites.tick();
     }
     
     @Inject(at = @At("TAIL"), method = "save")
@@ -143,9 +133,27 @@ public abstract class WorldSleep extends World implements LogicalWorld, ServerWo
     }
     
     @Override
-    public @NotNull DetachedTickable addTickableEvent(@NotNull Predicate<DetachedTickable> predicate) {
-        DetachedTickable tickable = new DetachedTickable((ServerWorld)(World) this, predicate);
-        this.detachedTickableQueue.add(tickable);
-        return tickable;
+    public @NotNull DetachedTickable addTickableEvent(@NotNull DetachedTickable.Priority priority, @NotNull Predicate<DetachedTickable> predicate) {
+        return this.tickableScheduler.add(priority, predicate);
+    }
+    
+    @Override
+    public @NotNull TickableScheduler getTickableScheduler() {
+        return this.tickableScheduler;
+    }
+    
+    @Override
+    public @NotNull ProtectionCache getProtectionCache() {
+        return this.protectionCache;
+    }
+    
+    @Override
+    public @NotNull ClaimIndex getClaimIndex() {
+        return this.claimIndex;
+    }
+    
+    @Override
+    public @NotNull WarpSiteFinder getWarpSites() {
+        return this.warpSites;
     }
 }
@@ -35,32 +35,38 @@ import net.TheElm.project.utilities.ChatVariables;
 import net.TheElm.project.utilities.FormattingUtils;
 import net.TheElm.project.utilities.text.TextUtils;
 import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.LiteralText;
 import net.minecraft.text.MutableText;
+import net.minecraft.text.Style;
 import net.minecraft.text.Text;
-import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public final class ChatFormat {
+    private static final @NotNull Pattern VARIABLE = Pattern.compile("\\$\\{([A-Za-z.]+)([\\^_]{0,2})}");
+    
     private final String raw;
-    private final Text formatted;
+    private final @NotNull Segment[] segments;
     
     private ChatFormat(@NotNull String raw) {
         this.raw = raw;
-        this.formatted = FormattingUtils.stringToText(raw);
+        this.segments = ChatFormat.compile(FormattingUtils.stringToText(raw));
         
         // Debug
         CoreMod.logDebug(raw);
     }
     
     public @NotNull Text format(@NotNull final ServerCommandSource source, @NotNull final ChatRooms chatRoom, @NotNull final Text message) {
-        return FormattingUtils.visitVariables(
-            TextUtils.deepCopy(this.formatted),
-            (text, segment) -> ChatFormat.replaceVariables(text, segment, source, chatRoom, message)
-        );
+        MutableText out = TextUtils.literal();
+        for (Segment segment : this.segments)
+            out.append(segment.render(source, chatRoom, message));
+        return out;
     }
     
     @Override
@@ -77,52 +83,109 @@ public final class ChatFormat {
     public static JsonElement serializer(@NotNull ChatFormat src, @NotNull Gson gson) {
         return gson.toJsonTree(src.toString());
     }
-    private static @Contract("_, null, _, _, _ -> null") String replaceVariables(
-        @NotNull final MutableText text,
-        @Nullable final String segment,
-        @NotNull final ServerCommandSource source,
-        @NotNull final ChatRooms chatRoom,
-        @NotNull final Text message
-    ) {
-        String out = segment;
-        if (out != null) {
-            // If description contains
-            Pattern pattern = Pattern.compile("\\$\\{([A-Za-z.]+)([\\^_]{0,2})}");
-            Matcher matcher = pattern.matcher(segment);
+    
+    /**
+     * Split the styled segments of the format into literal runs and variable slots, so that rendering a message doesn't need to do any parsing
+     * @param formatted The format, as styled by the color codes
+     * @return The compiled segments
+     */
+    private static @NotNull Segment[] compile(@Nullable Text formatted) {
+        if (formatted == null)
+            return new Segment[0];
+        
+        List<Segment> segments = new ArrayList<>();
+        for (Text sibling : formatted.getSiblings()) {
+            String segment = sibling.asString();
+            List<Token> tokens = new ArrayList<>();
+            
+            Matcher matcher = ChatFormat.VARIABLE.matcher(segment);
             int end = 0;
             
             while (matcher.find()) {
-                String key = matcher.group(1);
-                ChatFunction function = ChatVariables.get(key.toLowerCase());
-                if (function != null) {
-                    if (!function.canBeParsed(source))
-                        continue;
-                    
-                    // Change val casing
-                    String mod = matcher.group(2);
-                    CasingUtils.Casing casing = switch (mod) {
-                        case "__" -> CasingUtils.Casing.LOWER;
-                        case "^^" -> CasingUtils.Casing.UPPER;
-                        case "^" -> CasingUtils.Casing.WORDS;
-                        default -> CasingUtils.Casing.DEFAULT;
-                    };
-                    
-                    // Prefixed text
-                    String pre = segment.substring(end, matcher.start());
-                    if (end == 0) out = pre; else text.append(pre);
-                    
-                    // Add
-                    text.append(function.parseVar(source, chatRoom, message, casing));
-                    
-                    // Suffixed text
-                    end = matcher.end();
+                ChatFunction function = ChatVariables.get(matcher.group(1).toLowerCase(Locale.ROOT));
+                if (function == null)
+                    continue;
+                
+                // Change val casing
+                CasingUtils.Casing casing = switch (matcher.group(2)) {
+                    case "__" -> CasingUtils.Casing.LOWER;
+                    case "^^" -> CasingUtils.Casing.UPPER;
+                    case "^" -> CasingUtils.Casing.WORDS;
+                    default -> CasingUtils.Casing.DEFAULT;
+                };
+                
+                if (matcher.start() > end)
+                    tokens.add(new Token(segment.substring(end, matcher.start()), null, CasingUtils.Casing.DEFAULT));
+                tokens.add(new Token(matcher.group(), function, casing));
+                
+                end = matcher.end();
+            }
+            
+            // Add anything trailing the last variable
+            if (end < segment.length())
+                tokens.add(new Token(segment.substring(end), null, CasingUtils.Casing.DEFAULT));
+            
+            segments.add(new Segment(sibling.getStyle(), tokens.toArray(new Token[0])));
+        }
+        
+        return segments.toArray(new Segment[0]);
+    }
+    
+    /**
+     * A run of the format that shares the same style
+     */
+    private static final class Segment {
+        private final @NotNull Style style;
+        private final @NotNull Token[] tokens;
+        
+        private Segment(@NotNull Style style, @NotNull Token[] tokens) {
+            this.style = style;
+            this.tokens = tokens;
+        }
+        
+        private @NotNull MutableText render(@NotNull final ServerCommandSource source, @NotNull final ChatRooms chatRoom, @NotNull final Text message) {
+            MutableText text = null;
+            StringBuilder literal = new StringBuilder();
+            
+            for (Token token : this.tokens) {
+                // Variables that can't be parsed are left as they were typed
+                if (token.function == null || !token.function.canBeParsed(source)) {
+                    literal.append(token.raw);
+                    continue;
                 }
+                
+                // Prefixed text
+                if (text == null)
+                    text = new LiteralText(literal.toString());
+                else if (!literal.isEmpty())
+                    text.append(literal.toString());
+                literal.setLength(0);
+                
+                text.append(token.function.parseVar(source, chatRoom, message, token.casing));
             }
             
             // Append anything trailing the text
-            if (end != 0)
-                text.append(segment.substring(end));
+            if (text == null)
+                text = new LiteralText(literal.toString());
+            else if (!literal.isEmpty())
+                text.append(literal.toString());
+            
+            return text.setStyle(this.style);
+        }
+    }
+    
+    /**
+     * Either a literal piece of text, or a variable with the function that provides it
+     */
+    private static final class Token {
+        private final @NotNull String raw;
+        private final @Nullable ChatFunction function;
+        private final @NotNull CasingUtils.Casing casing;
+        
+        private Token(@NotNull String raw, @Nullable ChatFunction function, @NotNull CasingUtils.Casing casing) {
+            this.raw = raw;
+            this.function = function;
+            this.casing = casing;
         }
-        return out;
     }
 }
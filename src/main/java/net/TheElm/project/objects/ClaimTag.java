@@ -25,6 +25,8 @@
 
 package net.TheElm.project.objects;
 
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import net.TheElm.project.utilities.LegacyConverter;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtElement;
@@ -39,41 +41,45 @@ import net.minecraft.world.chunk.WorldChunk;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-public final class ClaimTag extends NbtCompound {
-    private ClaimTag() {
-        super();
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A claimed chunk, packed into a single long of (Dimension index, Chunk X, Chunk Z)
+ * Only converted into NBT when the owning Claimant is saved
+ */
+public final class ClaimTag {
+    private static final int DIMENSION_BITS = 12;
+    private static final int COORDINATE_BITS = 26;
+    private static final long COORDINATE_MASK = (1L << ClaimTag.COORDINATE_BITS) - 1;
+    
+    // Index 0 is reserved for chunks without a dimension
+    private static final @NotNull List<RegistryKey<World>> DIMENSIONS = new ArrayList<>();
+    private static final @NotNull Object2IntMap<RegistryKey<World>> DIMENSION_IDS = new Object2IntOpenHashMap<>();
+    static {
+        ClaimTag.DIMENSIONS.add(null);
+    }
+    
+    private final long packed;
+    
+    private ClaimTag(long packed) {
+        this.packed = packed;
     }
     public ClaimTag(@NotNull Chunk chunk, @NotNull ChunkPos pos) {
-        super();
-        
-        if (chunk instanceof WorldChunk worldChunk) {
-            World world = worldChunk.getWorld();
-            RegistryKey<World> dimType = world.getRegistryKey();
-            if (dimType != null)
-                this.putString("dimension", dimType.getValue().toString());
-        }
-        this.putInt("x", pos.x);
-        this.putInt("z", pos.z);
+        this(ClaimTag.toLong(chunk instanceof WorldChunk worldChunk ? worldChunk.getWorld().getRegistryKey() : null, pos.x, pos.z));
     }
     public ClaimTag(@NotNull World world, @NotNull ChunkPos pos) {
-        super();
-        
-        RegistryKey<World> dimType = world.getRegistryKey();
-        if (dimType != null)
-            this.putString("dimension", dimType.getValue().toString());
-        
-        this.putInt("x", pos.x);
-        this.putInt("z", pos.z);
+        this(ClaimTag.toLong(world.getRegistryKey(), pos.x, pos.z));
     }
     public ClaimTag(@NotNull Chunk chunk) {
         this(chunk, chunk.getPos());
     }
     
     public int getX() {
-        return this.getInt("x");
+        return ClaimTag.getX(this.packed);
     }
     public int getZ() {
-        return this.getInt("z");
+        return ClaimTag.getZ(this.packed);
     }
     
     public int getLowerX() {
@@ -90,41 +96,102 @@ public final class ClaimTag extends NbtCompound {
     }
     
     public @Nullable RegistryKey<World> getDimension() {
-        Identifier identifier;
-        String dimType = this.getString("dimension");
-        if (dimType == null)
-            return null;
-        if ((identifier = Identifier.tryParse(dimType)) == null)
+        return ClaimTag.getDimension(this.packed);
+    }
+    
+    public long toLong() {
+        return this.packed;
+    }
+    public @Nullable NbtCompound toNbt() {
+        RegistryKey<World> dimension = this.getDimension();
+        if (dimension == null)
             return null;
-        return RegistryKey.of(Registry.WORLD_KEY, identifier);
+        
+        NbtCompound tag = new NbtCompound();
+        tag.putString("dimension", dimension.getValue().toString());
+        tag.putInt("x", this.getX());
+        tag.putInt("z", this.getZ());
+        return tag;
+    }
+    
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof ClaimTag tag && tag.packed == this.packed;
+    }
+    @Override
+    public int hashCode() {
+        return Long.hashCode(this.packed);
+    }
+    
+    /*
+     * Packing
+     */
+    
+    public static long toLong(@Nullable RegistryKey<World> dimension, int x, int z) {
+        return ((long) ClaimTag.getDimensionIndex(dimension) << (ClaimTag.COORDINATE_BITS * 2))
+            | (((long) x & ClaimTag.COORDINATE_MASK) << ClaimTag.COORDINATE_BITS)
+            | ((long) z & ClaimTag.COORDINATE_MASK);
+    }
+    public static long toLong(@NotNull WorldChunk chunk) {
+        ChunkPos pos = chunk.getPos();
+        return ClaimTag.toLong(chunk.getWorld().getRegistryKey(), pos.x, pos.z);
+    }
+    public static int getX(long packed) {
+        // Shift left and back again to keep the sign
+        return (int) (packed << (64 - ClaimTag.COORDINATE_BITS * 2) >> (64 - ClaimTag.COORDINATE_BITS));
+    }
+    public static int getZ(long packed) {
+        return (int) (packed << (64 - ClaimTag.COORDINATE_BITS) >> (64 - ClaimTag.COORDINATE_BITS));
+    }
+    public static long offset(long packed, int x, int z) {
+        return (packed & ~((1L << (ClaimTag.COORDINATE_BITS * 2)) - 1))
+            | (((long) (ClaimTag.getX(packed) + x) & ClaimTag.COORDINATE_MASK) << ClaimTag.COORDINATE_BITS)
+            | ((long) (ClaimTag.getZ(packed) + z) & ClaimTag.COORDINATE_MASK);
+    }
+    public static @Nullable RegistryKey<World> getDimension(long packed) {
+        int index = (int) (packed >>> (ClaimTag.COORDINATE_BITS * 2));
+        synchronized (ClaimTag.DIMENSIONS) {
+            return index < ClaimTag.DIMENSIONS.size() ? ClaimTag.DIMENSIONS.get(index) : null;
+        }
+    }
+    private static int getDimensionIndex(@Nullable RegistryKey<World> dimension) {
+        if (dimension == null)
+            return 0;
+        synchronized (ClaimTag.DIMENSIONS) {
+            int index = ClaimTag.DIMENSION_IDS.getInt(dimension);
+            if (index == 0) {
+                if ((index = ClaimTag.DIMENSIONS.size()) >= (1 << ClaimTag.DIMENSION_BITS))
+                    throw new IllegalStateException("Too many dimensions to store claims for");
+                ClaimTag.DIMENSIONS.add(dimension);
+                ClaimTag.DIMENSION_IDS.put(dimension, index);
+            }
+            return index;
+        }
     }
     
     public static @Nullable ClaimTag fromCompound(@NotNull NbtCompound compoundTag) {
+        Identifier identifier;
         if (!(compoundTag.contains("dimension", NbtElement.STRING_TYPE) && compoundTag.contains("x", NbtElement.INT_TYPE) && compoundTag.contains("z", NbtElement.INT_TYPE)))
             return null;
-        else {
-            ClaimTag tag = new ClaimTag();
-            
-            tag.putString("dimension", compoundTag.getString("dimension"));
-            tag.putInt("x", compoundTag.getInt("x"));
-            tag.putInt("z", compoundTag.getInt("z"));
-            
-            return tag;
-        }
+        if ((identifier = Identifier.tryParse(compoundTag.getString("dimension"))) == null)
+            return null;
+        return new ClaimTag(ClaimTag.toLong(
+            RegistryKey.of(Registry.WORLD_KEY, identifier),
+            compoundTag.getInt("x"),
+            compoundTag.getInt("z")
+        ));
     }
     public static @Nullable ClaimTag fromArray(@NotNull NbtIntArray arrayTag) {
         int[] array = arrayTag.getIntArray();
-        ClaimTag tag = new ClaimTag();
         
         RegistryKey<World> world = LegacyConverter.getWorldFromId((byte) array[0]);
         if (world == null)
             return null;
         
-        tag.putString("dimension", world.getValue().toString());
-        tag.putInt("x", array[1]);
-        tag.putInt("z", array[2]);
-        
-        return tag;
+        return new ClaimTag(ClaimTag.toLong(world, array[1], array[2]));
+    }
+    public static @NotNull ClaimTag fromLong(long packed) {
+        return new ClaimTag(packed);
     }
     
     public static @NotNull ClaimTag of(@NotNull Chunk chunk) {
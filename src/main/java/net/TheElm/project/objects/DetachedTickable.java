@@ -38,32 +38,87 @@ import java.util.function.Predicate;
 public final class DetachedTickable {
     private final @NotNull ServerWorld world;
     private final @NotNull Predicate<DetachedTickable> predicate;
+    private final @NotNull Priority priority;
     private int ticks = 0;
     private boolean removed = false;
     
+    private long nanos = 0L;
+    private long steps = 0L;
+    
     public DetachedTickable(@NotNull ServerWorld world, @NotNull Predicate<DetachedTickable> predicate) {
+        this(world, Priority.NORMAL, predicate);
+    }
+    public DetachedTickable(@NotNull ServerWorld world, @NotNull Priority priority, @NotNull Predicate<DetachedTickable> predicate) {
         this.world = world;
+        this.priority = priority;
         this.predicate = predicate;
     }
     
     public void tick() {
         // Run the tickable and see if we should remove it
-        if (!this.removed)
-            this.removed = this.predicate.test(this);
+        this.step();
         this.ticks++;
     }
     
+    /**
+     * Run the predicate without advancing the tick counter, used by the scheduler to fill spare budget
+     */
+    public void step() {
+        if (this.removed)
+            return;
+        long start = System.nanoTime();
+        this.removed = this.predicate.test(this);
+        this.nanos += System.nanoTime() - start;
+        this.steps++;
+    }
+    
     public @NotNull MinecraftServer getServer() {
         return this.world.getServer();
     }
     public @NotNull ServerWorld getWorld() {
         return this.world;
     }
+    public @NotNull Priority getPriority() {
+        return this.priority;
+    }
     public int getTicks() {
         return this.ticks;
     }
     
+    /*
+     * Statistics
+     */
+    public long getNanos() {
+        return this.nanos;
+    }
+    public long getSteps() {
+        return this.steps;
+    }
+    public @NotNull String getName() {
+        String name = this.predicate.getClass()
+            .getSimpleName();
+        
+        // Lambdas are named after the class that created them
+        int lambda = name.indexOf("$$Lambda");
+        return lambda < 0 ? name : name.substring(0, lambda) + " (lambda)";
+    }
+    
     public boolean isRemoved() {
         return this.removed;
     }
+    
+    public enum Priority {
+        /**
+         * Runs every tick regardless of the budget, for short timing sensitive work like effects
+         */
+        IMMEDIATE,
+        /**
+         * Runs once per tick for as long as the budget allows
+         */
+        NORMAL,
+        /**
+         * Runs once per tick after everything else, and then fills any remaining budget with extra steps
+         */
+        BULK
+    }
 }
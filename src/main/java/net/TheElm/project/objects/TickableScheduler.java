@@ -0,0 +1,172 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.TheElm.project.objects;
+
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import net.TheElm.project.config.SewConfig;
+import net.TheElm.project.objects.DetachedTickable.Priority;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.MathHelper;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.function.Predicate;
+
+/**
+ * Runs the DetachedTickables of a world within a per-tick time budget
+ * The budget grows when the server is idle and shrinks as the MSPT approaches the target,
+ *   tasks that didn't fit are left at the front of their queue to run first on the next tick
+ */
+public final class TickableScheduler {
+    
+    private final @NotNull ServerWorld world;
+    private final @NotNull Queue<DetachedTickable> incoming = new ArrayDeque<>();
+    private final @NotNull Map<Priority, Deque<DetachedTickable>> queues = new EnumMap<>(Priority.class);
+    
+    private final @NotNull Object2LongOpenHashMap<String> finishedNanos = new Object2LongOpenHashMap<>();
+    private final @NotNull Object2LongOpenHashMap<String> finishedCount = new Object2LongOpenHashMap<>();
+    
+    private long lastBudget = 0L;
+    private long lastUsed = 0L;
+    private long deferred = 0L;
+    
+    public TickableScheduler(@NotNull ServerWorld world) {
+        this.world = world;
+        for (Priority priority : Priority.values())
+            this.queues.put(priority, new ArrayDeque<>());
+    }
+    
+    public @NotNull DetachedTickable add(@NotNull Priority priority, @NotNull Predicate<DetachedTickable> predicate) {
+        DetachedTickable tickable = new DetachedTickable(this.world, priority, predicate);
+        this.incoming.add(tickable);
+        return tickable;
+    }
+    
+    public void tick() {
+        // Move any items from the queue
+        DetachedTickable tickable;
+        while ((tickable = this.incoming.poll()) != null)
+            this.queues.get(tickable.getPriority()).add(tickable);
+        
+        long start = System.nanoTime();
+        long budget = this.getBudget();
+        long deadline = start + budget;
+        
+        // Immediate tasks always run, everything else runs until the budget is spent
+        this.tickAll(this.queues.get(Priority.IMMEDIATE), Long.MAX_VALUE);
+        this.tickAll(this.queues.get(Priority.NORMAL), deadline);
+        
+        Deque<DetachedTickable> bulk = this.queues.get(Priority.BULK);
+        this.tickAll(bulk, deadline);
+        
+        // Spend whatever is left on additional steps of bulk work
+        while (!bulk.isEmpty() && System.nanoTime() < deadline) {
+            tickable = bulk.poll();
+            tickable.step();
+            this.requeue(bulk, tickable);
+        }
+        
+        this.lastBudget = budget;
+        this.lastUsed = System.nanoTime() - start;
+    }
+    
+    private void tickAll(@NotNull Deque<DetachedTickable> queue, long deadline) {
+        int size = queue.size();
+        for (int i = 0; i < size; i++) {
+            // Always let one task through so that an overloaded server still makes progress
+            if (i > 0 && System.nanoTime() >= deadline) {
+                this.deferred += size - i;
+                return;
+            }
+            
+            DetachedTickable tickable = queue.poll();
+            tickable.tick();
+            this.requeue(queue, tickable);
+        }
+    }
+    
+    private void requeue(@NotNull Deque<DetachedTickable> queue, @NotNull DetachedTickable tickable) {
+        if (!tickable.isRemoved()) {
+            queue.add(tickable);
+            return;
+        }
+        
+        String name = tickable.getName();
+        this.finishedNanos.addTo(name, tickable.getNanos());
+        this.finishedCount.addTo(name, 1L);
+    }
+    
+    /**
+     * Scale the configured budget from double when idle down to a quarter at the target MSPT
+     * @return The number of nanoseconds that tickables may use this tick
+     */
+    public long getBudget() {
+        long budget = SewConfig.get(SewConfig.TICKABLE_BUDGET);
+        float target = SewConfig.get(SewConfig.TICKABLE_TARGET_MSPT);
+        float mspt = this.world.getServer().getTickTime();
+        
+        double scale = MathHelper.clamp((target - mspt) / target * 2.0D, 0.25D, 2.0D);
+        return (long)(budget * scale);
+    }
+    
+    /*
+     * Statistics
+     */
+    public @NotNull List<DetachedTickable> getRunning() {
+        List<DetachedTickable> running = new ArrayList<>(this.incoming);
+        for (Deque<DetachedTickable> queue : this.queues.values())
+            running.addAll(queue);
+        return running;
+    }
+    public @NotNull Map<String, Long> getFinishedNanos() {
+        return Collections.unmodifiableMap(this.finishedNanos);
+    }
+    public @NotNull Map<String, Long> getFinishedCount() {
+        return Collections.unmodifiableMap(this.finishedCount);
+    }
+    public long getLastBudget() {
+        return this.lastBudget;
+    }
+    public long getLastUsed() {
+        return this.lastUsed;
+    }
+    public long getDeferred() {
+        return this.deferred;
+    }
+    public int size() {
+        int size = this.incoming.size();
+        for (Deque<DetachedTickable> queue : this.queues.values())
+            size += queue.size();
+        return size;
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.TheElm.project.objects;
+
+import net.TheElm.project.CoreMod;
+import net.TheElm.project.config.SewConfig;
+import net.TheElm.project.mixins.Interfaces.ChunkManagerAccessor;
+import net.TheElm.project.utilities.WarpUtils;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ChunkTicketType;
+import net.minecraft.server.world.ServerChunkManager;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.chunk.ChunkStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Finds random sites for new warps without stalling the server thread
+ * Chunks are generated through chunk futures and only checked against their heightmap once loaded,
+ *   and a small pool of checked sites is kept for the warp world so that most requests don't wait at all
+ */
+public final class WarpSiteFinder {
+    // Keeps a chunk loading while it is generated, removed once checked or after 30 seconds
+    private static final @NotNull ChunkTicketType<ChunkPos> WARP_SEARCH = ChunkTicketType.create("warp_search", Comparator.comparingLong(ChunkPos::toLong), 600);
+    
+    private final @NotNull ServerWorld world;
+    private final @NotNull Queue<BlockPos> pool = new ConcurrentLinkedQueue<>();
+    private final @NotNull AtomicInteger refilling = new AtomicInteger();
+    
+    // Set when a background search runs out of attempts, stops refilling until a player asks for a site
+    private volatile boolean paused = false;
+    
+    private final @NotNull LongAdder checked = new LongAdder();
+    private final @NotNull LongAdder found = new LongAdder();
+    private final @NotNull LongAdder fromPool = new LongAdder();
+    private final @NotNull LongAdder exhausted = new LongAdder();
+    
+    public WarpSiteFinder(@NotNull ServerWorld world) {
+        this.world = world;
+    }
+    
+    public void tick() {
+        if (!this.paused && this.world.getTime() % 200 == 0 && this.isEnabled() && Objects.equals(this.world.getRegistryKey(), SewConfig.get(SewConfig.WARP_DIMENSION)))
+            this.refill();
+    }
+    
+    /**
+     * @return A future of the ground position of a site, or null if none was found within the configured attempts
+     */
+    public @NotNull CompletableFuture<@Nullable BlockPos> take() {
+        this.paused = false;
+        
+        BlockPos site = this.pool.poll();
+        CompletableFuture<BlockPos> future;
+        if (site == null)
+            future = this.search(WarpUtils.getWorldSpawn(this.world), SewConfig.get(SewConfig.WARP_SEARCH_ATTEMPTS));
+        else {
+            this.fromPool.increment();
+            
+            // The site may have been built on since it was pooled
+            future = this.check(site)
+                .thenCompose(pos -> pos == null ? this.take() : CompletableFuture.completedFuture(pos));
+        }
+        
+        this.refill();
+        return future;
+    }
+    
+    private void refill() {
+        if (!this.isEnabled())
+            return;
+        int size = SewConfig.get(SewConfig.WARP_POOL_SIZE);
+        while (this.pool.size() + this.refilling.get() < size) {
+            this.refilling.incrementAndGet();
+            this.search(WarpUtils.getWorldSpawn(this.world), SewConfig.get(SewConfig.WARP_SEARCH_ATTEMPTS))
+                .whenComplete((pos, exception) -> {
+                    if (pos != null)
+                        this.pool.add(pos);
+                    else this.paused = true;
+                    this.refilling.decrementAndGet();
+                });
+        }
+    }
+    
+    private @NotNull CompletableFuture<@Nullable BlockPos> search(@NotNull BlockPos center, int attempts) {
+        if (attempts <= 0) {
+            this.exhausted.increment();
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        BlockPos pos = new BlockPos(WarpUtils.getRandom(center.getX()), 0, WarpUtils.getRandom(center.getZ()));
+        return this.check(pos)
+            .thenCompose(site -> site == null ? this.search(center, attempts - 1) : CompletableFuture.completedFuture(site));
+    }
+    
+    /**
+     * Generate the chunk of a position off of the server thread, then check it on the server thread
+     * The chunk future is requested without waiting on it, getChunk and getChunkFutureSyncOnMainThread
+     *   would both run the server tasks until the chunk is generated when called from the server thread
+     */
+    private @NotNull CompletableFuture<@Nullable BlockPos> check(@NotNull BlockPos pos) {
+        MinecraftServer server = this.world.getServer();
+        ServerChunkManager manager = this.world.getChunkManager();
+        ChunkPos chunkPos = new ChunkPos(pos);
+        
+        return CompletableFuture.supplyAsync(() -> {
+            manager.addTicket(WarpSiteFinder.WARP_SEARCH, chunkPos, 0, chunkPos);
+            return ((ChunkManagerAccessor) manager).getChunkFutureAsync(chunkPos.x, chunkPos.z, ChunkStatus.FULL, true);
+        }, server).thenCompose(Function.identity()).thenApplyAsync(either -> {
+            this.checked.increment();
+            
+            BlockPos site = either.left()
+                .map(chunk -> WarpUtils.getSurfacePos(this.world, chunk, pos.getX(), pos.getZ()))
+                .orElse(null);
+            if (site != null)
+                this.found.increment();
+            
+            manager.removeTicket(WarpSiteFinder.WARP_SEARCH, chunkPos, 0, chunkPos);
+            return site;
+        }, server).exceptionally(exception -> {
+            CoreMod.logError(exception);
+            return null;
+        });
+    }
+    
+    private boolean isEnabled() {
+        return SewConfig.get(SewConfig.WARP_MAX_DISTANCE) > 0;
+    }
+    
+    /*
+     * Statistics
+     */
+    public int size() {
+        return this.pool.size();
+    }
+    public int getRefilling() {
+        return this.refilling.get();
+    }
+    public boolean isPaused() {
+        return this.paused;
+    }
+    public long getChecked() {
+        return this.checked.sum();
+    }
+    public long getFound() {
+        return this.found.sum();
+    }
+    public long getFromPool() {
+        return this.fromPool.sum();
+    }
+    public long getExhausted() {
+        return this.exhausted.sum();
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.TheElm.project.objects.ticking;
+
+import net.TheElm.project.config.SewConfig;
+import net.TheElm.project.objects.DetachedTickable;
+import net.TheElm.project.protections.events.BlockBreak;
+import net.TheElm.project.protections.logging.BlockEvent;
+import net.TheElm.project.protections.logging.EventLogger;
+import net.TheElm.project.protections.logging.EventLogger.BlockAction;
+import net.minecraft.block.BlockState;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.ActionResult;
+import net.minecraft.util.Hand;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Breaks a connected group of blocks (An ore vein, a tree) a few blocks per tick
+ * The group is found with an iterative flood fill that stops at the configured maximum size
+ */
+public class ChainBreaker implements Predicate<DetachedTickable> {
+    
+    // Ores only connect through their faces
+    public static final @NotNull List<BlockPos> FACES = List.of(
+        new BlockPos(0, 1, 0),
+        new BlockPos(0, -1, 0),
+        new BlockPos(1, 0, 0),
+        new BlockPos(-1, 0, 0),
+        new BlockPos(0, 0, 1),
+        new BlockPos(0, 0, -1)
+    );
+    // Branches of trees can connect through corners, but never back down towards the ground
+    public static final @NotNull List<BlockPos> BRANCHES = ChainBreaker.neighbors(0, 1);
+    
+    private final @NotNull ServerPlayerEntity player;
+    private final @NotNull Hand hand;
+    private final @Nullable Direction blockFace;
+    private final @NotNull Predicate<BlockState> predicate;
+    private final @NotNull Queue<BlockPos> breaks = new ArrayDeque<>();
+    private final @NotNull List<BlockEvent> events = new ArrayList<>();
+    
+    public ChainBreaker(@NotNull ServerPlayerEntity player, @NotNull ServerWorld world, @NotNull Hand hand, @NotNull BlockPos origin, @Nullable Direction blockFace, @NotNull Predicate<BlockState> predicate, @NotNull List<BlockPos> offsets) {
+        this.player = player;
+        this.hand = hand;
+        this.blockFace = blockFace;
+        this.predicate = predicate;
+        
+        int limit = SewConfig.get(SewConfig.CHAIN_BREAK_MAX_BLOCKS);
+        Set<BlockPos> visited = new HashSet<>();
+        Queue<BlockPos> search = new ArrayDeque<>();
+        visited.add(origin);
+        search.add(origin);
+        
+        // Search outwards from the block that was broken
+        BlockPos pos;
+        while ((pos = search.poll()) != null && this.breaks.size() < limit) {
+            for (BlockPos offset : offsets) {
+                BlockPos next = pos.add(offset);
+                if (!visited.add(next) || !world.isChunkLoaded(next) || !predicate.test(world.getBlockState(next)))
+                    continue;
+                
+                this.breaks.add(next);
+                search.add(next);
+                if (this.breaks.size() >= limit)
+                    break;
+            }
+        }
+    }
+    
+    public int size() {
+        return this.breaks.size();
+    }
+    
+    @Override
+    public boolean test(@NotNull DetachedTickable tickable) {
+        if (tickable.isRemoved() || this.player.isDisconnected())
+            return this.finish();
+        
+        ServerWorld world = tickable.getWorld();
+        int count = SewConfig.get(SewConfig.CHAIN_BREAK_PER_TICK);
+        
+        BlockPos pos;
+        while (count-- > 0 && (pos = this.breaks.poll()) != null) {
+            BlockState state = world.getBlockState(pos);
+            
+            // The block may have been changed since it was found
+            if (!this.predicate.test(state) || BlockBreak.canBlockBreak(this.player, world, this.hand, pos, this.blockFace, null) == ActionResult.FAIL)
+                continue;
+            
+            if (world.breakBlock(pos, true, this.player))
+                this.events.add(new BlockEvent(this.player, BlockAction.BREAK, state.getBlock(), pos));
+        }
+        
+        return this.breaks.isEmpty() && this.finish();
+    }
+    
+    /**
+     * Log everything that was broken together
+     */
+    private boolean finish() {
+        this.breaks.clear();
+        if (!this.events.isEmpty()) {
+            EventLogger.log(this.events);
+            this.events.clear();
+        }
+        return true;
+    }
+    
+    private static @NotNull List<BlockPos> neighbors(int lowerY, int upperY) {
+        List<BlockPos> list = new ArrayList<>();
+        for (int y = lowerY; y <= upperY; y++) {
+            for (int x = -1; x <= 1; x++) {
+                for (int z = -1; z <= 1; z++) {
+                    if (x != 0 || y != 0 || z != 0)
+                        list.add(new BlockPos(x, y, z));
+                }
+            }
+        }
+        return List.copyOf(list);
+    }
+}
@@ -31,10 +31,13 @@ import net.TheElm.project.ServerCore;
 import net.TheElm.project.commands.ClaimCommand;
 import net.TheElm.project.exceptions.TranslationKeyException;
 import net.TheElm.project.interfaces.IClaimedChunk;
+import net.TheElm.project.objects.ClaimTag;
 import net.TheElm.project.objects.DetachedTickable;
+import net.TheElm.project.protections.claiming.ClaimIndex;
 import net.TheElm.project.protections.claiming.Claimant;
 import net.TheElm.project.protections.claiming.ClaimantPlayer;
 import net.TheElm.project.protections.claiming.ClaimantTown;
+import net.TheElm.project.utilities.ChunkUtils;
 import net.TheElm.project.utilities.TranslatableServerSide;
 import net.TheElm.project.utilities.text.MessageUtils;
 import net.minecraft.network.MessageType;
@@ -106,20 +109,27 @@ public class ChunkOwnerUpdate implements Predicate<DetachedTickable> {
         // Check that a claimant was found (If not, just remove)
         if (this.claimant == null || tickable.isRemoved())
             return true;
-        // Run every 2 ticks
-        if (tickable.getTicks() % 2 != 0)
-            return false;
         ServerWorld world = tickable.getWorld();
         
         BlockPos claimPos = this.positions.poll();
         if (claimPos == null)
             return true;
         
-        WorldChunk chunk = world.getWorldChunk(claimPos);
-        
         // Run the chunk mode (Claim or unclaim)
+        WorldChunk chunk;
         ActionResult result;
         try {
+            // Check the claim index first so that chunks that won't change aren't loaded
+            if (ChunkUtils.getLoadedChunk(world, claimPos) == null) {
+                ChunkPos chunkPos = new ChunkPos(claimPos);
+                result = this.mode.precheck(world, chunkPos, ChunkUtils.getClaimIndex(world).get(chunkPos.toLong()), this);
+                if (result == ActionResult.FAIL)
+                    throw this.mode.getException(this.source);
+                if (result == ActionResult.PASS)
+                    return this.skip();
+            }
+            
+            chunk = world.getWorldChunk(claimPos);
             result = this.mode.run(chunk, this);
             if (result == ActionResult.FAIL)
                 throw this.mode.getException(this.source);
@@ -143,6 +153,9 @@ public class ChunkOwnerUpdate implements Predicate<DetachedTickable> {
         this.changed.add(chunk.getPos());
         
         // Try closing the tickable
+        return this.skip();
+    }
+    private boolean skip() {
         boolean finished = this.positions.isEmpty();
         if (finished)
             this.finish();
@@ -219,6 +232,28 @@ public class ChunkOwnerUpdate implements Predicate<DetachedTickable> {
                 return ActionResult.SUCCESS;
             }
             @Override
+            public @Nullable ActionResult precheck(@NotNull ServerWorld world, @NotNull ChunkPos chunkPos, @Nullable ClaimIndex.Entry entry, @NotNull ChunkOwnerUpdate update) throws CommandSyntaxException {
+                if (!world.getWorldBorder().contains(chunkPos))
+                    return ActionResult.PASS;
+                
+                // Unclaimed or sliced chunks have to be loaded to be checked
+                UUID owner = entry == null ? null : entry.getOwner();
+                if (owner == null)
+                    return null;
+                
+                Claimant claimant = Objects.requireNonNull(update.getClaimant());
+                if (claimant instanceof ClaimantTown claimantTown) {
+                    if (!Objects.equals(owner, claimantTown.getOwner()))
+                        return ActionResult.FAIL;
+                    ClaimantTown town = entry.getTown();
+                    if (town != null && town != claimantTown)
+                        throw ClaimCommand.CHUNK_ALREADY_OWNED.create(update.getSource());
+                } else if (!Objects.equals(owner, claimant.getId()))
+                    return ActionResult.FAIL;
+                
+                return null;
+            }
+            @Override
             public @NotNull String getSuccessTranslation() {
                 return "claim.chunk.claimed";
             }
@@ -256,6 +291,30 @@ public class ChunkOwnerUpdate implements Predicate<DetachedTickable> {
                 return ActionResult.SUCCESS;
             }
             @Override
+            public @Nullable ActionResult precheck(@NotNull ServerWorld world, @NotNull ChunkPos chunkPos, @Nullable ClaimIndex.Entry entry, @NotNull ChunkOwnerUpdate update) throws CommandSyntaxException {
+                Claimant claimant = Objects.requireNonNull(update.getClaimant());
+                UUID owner = entry == null ? null : entry.getOwner();
+                if (owner != null && Objects.equals(claimant.getId(), owner))
+                    return null;
+                
+                // Cleanup/Remove the players count
+                claimant.removeFromCount(ClaimTag.toLong(world.getRegistryKey(), chunkPos.x, chunkPos.z));
+                
+                // If the chunk is not owned
+                if (owner == null) {
+                    if (entry != null)
+                        return null;
+                    if (update.getVerify() && update.getInitialSize() <= 1)
+                        throw ClaimCommand.CHUNK_NOT_OWNED.create(update.getSource());
+                    return ActionResult.PASS;
+                }
+                
+                // If the chunk is owned by another player
+                if (update.getVerify())
+                    return update.getInitialSize() > 1 ? ActionResult.PASS : ActionResult.FAIL;
+                return null;
+            }
+            @Override
             public @NotNull String getSuccessTranslation() {
                 return "claim.chunk.unclaimed";
             }
@@ -266,6 +325,12 @@ public class ChunkOwnerUpdate implements Predicate<DetachedTickable> {
         };
         
         public abstract ActionResult run(@NotNull WorldChunk worldChunk, @NotNull ChunkOwnerUpdate update) throws CommandSyntaxException, TranslationKeyException;
+        
+        /**
+         * Check the claim index before loading a chunk that is not in memory
+         * @return NULL if the chunk should be loaded and ran, PASS to skip the chunk, FAIL to stop
+         */
+        public abstract @Nullable ActionResult precheck(@NotNull ServerWorld world, @NotNull ChunkPos chunkPos, @Nullable ClaimIndex.Entry entry, @NotNull ChunkOwnerUpdate update) throws CommandSyntaxException;
         public abstract @NotNull String getSuccessTranslation();
         public abstract @NotNull CommandSyntaxException getException(@NotNull ServerPlayerEntity player);
     }
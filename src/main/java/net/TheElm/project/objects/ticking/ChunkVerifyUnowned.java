@@ -25,11 +25,10 @@
 
 package net.TheElm.project.objects.ticking;
 
-import net.TheElm.project.interfaces.IClaimedChunk;
 import net.TheElm.project.objects.DetachedTickable;
+import net.TheElm.project.utilities.ChunkUtils;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.world.chunk.WorldChunk;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayDeque;
@@ -64,17 +63,12 @@ public class ChunkVerifyUnowned implements Predicate<DetachedTickable> {
         BlockPos check;
         if (tickable.isRemoved())
             return true;
-        if (tickable.getTicks() % 2 != 0)
-            return false;
         if ((check = this.checks.poll()) == null)
             return true;
         ServerWorld world = tickable.getWorld();
         
-        // Create the chunk position
-        WorldChunk worldChunk = world.getWorldChunk(check);
-        
-        // If the chunk is claimed
-        this.success = ((IClaimedChunk) worldChunk).getOwner() == null;
+        // If the chunk is claimed (Checks the claim index instead of loading the chunk)
+        this.success = ChunkUtils.getPosOwner(world, check).isEmpty();
         return !this.success || this.checks.isEmpty();
     }
 }
@@ -40,6 +40,7 @@ import net.minecraft.util.math.BlockPos;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Predicate;
 
 /**
@@ -59,6 +60,7 @@ public class WaystoneSearch implements Predicate<DetachedTickable> {
     
     private @Nullable DetachedTickable child = null;
     private @Nullable ChunkVerifyUnowned search = null;
+    private @Nullable CompletableFuture<BlockPos> site = null;
     
     public WaystoneSearch(@Nullable ServerWorld world, @NotNull ServerPlayerEntity player) {
         String warpName = WarpUtils.PRIMARY_DEFAULT_HOME;
@@ -122,10 +124,20 @@ public class WaystoneSearch implements Predicate<DetachedTickable> {
     }
     
     private boolean getNewWarpPosition() {
-        if (this.warp == null)
+        if (this.world == null || this.warp == null)
+            return false;
+        
+        // Sites are found in the background, wait until one is ready
+        if (this.site == null)
+            this.site = ((LogicalWorld) this.world).getWarpSites().take();
+        if (!this.site.isDone())
             return false;
+        
+        BlockPos pos = this.site.getNow(null);
+        this.site = null;
+        
         this.hasVerified = false; // Make dirt (Must check again)
-        return this.warp.getNewWarpPositionIn();
+        return this.warp.updateWarpPos(pos);
     }
     
     private boolean verifyWarpUnclaimed() {
@@ -138,7 +150,7 @@ public class WaystoneSearch implements Predicate<DetachedTickable> {
         // Create a new chunk verification
         if (this.search == null || this.child == null || (this.child.isRemoved() && !this.search.isSuccess())) {
             this.search = new ChunkVerifyUnowned(warpPos, 5);
-            this.child = ((LogicalWorld) this.world).addTickableEvent(this.search);
+            this.child = ((LogicalWorld) this.world).addTickableEvent(DetachedTickable.Priority.BULK, this.search);
         }
         
         // If the check was successful
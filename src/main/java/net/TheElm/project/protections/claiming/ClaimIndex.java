@@ -0,0 +1,260 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.TheElm.project.protections.claiming;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.TheElm.project.CoreMod;
+import net.TheElm.project.enums.ClaimPermissions;
+import net.TheElm.project.enums.ClaimSettings;
+import net.TheElm.project.interfaces.LogicalWorld;
+import net.TheElm.project.objects.ClaimTag;
+import net.TheElm.project.utilities.ChunkUtils;
+import net.TheElm.project.utilities.nbt.NbtUtils;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.registry.RegistryKey;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A saved listing of which chunks in a world are claimed, so that ownership
+ *   can be checked without loading a chunk off of the disk
+ * Kept up to date whenever a chunk is saved or loaded
+ */
+public final class ClaimIndex {
+    
+    private final @NotNull RegistryKey<World> world;
+    private final @NotNull Long2ObjectMap<Entry> chunks = new Long2ObjectOpenHashMap<>();
+    private boolean loaded = false;
+    private boolean backfilled = false;
+    private boolean dirty = false;
+    
+    public ClaimIndex(@NotNull RegistryKey<World> world) {
+        this.world = world;
+    }
+    
+    /**
+     * Update the listing of a chunk
+     * @param chunkPos The position of the chunk
+     * @param owner The player that owns the chunk
+     * @param town The town that the chunk is a part of
+     * @param sliced If the chunk contains claim slices
+     */
+    public synchronized void update(long chunkPos, @Nullable UUID owner, @Nullable UUID town, boolean sliced) {
+        this.assertLoaded();
+        Entry entry = (owner == null && !sliced) ? null : new Entry(owner, town, sliced);
+        Entry previous = entry == null ? this.chunks.remove(chunkPos) : this.chunks.put(chunkPos, entry);
+        if (!Entry.equals(entry, previous))
+            this.dirty = true;
+    }
+    
+    /**
+     * @param chunkPos The position of the chunk
+     * @return The stored owner of the chunk, or NULL if the chunk is not claimed
+     */
+    public synchronized @Nullable Entry get(long chunkPos) {
+        this.assertLoaded();
+        return this.chunks.get(chunkPos);
+    }
+    public synchronized int size() {
+        this.assertLoaded();
+        return this.chunks.size();
+    }
+    
+    public boolean canPlayerDo(long chunkPos, @Nullable UUID player, @Nullable ClaimPermissions perm) {
+        Entry entry = this.get(chunkPos);
+        if (entry == null)
+            return true;
+        
+        // Slices can't be checked without the chunk, so assume that they are protected
+        if (entry.isSliced())
+            return false;
+        
+        return ChunkUtils.canPlayerDo(entry.getPlayer(), entry.getTown(), player, perm);
+    }
+    public boolean isSetting(long chunkPos, @NotNull ClaimSettings setting) {
+        Entry entry = this.get(chunkPos);
+        ClaimantPlayer owner = entry == null ? null : entry.getPlayer();
+        if (owner == null || !setting.isEnabled())
+            return setting.getDefault(entry == null ? null : entry.owner);
+        return owner.getProtectedChunkSetting(setting);
+    }
+    
+    /*
+     * Saving
+     */
+    
+    /**
+     * Read the index of every world before any of their chunks load, and fill in claims
+     *   made before the index existed using a single read of the claim files
+     * @param worlds The worlds of the server
+     */
+    public static void loadAll(@NotNull Collection<ServerWorld> worlds) {
+        Map<RegistryKey<World>, ClaimIndex> missing = new HashMap<>();
+        for (ServerWorld world : worlds) {
+            ClaimIndex index = ((LogicalWorld) world).getClaimIndex();
+            synchronized (index) {
+                index.assertLoaded();
+                if (!index.backfilled)
+                    missing.put(index.world, index);
+            }
+        }
+        
+        if (!missing.isEmpty())
+            ClaimIndex.backfill(missing);
+    }
+    private void assertLoaded() {
+        if (!this.loaded) {
+            this.loaded = true;
+            
+            NbtCompound index = NbtUtils.readClaimIndex(this.world);
+            NbtList list = index.getList("Chunks", NbtElement.COMPOUND_TYPE);
+            for (int i = 0; i < list.size(); i++) {
+                NbtCompound tag = list.getCompound(i);
+                this.chunks.put(tag.getLong("Pos"), new Entry(
+                    NbtUtils.getUUID(tag, "Owner"),
+                    NbtUtils.getUUID(tag, "Town"),
+                    tag.getBoolean("Sliced")
+                ));
+            }
+            
+            // Claims made before the index existed are only listed in the Claimant files, and are added by loadAll
+            this.backfilled = index.getBoolean("Backfilled");
+            
+            CoreMod.logDebug("Indexed " + this.chunks.size() + " claimed chunks in " + this.world.getValue());
+        }
+    }
+    private static void backfill(@NotNull Map<RegistryKey<World>, ClaimIndex> indexes) {
+        Map<RegistryKey<World>, Map<Long, UUID>> towns = new HashMap<>();
+        Map<RegistryKey<World>, Map<Long, UUID>> players = new HashMap<>();
+        
+        NbtUtils.forEachClaimData(tag -> {
+            UUID id = NbtUtils.getUUID(tag, "iden");
+            if (id == null)
+                return;
+            Map<RegistryKey<World>, Map<Long, UUID>> map = Claimant.ClaimantType.TOWN.name().equals(tag.getString("type")) ? towns : players;
+            for (ClaimTag claim : Claimant.readLandChunks(tag)) {
+                if (indexes.containsKey(claim.getDimension()))
+                    map.computeIfAbsent(claim.getDimension(), world -> new HashMap<>())
+                        .put(ChunkPos.toLong(claim.getX(), claim.getZ()), id);
+            }
+        });
+        
+        for (ClaimIndex index : indexes.values()) {
+            Map<Long, UUID> worldTowns = towns.getOrDefault(index.world, Map.of());
+            int added = 0;
+            
+            synchronized (index) {
+                for (Map.Entry<Long, UUID> claim : players.getOrDefault(index.world, Map.of()).entrySet()) {
+                    // Never replace what was indexed from the chunk itself
+                    if (index.chunks.containsKey(claim.getKey().longValue()))
+                        continue;
+                    index.chunks.put(claim.getKey().longValue(), new Entry(claim.getValue(), worldTowns.get(claim.getKey()), false));
+                    added++;
+                }
+                
+                index.backfilled = true;
+                index.dirty = true;
+            }
+            
+            CoreMod.logInfo("Backfilled " + added + " claimed chunks in " + index.world.getValue() + " from saved claims");
+        }
+    }
+    public void save() {
+        NbtCompound out = new NbtCompound();
+        synchronized (this) {
+            if (!this.dirty)
+                return;
+            this.dirty = false;
+            
+            NbtList list = new NbtList();
+            for (Long2ObjectMap.Entry<Entry> chunk : this.chunks.long2ObjectEntrySet()) {
+                Entry entry = chunk.getValue();
+                NbtCompound tag = new NbtCompound();
+                tag.putLong("Pos", chunk.getLongKey());
+                if (entry.owner != null)
+                    tag.putUuid("Owner", entry.owner);
+                if (entry.town != null)
+                    tag.putUuid("Town", entry.town);
+                tag.putBoolean("Sliced", entry.sliced);
+                list.add(tag);
+            }
+            out.put("Chunks", list);
+            out.putBoolean("Backfilled", this.backfilled);
+        }
+        
+        if (!NbtUtils.writeClaimIndex(this.world, out)) {
+            synchronized (this) {
+                this.dirty = true;
+            }
+        }
+    }
+    
+    public static final class Entry {
+        private final @Nullable UUID owner;
+        private final @Nullable UUID town;
+        private final boolean sliced;
+        
+        private Entry(@Nullable UUID owner, @Nullable UUID town, boolean sliced) {
+            this.owner = owner;
+            this.town = town;
+            this.sliced = sliced;
+        }
+        
+        public @Nullable UUID getOwner() {
+            return this.owner;
+        }
+        public @Nullable ClaimantPlayer getPlayer() {
+            return this.owner == null ? null : ClaimantPlayer.get(this.owner);
+        }
+        public @Nullable ClaimantTown getTown() {
+            if (this.town != null)
+                return ClaimantTown.get(this.town);
+            ClaimantPlayer player = this.getPlayer();
+            return player == null ? null : player.getTown();
+        }
+        public boolean isSliced() {
+            return this.sliced;
+        }
+        
+        private static boolean equals(@Nullable Entry a, @Nullable Entry b) {
+            if (a == null || b == null)
+                return a == b;
+            return a.sliced == b.sliced && Objects.equals(a.owner, b.owner) && Objects.equals(a.town, b.town);
+        }
+    }
+}
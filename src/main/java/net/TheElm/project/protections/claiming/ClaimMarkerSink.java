@@ -0,0 +1,54 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.TheElm.project.protections.claiming;
+
+import net.minecraft.util.registry.RegistryKey;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Receives the outlines of claimed regions, implemented over BlueMap by MapUtils
+ *   but kept free of any map API so that regions can be drawn anywhere
+ */
+public interface ClaimMarkerSink {
+    
+    /**
+     * @param world The world the region is in
+     * @param id A marker id that is stable for as long as the region keeps its north-west most chunk
+     * @param label Display label of the region
+     * @param detail Display details of the region
+     * @param outline The corners of the region, as alternating X and Z block coordinates
+     */
+    void push(@NotNull RegistryKey<World> world, @NotNull String id, @NotNull String label, @NotNull String detail, int @NotNull [] outline);
+    
+    void remove(@NotNull RegistryKey<World> world, @NotNull String id);
+    
+    /**
+     * Called once after a batch of pushes and removals
+     */
+    default void flush() {}
+
+}
@@ -0,0 +1,310 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.TheElm.project.protections.claiming;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.TheElm.project.objects.ClaimTag;
+import net.TheElm.project.utilities.MapUtils;
+import net.minecraft.util.registry.RegistryKey;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Supplier;
+
+/**
+ * The connected regions of a Claimants chunks, kept up to date as chunks are claimed and unclaimed
+ * Neighboring chunks are joined with a union-find, so claiming a chunk only merges it with its
+ *   neighbors and unclaiming a chunk only rebuilds the one region that it was a part of.
+ * Changed regions are traced again the next time that MapUtils flushes them to a ClaimMarkerSink
+ */
+public final class ClaimRegions {
+    private static final int EAST = 0;
+    private static final int SOUTH = 1;
+    private static final int WEST = 2;
+    private static final int NORTH = 3;
+    private static final int[] OFFSET_X = { 1, 0, -1, 0 };
+    private static final int[] OFFSET_Z = { 0, 1, 0, -1 };
+    private static final int[] TURNS = { 3, 0, 1 };
+    
+    private final @NotNull String markerPrefix;
+    private final @NotNull Supplier<String> label;
+    private final @NotNull Supplier<String> detail;
+    
+    // Chunk -> Parent chunk, and Root chunk -> Every chunk in the region
+    private final @NotNull Long2LongMap parents = new Long2LongOpenHashMap();
+    private final @NotNull Long2ObjectMap<LongSet> regions = new Long2ObjectOpenHashMap<>();
+    
+    // Roots that need to be traced, and Root chunk -> Anchor chunk of every pushed marker
+    private final @NotNull LongSet dirty = new LongOpenHashSet();
+    private final @NotNull Long2LongMap drawn = new Long2LongOpenHashMap();
+    
+    public ClaimRegions(@NotNull String markerPrefix, @NotNull Supplier<String> label, @NotNull Supplier<String> detail) {
+        this.markerPrefix = markerPrefix;
+        this.label = label;
+        this.detail = detail;
+    }
+    
+    public synchronized void add(long chunk) {
+        if (this.parents.containsKey(chunk))
+            return;
+        this.insert(chunk);
+        MapUtils.queue(this);
+    }
+    public synchronized void addAll(long[] chunks) {
+        for (long chunk : chunks) {
+            if (!this.parents.containsKey(chunk))
+                this.insert(chunk);
+        }
+        MapUtils.queue(this);
+    }
+    public synchronized void remove(long chunk) {
+        if (!this.parents.containsKey(chunk))
+            return;
+        long root = this.find(chunk);
+        LongSet members = this.regions.remove(root);
+        this.dirty.remove(root);
+        
+        // Unlink the whole region and link what remains back together
+        LongIterator iterator = members.iterator();
+        while (iterator.hasNext())
+            this.parents.remove(iterator.nextLong());
+        members.remove(chunk);
+        
+        // Re-insert the old root first so that it has the best chance of staying the root
+        if (members.remove(root))
+            this.insert(root);
+        iterator = members.iterator();
+        while (iterator.hasNext())
+            this.insert(iterator.nextLong());
+        
+        MapUtils.queue(this);
+    }
+    
+    private void insert(long chunk) {
+        LongSet members = new LongOpenHashSet();
+        members.add(chunk);
+        
+        this.parents.put(chunk, chunk);
+        this.regions.put(chunk, members);
+        
+        long root = chunk;
+        for (int direction = 0; direction < 4; direction++) {
+            long neighbor = ClaimTag.offset(chunk, ClaimRegions.OFFSET_X[direction], ClaimRegions.OFFSET_Z[direction]);
+            if (this.parents.containsKey(neighbor))
+                root = this.union(neighbor, root);
+        }
+        this.dirty.add(root);
+    }
+    private long find(long chunk) {
+        long root = chunk;
+        long parent;
+        while ((parent = this.parents.get(root)) != root)
+            root = parent;
+        
+        // Compress the path walked to the root
+        while (chunk != root) {
+            parent = this.parents.put(chunk, root);
+            chunk = parent;
+        }
+        return root;
+    }
+    private long union(long a, long b) {
+        long rootA = this.find(a),
+            rootB = this.find(b);
+        if (rootA == rootB)
+            return rootA;
+        
+        // Merge the smaller region into the larger, ties keep the first root
+        LongSet membersA = this.regions.get(rootA),
+            membersB = this.regions.get(rootB);
+        if (membersA.size() < membersB.size()) {
+            long root = rootA;
+            rootA = rootB;
+            rootB = root;
+            
+            LongSet members = membersA;
+            membersA = membersB;
+            membersB = members;
+        }
+        
+        this.parents.put(rootB, rootA);
+        membersA.addAll(membersB);
+        this.regions.remove(rootB);
+        this.dirty.remove(rootB);
+        this.dirty.add(rootA);
+        
+        return rootA;
+    }
+    
+    /**
+     * Trace the outline of every changed region and push them to the sink
+     * @param sink The sink to push to
+     * @return The number of regions pushed
+     */
+    public synchronized int drain(@NotNull ClaimMarkerSink sink) {
+        // Markers of regions that no longer exist or that are going to be redrawn
+        Long2LongMap stale = new Long2LongOpenHashMap();
+        ObjectIterator<Long2LongMap.Entry> iterator = this.drawn.long2LongEntrySet().iterator();
+        while (iterator.hasNext()) {
+            Long2LongMap.Entry entry = iterator.next();
+            long root = entry.getLongKey();
+            if (!this.regions.containsKey(root) || this.dirty.contains(root)) {
+                stale.put(entry.getLongValue(), root);
+                iterator.remove();
+            }
+        }
+        
+        int pushed = 0;
+        LongIterator roots = this.dirty.iterator();
+        while (roots.hasNext()) {
+            long root = roots.nextLong();
+            LongSet members = this.regions.get(root);
+            RegistryKey<World> world;
+            if (members == null || (world = ClaimTag.getDimension(root)) == null)
+                continue;
+            
+            long anchor = ClaimRegions.anchor(members);
+            sink.push(world, this.getMarkerId(world, anchor), this.label.get(), this.detail.get(), ClaimRegions.trace(members, anchor));
+            
+            this.drawn.put(root, anchor);
+            stale.remove(anchor);
+            pushed++;
+        }
+        this.dirty.clear();
+        
+        for (long anchor : stale.keySet()) {
+            RegistryKey<World> world = ClaimTag.getDimension(anchor);
+            if (world != null)
+                sink.remove(world, this.getMarkerId(world, anchor));
+        }
+        
+        return pushed;
+    }
+    
+    private @NotNull String getMarkerId(@NotNull RegistryKey<World> world, long anchor) {
+        return this.markerPrefix + "-" + world.getValue() + "-" + ClaimTag.getX(anchor) + "," + ClaimTag.getZ(anchor);
+    }
+    
+    /**
+     * @return The north-west most chunk of the region, which always has its north-west corner on the outer edge
+     */
+    private static long anchor(@NotNull LongSet members) {
+        LongIterator iterator = members.iterator();
+        long anchor = iterator.nextLong();
+        while (iterator.hasNext()) {
+            long chunk = iterator.nextLong();
+            int x = ClaimTag.getX(chunk),
+                anchorX = ClaimTag.getX(anchor);
+            if (x < anchorX || (x == anchorX && ClaimTag.getZ(chunk) < ClaimTag.getZ(anchor)))
+                anchor = chunk;
+        }
+        return anchor;
+    }
+    
+    /**
+     * Walk the outer edge of the region clockwise from the anchor, keeping only the corners
+     * Holes are skipped as BlueMap shapes can't have them
+     */
+    private static int @NotNull [] trace(@NotNull LongSet members, long anchor) {
+        // Chunk corner -> Bitmask of the directions of boundary edges that leave it
+        Long2IntOpenHashMap edges = new Long2IntOpenHashMap();
+        LongIterator iterator = members.iterator();
+        while (iterator.hasNext()) {
+            long chunk = iterator.nextLong();
+            int x = ClaimTag.getX(chunk),
+                z = ClaimTag.getZ(chunk);
+            
+            if (!members.contains(ClaimTag.offset(chunk, 0, -1)))
+                edges.addTo(ClaimRegions.corner(x, z), 1 << ClaimRegions.EAST);
+            if (!members.contains(ClaimTag.offset(chunk, 1, 0)))
+                edges.addTo(ClaimRegions.corner(x + 1, z), 1 << ClaimRegions.SOUTH);
+            if (!members.contains(ClaimTag.offset(chunk, 0, 1)))
+                edges.addTo(ClaimRegions.corner(x + 1, z + 1), 1 << ClaimRegions.WEST);
+            if (!members.contains(ClaimTag.offset(chunk, -1, 0)))
+                edges.addTo(ClaimRegions.corner(x, z + 1), 1 << ClaimRegions.NORTH);
+        }
+        
+        int startX = ClaimTag.getX(anchor),
+            startZ = ClaimTag.getZ(anchor);
+        int x = startX,
+            z = startZ,
+            direction = ClaimRegions.EAST;
+        
+        IntArrayList outline = new IntArrayList();
+        outline.add(x << 4);
+        outline.add(z << 4);
+        
+        while (true) {
+            long corner = ClaimRegions.corner(x, z);
+            edges.put(corner, edges.get(corner) & ~(1 << direction));
+            
+            x += ClaimRegions.OFFSET_X[direction];
+            z += ClaimRegions.OFFSET_Z[direction];
+            if (x == startX && z == startZ)
+                break;
+            
+            // Where two chunks only touch at a corner turn left, keeping the outside on our left instead of walking into a hole
+            int leaving = edges.get(ClaimRegions.corner(x, z));
+            int next = -1;
+            for (int turn : ClaimRegions.TURNS) {
+                int test = (direction + turn) & 3;
+                if ((leaving & (1 << test)) != 0) {
+                    next = test;
+                    break;
+                }
+            }
+            if (next < 0)
+                break;
+            
+            if (next != direction) {
+                outline.add(x << 4);
+                outline.add(z << 4);
+            }
+            direction = next;
+        }
+        
+        return outline.toIntArray();
+    }
+    private static long corner(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+    
+    /*
+     * Statistics
+     */
+    public synchronized int size() {
+        return this.regions.size();
+    }
+}
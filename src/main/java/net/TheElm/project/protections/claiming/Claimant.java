@@ -25,11 +25,16 @@
 
 package net.TheElm.project.protections.claiming;
 
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.longs.LongSets;
 import net.TheElm.project.CoreMod;
+import net.TheElm.project.config.SewConfig;
 import net.TheElm.project.enums.ClaimPermissions;
 import net.TheElm.project.enums.ClaimRanks;
 import net.TheElm.project.enums.ClaimSettings;
 import net.TheElm.project.objects.ClaimTag;
+import net.TheElm.project.utilities.ChunkUtils;
 import net.TheElm.project.utilities.DevUtils;
 import net.TheElm.project.utilities.nbt.NbtUtils;
 import net.minecraft.entity.player.PlayerEntity;
@@ -43,15 +48,15 @@ import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.LiteralText;
 import net.minecraft.text.MutableText;
 import net.minecraft.text.Text;
-import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.chunk.WorldChunk;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -63,9 +68,11 @@ public abstract class Claimant {
     protected final Map<UUID, ClaimRanks> USER_RANKS = Collections.synchronizedMap(new HashMap<>());
     protected final Map<ClaimSettings, Boolean> CHUNK_CLAIM_OPTIONS = Collections.synchronizedMap(new HashMap<>());
     protected final Map<ClaimPermissions, ClaimRanks> RANK_PERMISSIONS = Collections.synchronizedMap(new HashMap<>());
-    protected final Set<ClaimTag> CLAIMED_CHUNKS = Collections.synchronizedSet(new LinkedHashSet<>());
+    protected final LongSet CLAIMED_CHUNKS = LongSets.synchronize(new LongOpenHashSet());
     
-    private boolean dirty = false;
+    private final @NotNull ClaimRegions regions;
+    
+    private volatile boolean dirty = false;
     
     private final @NotNull ClaimantType type;
     private final @NotNull UUID id;
@@ -75,6 +82,7 @@ public abstract class Claimant {
     protected Claimant(@NotNull ClaimantType type, @NotNull UUID uuid) {
         this.type = type;
         this.id = uuid;
+        this.regions = new ClaimRegions("claim-" + uuid, this::getMapLabel, this::getMapDetail);
         
         // Save to the cache BEFORE loading (For synchronocity!)
         CoreMod.addToCache(this);
@@ -108,7 +116,10 @@ public abstract class Claimant {
                 changed = true;
             }
         }
-        if (changed) this.markDirty();
+        if (changed) {
+            this.markDirty();
+            ChunkUtils.claimsChanged();
+        }
         return changed;
     }
     public boolean updateFriend(@NotNull ServerPlayerEntity player, @Nullable ClaimRanks rank) {
@@ -122,10 +133,12 @@ public abstract class Claimant {
     public final void updateSetting(ClaimSettings setting, Boolean bool) {
         this.CHUNK_CLAIM_OPTIONS.put( setting, bool );
         this.markDirty();
+        ChunkUtils.claimsChanged();
     }
     public final void updatePermission(ClaimPermissions permission, ClaimRanks rank) {
         this.RANK_PERMISSIONS.put( permission, rank );
         this.markDirty();
+        ChunkUtils.claimsChanged();
     }
     
     /* Get the latest name */
@@ -150,61 +163,90 @@ public abstract class Claimant {
     }
     
     public final void addToCount(@NotNull WorldChunk... chunks) {
-        for (WorldChunk chunk : chunks)
-            this.CLAIMED_CHUNKS.add(ClaimTag.of(chunk));
+        for (WorldChunk chunk : chunks) {
+            long packed = ClaimTag.toLong(chunk);
+            this.CLAIMED_CHUNKS.add(packed);
+            this.regions.add(packed);
+        }
         this.markDirty();
     }
     public final void removeFromCount(@NotNull WorldChunk... chunks) {
-        for (WorldChunk chunk : chunks) {
-            ChunkPos pos = chunk.getPos();
-            this.CLAIMED_CHUNKS.removeIf((iteration) -> (
-                Objects.equals(
-                    iteration.getDimension(),
-                    chunk.getWorld().getRegistryKey()
-                )
-                && iteration.getX() == pos.x
-                && iteration.getZ() == pos.z
-            ));
-        }
+        for (WorldChunk chunk : chunks)
+            this.removeFromCount(ClaimTag.toLong(chunk));
+    }
+    public final void removeFromCount(long packed) {
+        this.CLAIMED_CHUNKS.remove(packed);
+        this.regions.remove(packed);
         this.markDirty();
     }
+    public final boolean hasChunk(@NotNull WorldChunk chunk) {
+        return this.CLAIMED_CHUNKS.contains(ClaimTag.toLong(chunk));
+    }
     
     public final int getCount() {
         return this.CLAIMED_CHUNKS.size();
     }
     public final void forEachChunk(Consumer<ClaimTag> action) {
-        for (ClaimTag it : new LinkedHashSet<>(this.CLAIMED_CHUNKS))
+        for (ClaimTag it : this.getChunks())
             action.accept(it);
     }
     public final @NotNull Collection<ClaimTag> getChunks() {
-        return this.CLAIMED_CHUNKS;
+        long[] chunks;
+        synchronized (this.CLAIMED_CHUNKS) {
+            chunks = this.CLAIMED_CHUNKS.toLongArray();
+        }
+        
+        List<ClaimTag> list = new ArrayList<>(chunks.length);
+        for (long chunk : chunks)
+            list.add(ClaimTag.fromLong(chunk));
+        return list;
+    }
+    public final @NotNull ClaimRegions getRegions() {
+        return this.regions;
+    }
+    private @NotNull String getMapLabel() {
+        if (Objects.equals(this.id, CoreMod.SPAWN_ID))
+            return SewConfig.get(SewConfig.NAME_SPAWN);
+        return this.getName().getString();
+    }
+    private @NotNull String getMapDetail() {
+        if (Objects.equals(this.id, CoreMod.SPAWN_ID))
+            return this.getMapLabel();
+        return this.getMapLabel() + "'s claimed area";
     }
     
     /* Nbt saving */
-    @Override
-    public final void finalize() {
-        // Save before trashing
-        this.save();
-    }
     public final void markDirty() {
         this.dirty = true;
+        ClaimantWriter.hold(this);
+    }
+    public final boolean isDirty() {
+        return this.dirty;
     }
     public final void save() {
         if (this.dirty) {
-            this.forceSave();
             this.dirty = false;
+            this.forceSave();
+            ClaimantWriter.release(this);
         }
     }
+    /**
+     * Snapshot the Claimant and queue it to be written to the disk
+     * @return If the snapshot was queued
+     */
     public boolean forceSave() {
         if (DevUtils.isDebugging()) CoreMod.logInfo( "Saving " + this.getType().name().toLowerCase() + " data for " + (CoreMod.SPAWN_ID.equals(this.getId()) ? "Spawn" : this.getId()) + "." );
-        boolean success = NbtUtils.writeClaimData( this );
-        if (!success) CoreMod.logInfo( "FAILED TO SAVE " + this.getType().name() + " DATA, " + (CoreMod.SPAWN_ID.equals(this.getId()) ? "Spawn" : this.getId()) + "." );
-        return success;
+        ClaimantWriter.queue(this, NbtUtils.writeClaimTag(this));
+        return true;
     }
     public void writeCustomDataToTag(@NotNull NbtCompound tag) {
         // Save our chunks
         NbtList chunkList = new NbtList();
-        chunkList.addAll(this.CLAIMED_CHUNKS);
+        for (ClaimTag claim : this.getChunks()) {
+            NbtCompound claimTag = claim.toNbt();
+            if (claimTag != null)
+                chunkList.add(claimTag);
+        }
         tag.put("landChunks", chunkList);
         
         // Save our list of friends
@@ -251,20 +293,8 @@ public abstract class Claimant {
             throw new RuntimeException("Invalid NBT data match");
         
         // Get the claim size
-        if (tag.contains("landChunks", NbtElement.LIST_TYPE)) {
-            ClaimTag claim;
-            
-            // Get from Int Array
-            for (NbtElement it : tag.getList("landChunks",NbtElement.INT_ARRAY_TYPE)) {
-                claim = ClaimTag.fromArray((NbtIntArray) it);
-                if (claim != null) this.CLAIMED_CHUNKS.add(claim);
-            }
-            // Get from Compound
-            for (NbtElement it : tag.getList("landChunks", NbtElement.COMPOUND_TYPE)) {
-                claim = ClaimTag.fromCompound((NbtCompound) it);
-                if (claim != null) this.CLAIMED_CHUNKS.add(claim);
-            }
-        }
+        for (ClaimTag claim : Claimant.readLandChunks(tag))
+            this.CLAIMED_CHUNKS.add(claim.toLong());
         
         // Read friends
         if (tag.contains(rankNbtTag(this), NbtElement.LIST_TYPE)) {
@@ -299,12 +329,34 @@ public abstract class Claimant {
             }
         }
         
-        // TODO: Use the zone and write to bluemap
-        /*new ChunkZone.Builder(this)
-            .add(this.CLAIMED_CHUNKS)
-            .build();*/
+        // Link the claimed chunks into regions for the map
+        synchronized (this.CLAIMED_CHUNKS) {
+            this.regions.addAll(this.CLAIMED_CHUNKS.toLongArray());
+        }
     }
     
+    /**
+     * @param tag The saved data of a Claimant
+     * @return The chunks that the Claimant had claimed
+     */
+    public static @NotNull List<ClaimTag> readLandChunks(@NotNull NbtCompound tag) {
+        List<ClaimTag> list = new ArrayList<>();
+        if (tag.contains("landChunks", NbtElement.LIST_TYPE)) {
+            ClaimTag claim;
+            
+            // Get from Int Array
+            for (NbtElement it : tag.getList("landChunks",NbtElement.INT_ARRAY_TYPE)) {
+                claim = ClaimTag.fromArray((NbtIntArray) it);
+                if (claim != null) list.add(claim);
+            }
+            // Get from Compound
+            for (NbtElement it : tag.getList("landChunks", NbtElement.COMPOUND_TYPE)) {
+                claim = ClaimTag.fromCompound((NbtCompound) it);
+                if (claim != null) list.add(claim);
+            }
+        }
+        return list;
+    }
     private static @NotNull String rankNbtTag(@Nullable Claimant claimant) {
         return (claimant instanceof ClaimantTown ? "members" : "friends");
     }
@@ -0,0 +1,207 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.TheElm.project.protections.claiming;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+import java.util.stream.Stream;
+
+/**
+ * A UUID keyed cache of Claimants
+ * Recently used Claimants are strongly held up to the capacity, the least recently used
+ *   are then evicted into a weak tier so that any Chunk still holding them keeps the same instance
+ */
+public final class ClaimantCache<T extends Claimant> {
+    
+    private final @NotNull Map<UUID, Node<T>> strong = new ConcurrentHashMap<>();
+    private final @NotNull Map<UUID, WeakNode<T>> weak = new ConcurrentHashMap<>();
+    private final @NotNull ReferenceQueue<T> queue = new ReferenceQueue<>();
+    private final @NotNull AtomicBoolean trimming = new AtomicBoolean(false);
+    
+    private final @NotNull IntSupplier capacity;
+    private final @NotNull Consumer<T> onEvict;
+    
+    private final @NotNull LongAdder hits = new LongAdder();
+    private final @NotNull LongAdder misses = new LongAdder();
+    private final @NotNull LongAdder evictions = new LongAdder();
+    
+    public ClaimantCache(@NotNull IntSupplier capacity, @NotNull Consumer<T> onEvict) {
+        this.capacity = capacity;
+        this.onEvict = onEvict;
+    }
+    
+    public @Nullable T get(@NotNull UUID uuid) {
+        Node<T> node = this.strong.get(uuid);
+        if (node != null) {
+            node.touch();
+            this.hits.increment();
+            return node.value;
+        }
+        
+        // Check if the claimant is still referenced somewhere else
+        WeakNode<T> reference = this.weak.get(uuid);
+        T value;
+        if (reference != null && (value = reference.get()) != null) {
+            this.hits.increment();
+            this.put(value);
+            return value;
+        }
+        
+        this.misses.increment();
+        return null;
+    }
+    
+    public void put(@NotNull T claimant) {
+        UUID uuid = claimant.getId();
+        this.strong.put(uuid, new Node<>(claimant));
+        this.weak.remove(uuid);
+        
+        this.trim();
+    }
+    
+    public @Nullable T remove(@NotNull UUID uuid) {
+        WeakNode<T> reference = this.weak.remove(uuid);
+        Node<T> node = this.strong.remove(uuid);
+        if (node != null)
+            return node.value;
+        return reference == null ? null : reference.get();
+    }
+    
+    /**
+     * @return All Claimants that are still in memory, strongly held or not
+     */
+    public @NotNull Stream<T> stream() {
+        Map<UUID, T> out = new LinkedHashMap<>();
+        for (Node<T> node : this.strong.values())
+            out.put(node.value.getId(), node.value);
+        for (WeakNode<T> reference : this.weak.values()) {
+            T value = reference.get();
+            if (value != null)
+                out.putIfAbsent(value.getId(), value);
+        }
+        return out.values().stream();
+    }
+    
+    /**
+     * Move the least recently used Claimants out of the strong tier once over capacity
+     */
+    private void trim() {
+        this.expunge();
+        
+        int capacity = Math.max(1, this.capacity.getAsInt());
+        if (this.strong.size() <= capacity || !this.trimming.compareAndSet(false, true))
+            return;
+        
+        try {
+            // Evict a little extra so that we aren't sorting on every single insert
+            int over = this.strong.size() - capacity + Math.max(1, capacity / 10);
+            
+            List<Node<T>> nodes = new ArrayList<>(this.strong.values());
+            nodes.sort(Comparator.comparingLong(Node::lastAccess));
+            
+            for (int i = 0; i < over && i < nodes.size(); i++) {
+                Node<T> node = nodes.get(i);
+                UUID uuid = node.value.getId();
+                
+                // Only evict if the node wasn't replaced while we were sorting
+                if (this.strong.remove(uuid, node)) {
+                    this.onEvict.accept(node.value);
+                    this.weak.put(uuid, new WeakNode<>(uuid, node.value, this.queue));
+                    this.evictions.increment();
+                }
+            }
+        } finally {
+            this.trimming.set(false);
+        }
+    }
+    
+    /**
+     * Remove any weak references that have been garbage collected
+     */
+    private void expunge() {
+        WeakNode<?> reference;
+        while ((reference = (WeakNode<?>) this.queue.poll()) != null)
+            this.weak.remove(reference.uuid, reference);
+    }
+    
+    /*
+     * Statistics
+     */
+    public int size() {
+        return this.strong.size();
+    }
+    public int weakSize() {
+        return this.weak.size();
+    }
+    public long getHits() {
+        return this.hits.sum();
+    }
+    public long getMisses() {
+        return this.misses.sum();
+    }
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
+    
+    private static final class Node<T> {
+        private final @NotNull T value;
+        private volatile long lastAccess;
+        
+        private Node(@NotNull T value) {
+            this.value = value;
+            this.touch();
+        }
+        
+        private void touch() {
+            this.lastAccess = System.nanoTime();
+        }
+        private long lastAccess() {
+            return this.lastAccess;
+        }
+    }
+    private static final class WeakNode<T> extends WeakReference<T> {
+        private final @NotNull UUID uuid;
+        
+        private WeakNode(@NotNull UUID uuid, @NotNull T value, @NotNull ReferenceQueue<? super T> queue) {
+            super(value, queue);
+            this.uuid = uuid;
+        }
+    }
+}
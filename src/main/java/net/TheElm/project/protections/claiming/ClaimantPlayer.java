@@ -32,8 +32,9 @@ import net.TheElm.project.config.SewConfig;
 import net.TheElm.project.enums.ClaimPermissions;
 import net.TheElm.project.enums.ClaimRanks;
 import net.TheElm.project.enums.ClaimSettings;
-import net.TheElm.project.objects.ClaimTag;
+import net.TheElm.project.utilities.ChunkUtils;
 import net.TheElm.project.utilities.FormattingUtils;
+import net.TheElm.project.utilities.PlayerIndex;
 import net.TheElm.project.utilities.PlayerNameUtils;
 import net.TheElm.project.utilities.nbt.NbtUtils;
 import net.minecraft.nbt.NbtCompound;
@@ -44,6 +45,7 @@ import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.MutableText;
 import net.minecraft.text.Text;
 import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.WorldChunk;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -84,6 +86,10 @@ public final class ClaimantPlayer extends Claimant {
     public final void setTown(@Nullable ClaimantTown town) {
         this.town = town;
         this.markDirty();
+        ChunkUtils.claimsChanged();
+        
+        // Move the player if they're online, so that town chat reaches them
+        PlayerIndex.updateTown(this.getId(), town == null ? null : town.getId());
     }
     public final boolean inviteTown(@NotNull ClaimantTown town) {
         if (this.town != null) return false;
@@ -146,7 +152,7 @@ public final class ClaimantPlayer extends Claimant {
     }
     public final boolean canClaim(Chunk chunk) {
         // If chunk is already claimed, allow
-        if (this.CLAIMED_CHUNKS.contains(ClaimTag.of(chunk)))
+        if (chunk instanceof WorldChunk worldChunk && this.hasChunk(worldChunk))
             return true;
         return (SewConfig.get(SewConfig.PLAYER_CLAIMS_LIMIT) != 0) && (((this.getCount() + 1) <= this.getMaxChunkLimit()) || (SewConfig.get(SewConfig.PLAYER_CLAIMS_LIMIT) <= 0));
     }
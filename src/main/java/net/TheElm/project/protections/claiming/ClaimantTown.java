@@ -29,8 +29,8 @@ import net.TheElm.project.CoreMod;
 import net.TheElm.project.ServerCore;
 import net.TheElm.project.config.SewConfig;
 import net.TheElm.project.enums.ClaimRanks;
-import net.TheElm.project.exceptions.NbtNotFoundException;
 import net.TheElm.project.interfaces.PlayerData;
+import net.TheElm.project.utilities.ChunkUtils;
 import net.TheElm.project.utilities.FormattingUtils;
 import net.TheElm.project.utilities.PlayerNameUtils;
 import net.TheElm.project.utilities.TownNameUtils;
@@ -85,6 +85,7 @@ public final class ClaimantTown extends Claimant {
         this.updateFriend( owner, ClaimRanks.OWNER );
         this.ownerId = owner;
         this.markDirty();
+        ChunkUtils.claimsChanged();
     }
     
     public final int getResidentCount() {
@@ -213,6 +214,8 @@ public final class ClaimantTown extends Claimant {
         
         // Remove from the cache (So it doesn't save again)
         CoreMod.removeFromCache(this);
+        TownDirectory.remove(this.getId());
+        ClaimantWriter.cancel(this);
         NbtUtils.delete(this);
         CoreMod.logInfo("Deleted town " + this.getName().getString() + " (" + this.getId() + ")");
     }
@@ -230,25 +233,23 @@ public final class ClaimantTown extends Claimant {
         if ((!SewConfig.get(SewConfig.DO_CLAIMS)) || (townId == null))
             return null;
         
-        try {
-            NbtUtils.assertExists(ClaimantType.TOWN, townId);
-            
-            // If contained in the cache
-            if ((town = CoreMod.getFromCache(ClaimantTown.class, townId)) != null)
-                return town;
-            
-            // Return the town object
-            return new ClaimantTown(townId);
-        } catch (NbtNotFoundException e) {
+        // If the town doesn't exist
+        if (!TownDirectory.exists(townId))
             return null;
-        }
+        
+        // If contained in the cache
+        if ((town = CoreMod.getFromCache(ClaimantTown.class, townId)) != null)
+            return town;
+        
+        // Return the town object
+        return new ClaimantTown(townId);
     }
     public static @NotNull ClaimantTown makeTown(@NotNull ServerPlayerEntity founder, @NotNull MutableText townName) {
         // Generate a random UUID
         UUID townUUID;
         do {
             townUUID = UUID.randomUUID();
-        } while (NbtUtils.exists(ClaimantType.TOWN, townUUID ));
+        } while (TownDirectory.exists(townUUID));
         return ClaimantTown.makeTown(townUUID, founder.getUuid(), townName );
     }
     public static @NotNull ClaimantTown makeTown(@NotNull UUID townUUID, @NotNull UUID founder, @NotNull MutableText townName) {
@@ -258,6 +259,7 @@ public final class ClaimantTown extends Claimant {
         // Save the town
         town.setOwner(founder);
         town.save();
+        TownDirectory.add(townUUID);
         
         // Return the town
         return town;
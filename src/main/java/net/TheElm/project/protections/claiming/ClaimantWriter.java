@@ -0,0 +1,252 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.TheElm.project.protections.claiming;
+
+import net.TheElm.project.CoreMod;
+import net.TheElm.project.utilities.nbt.NbtUtils;
+import net.minecraft.nbt.NbtCompound;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes Claimant data to the disk in the background
+ * Claimants are snapshotted on the thread that saves them, and any snapshot that is still
+ *   waiting to be written is replaced by a newer one of the same Claimant
+ */
+public final class ClaimantWriter {
+    
+    private static final @NotNull Object LOCK = new Object();
+    private static final @NotNull Map<String, Pending> PENDING = new LinkedHashMap<>();
+    private static @Nullable String writing = null;
+    private static @Nullable Thread thread = null;
+    
+    // Dirty Claimants are held here until saved, so that the weak tier of the cache can't collect them first
+    private static final @NotNull Set<Claimant> UNSAVED = ConcurrentHashMap.newKeySet();
+    
+    // Metrics
+    private static final @NotNull LongAdder QUEUED = new LongAdder();
+    private static final @NotNull LongAdder COALESCED = new LongAdder();
+    private static final @NotNull LongAdder WRITTEN = new LongAdder();
+    private static final @NotNull LongAdder FAILED = new LongAdder();
+    
+    private ClaimantWriter() {}
+    
+    /**
+     * Queue a snapshot of a Claimant to be written
+     * @param claimant The claimant being saved
+     * @param tag The snapshot of the claimants data
+     */
+    public static void queue(@NotNull Claimant claimant, @NotNull NbtCompound tag) {
+        synchronized (ClaimantWriter.LOCK) {
+            if (ClaimantWriter.PENDING.put(ClaimantWriter.key(claimant), new Pending(claimant, tag)) != null)
+                ClaimantWriter.COALESCED.increment();
+            ClaimantWriter.QUEUED.increment();
+            
+            // Start the writer if it isn't running
+            if (ClaimantWriter.thread == null || !ClaimantWriter.thread.isAlive()) {
+                ClaimantWriter.thread = new Thread(ClaimantWriter::run);
+                ClaimantWriter.thread.setName("Claim writer");
+                ClaimantWriter.thread.setDaemon(true);
+                ClaimantWriter.thread.start();
+            }
+            
+            ClaimantWriter.LOCK.notifyAll();
+        }
+    }
+    
+    /**
+     * Keep a Claimant in memory until it is next saved
+     * @param claimant The claimant that has unsaved changes
+     */
+    public static void hold(@NotNull Claimant claimant) {
+        ClaimantWriter.UNSAVED.add(claimant);
+    }
+    
+    /**
+     * Stop holding a Claimant that was just saved, unless it was changed again while saving
+     * @param claimant The claimant that was saved
+     */
+    public static void release(@NotNull Claimant claimant) {
+        ClaimantWriter.UNSAVED.remove(claimant);
+        if (claimant.isDirty())
+            ClaimantWriter.UNSAVED.add(claimant);
+    }
+    
+    /**
+     * Drop any snapshot that hasn't been written yet, and wait for one being written to finish
+     * @param claimant The claimant that is being deleted
+     */
+    public static void cancel(@NotNull Claimant claimant) {
+        String key = ClaimantWriter.key(claimant);
+        ClaimantWriter.UNSAVED.remove(claimant);
+        synchronized (ClaimantWriter.LOCK) {
+            ClaimantWriter.PENDING.remove(key);
+            
+            try {
+                while (key.equals(ClaimantWriter.writing))
+                    ClaimantWriter.LOCK.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    /**
+     * Write everything that is queued on the calling thread, and wait for the writer to finish
+     */
+    public static void flush() {
+        Pending next;
+        while ((next = ClaimantWriter.poll()) != null)
+            ClaimantWriter.write(next);
+        
+        synchronized (ClaimantWriter.LOCK) {
+            try {
+                while (ClaimantWriter.writing != null)
+                    ClaimantWriter.LOCK.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    /**
+     * Write everything that is left and stop the writer
+     */
+    public static void stop() {
+        ClaimantWriter.flush();
+        synchronized (ClaimantWriter.LOCK) {
+            if (ClaimantWriter.thread != null) {
+                ClaimantWriter.thread.interrupt();
+                ClaimantWriter.thread = null;
+            }
+        }
+    }
+    
+    private static void run() {
+        try {
+            while (true) {
+                Pending next;
+                synchronized (ClaimantWriter.LOCK) {
+                    while (ClaimantWriter.PENDING.isEmpty())
+                        ClaimantWriter.LOCK.wait();
+                }
+                
+                while ((next = ClaimantWriter.poll()) != null)
+                    ClaimantWriter.write(next);
+            }
+        } catch (InterruptedException ignored) {}
+    }
+    
+    /**
+     * @return The oldest snapshot in the queue, marked as being written
+     */
+    private static @Nullable Pending poll() {
+        synchronized (ClaimantWriter.LOCK) {
+            // Only one snapshot is written at a time so that writes of the same file are kept in order
+            try {
+                while (ClaimantWriter.writing != null)
+                    ClaimantWriter.LOCK.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            
+            Iterator<Map.Entry<String, Pending>> iterator = ClaimantWriter.PENDING.entrySet().iterator();
+            if (!iterator.hasNext())
+                return null;
+            
+            Map.Entry<String, Pending> entry = iterator.next();
+            iterator.remove();
+            
+            ClaimantWriter.writing = entry.getKey();
+            return entry.getValue();
+        }
+    }
+    private static void write(@NotNull Pending pending) {
+        Claimant claimant = pending.claimant;
+        try {
+            if (NbtUtils.writeClaimData(claimant.getType(), claimant.getId(), pending.tag))
+                ClaimantWriter.WRITTEN.increment();
+            else {
+                ClaimantWriter.FAILED.increment();
+                CoreMod.logInfo( "FAILED TO SAVE " + claimant.getType().name() + " DATA, " + (CoreMod.SPAWN_ID.equals(claimant.getId()) ? "Spawn" : claimant.getId()) + "." );
+                
+                // Try again on the next save
+                claimant.markDirty();
+            }
+        } finally {
+            synchronized (ClaimantWriter.LOCK) {
+                ClaimantWriter.writing = null;
+                ClaimantWriter.LOCK.notifyAll();
+            }
+        }
+    }
+    
+    private static @NotNull String key(@NotNull Claimant claimant) {
+        return claimant.getType().name() + "_" + claimant.getId();
+    }
+    
+    /*
+     * Statistics
+     */
+    public static int getQueueDepth() {
+        synchronized (ClaimantWriter.LOCK) {
+            return ClaimantWriter.PENDING.size();
+        }
+    }
+    public static long getQueued() {
+        return ClaimantWriter.QUEUED.sum();
+    }
+    public static long getCoalesced() {
+        return ClaimantWriter.COALESCED.sum();
+    }
+    public static long getWritten() {
+        return ClaimantWriter.WRITTEN.sum();
+    }
+    public static long getFailed() {
+        return ClaimantWriter.FAILED.sum();
+    }
+    public static int getUnsaved() {
+        return ClaimantWriter.UNSAVED.size();
+    }
+    
+    private static final class Pending {
+        private final @NotNull Claimant claimant;
+        private final @NotNull NbtCompound tag;
+        
+        private Pending(@NotNull Claimant claimant, @NotNull NbtCompound tag) {
+            this.claimant = claimant;
+            this.tag = tag;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.TheElm.project.protections.claiming;
+
+import it.unimi.dsi.fastutil.longs.Long2ByteMap;
+import it.unimi.dsi.fastutil.longs.Long2ByteOpenHashMap;
+import net.TheElm.project.enums.ClaimPermissions;
+import net.TheElm.project.interfaces.IClaimedChunk;
+import net.TheElm.project.utilities.ChunkUtils;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.WorldChunk;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * Remembers whether the owner of one chunk can modify a neighboring chunk, for blocks (Hoppers, Pistons, Fluids)
+ *   that check the same pair of chunks over and over every tick
+ * Everything is forgotten as soon as any claim, friend rank, permission or setting changes
+ */
+public final class ProtectionCache {
+    
+    private static final int MAX_SIZE = 65536;
+    
+    private static final byte UNKNOWN = -1;
+    private static final byte DENIED = 0;
+    private static final byte ALLOWED = 1;
+    private static final byte UNCACHEABLE = 2;
+    
+    private final @NotNull Long2ByteMap decisions = new Long2ByteOpenHashMap();
+    private int version = -1;
+    
+    private long hits = 0;
+    private long misses = 0;
+    
+    public ProtectionCache() {
+        this.decisions.defaultReturnValue(ProtectionCache.UNKNOWN);
+    }
+    
+    /**
+     * Check if the owner at the source position can modify the protected position
+     * @param world The world that both positions are in
+     * @param protectedPos The position being modified
+     * @param sourcePos The position doing the modifying
+     * @param permission The permission required
+     * @return If the modification is allowed
+     */
+    public boolean canModify(@NotNull World world, @NotNull BlockPos protectedPos, @NotNull BlockPos sourcePos, @Nullable ClaimPermissions permission) {
+        int version = ChunkUtils.getClaimsVersion();
+        if (version != this.version || this.decisions.size() >= ProtectionCache.MAX_SIZE) {
+            this.decisions.clear();
+            this.version = version;
+        }
+        
+        int sourceX = sourcePos.getX() >> 4;
+        int sourceZ = sourcePos.getZ() >> 4;
+        int offsetX = (protectedPos.getX() >> 4) - sourceX;
+        int offsetZ = (protectedPos.getZ() >> 4) - sourceZ;
+        
+        // Only neighboring chunks are remembered
+        if (offsetX < -1 || offsetX > 1 || offsetZ < -1 || offsetZ > 1)
+            return ProtectionCache.check(world, protectedPos, sourcePos, permission);
+        
+        long key = ProtectionCache.toKey(sourceX, sourceZ, offsetX, offsetZ, permission);
+        byte decision = this.decisions.get(key);
+        if (decision == ProtectionCache.ALLOWED || decision == ProtectionCache.DENIED) {
+            this.hits++;
+            return decision == ProtectionCache.ALLOWED;
+        }
+        this.misses++;
+        
+        // Chunks with slices have different owners at different positions
+        if (decision == ProtectionCache.UNCACHEABLE)
+            return ProtectionCache.check(world, protectedPos, sourcePos, permission);
+        
+        WorldChunk protectedChunk = ChunkUtils.getLoadedChunk(world, protectedPos);
+        WorldChunk sourceChunk = ChunkUtils.getLoadedChunk(world, sourcePos);
+        
+        // Unloaded chunks are answered by the claim index, which can change when the chunk loads
+        if (protectedChunk == null || sourceChunk == null)
+            return ProtectionCache.check(world, protectedPos, sourcePos, permission);
+        
+        boolean allowed = ProtectionCache.check(protectedChunk, sourceChunk, protectedPos, sourcePos, permission);
+        
+        if (((IClaimedChunk) protectedChunk).hasSlices() || ((IClaimedChunk) sourceChunk).hasSlices())
+            this.decisions.put(key, ProtectionCache.UNCACHEABLE);
+        else this.decisions.put(key, allowed ? ProtectionCache.ALLOWED : ProtectionCache.DENIED);
+        
+        return allowed;
+    }
+    
+    public static boolean check(@NotNull World world, @NotNull BlockPos protectedPos, @NotNull BlockPos sourcePos, @Nullable ClaimPermissions permission) {
+        WorldChunk protectedChunk = ChunkUtils.getLoadedChunk(world, protectedPos);
+        WorldChunk sourceChunk = ChunkUtils.getLoadedChunk(world, sourcePos);
+        if (protectedChunk != null && sourceChunk != null)
+            return ProtectionCache.check(protectedChunk, sourceChunk, protectedPos, sourcePos, permission);
+        
+        // Get the owner of the source without loading the chunk
+        UUID source;
+        if (sourceChunk != null)
+            source = ((IClaimedChunk) sourceChunk).getOwner(sourcePos);
+        else {
+            ClaimIndex.Entry entry = ChunkUtils.getClaimIndex(world)
+                .get(ChunkPos.toLong(sourcePos.getX() >> 4, sourcePos.getZ() >> 4));
+            source = entry == null ? null : entry.getOwner();
+        }
+        
+        return ChunkUtils.canPlayerDoInChunk(permission, source, world, protectedPos);
+    }
+    private static boolean check(@NotNull WorldChunk protectedChunk, @NotNull WorldChunk sourceChunk, @NotNull BlockPos protectedPos, @NotNull BlockPos sourcePos, @Nullable ClaimPermissions permission) {
+        // Check that first chunk owner can modify the next chunk
+        return ((IClaimedChunk) protectedChunk).canPlayerDo(protectedPos, ((IClaimedChunk) sourceChunk).getOwner(sourcePos), permission);
+    }
+    
+    private static long toKey(int chunkX, int chunkZ, int offsetX, int offsetZ, @Nullable ClaimPermissions permission) {
+        // 22 bits is enough for every chunk within the world border
+        return ((long) chunkX & 0x3FFFFFL)
+            | (((long) chunkZ & 0x3FFFFFL) << 22)
+            | ((long) ((offsetX + 1) * 3 + (offsetZ + 1)) << 44)
+            | ((long) (permission == null ? 0 : permission.ordinal() + 1) << 48);
+    }
+    
+    /*
+     * Statistics
+     */
+    public int size() {
+        return this.decisions.size();
+    }
+    public long getHits() {
+        return this.hits;
+    }
+    public long getMisses() {
+        return this.misses;
+    }
+}
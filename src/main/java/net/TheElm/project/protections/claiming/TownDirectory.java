@@ -0,0 +1,109 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.TheElm.project.protections.claiming;
+
+import net.TheElm.project.CoreMod;
+import net.TheElm.project.utilities.nbt.NbtUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An in-memory listing of every town that has a save file
+ * Loaded once when the world loads so that town lookups don't have to check the disk
+ */
+public final class TownDirectory {
+    
+    private static final @NotNull String PREFIX = Claimant.ClaimantType.TOWN.name().toLowerCase() + "_";
+    private static final @NotNull String SUFFIX = ".dat";
+    
+    private static final @NotNull Set<UUID> TOWNS = ConcurrentHashMap.newKeySet();
+    private static volatile boolean loaded = false;
+    
+    private TownDirectory() {}
+    
+    /**
+     * Read all of the town files from the save folder
+     */
+    public static void load() {
+        synchronized (TownDirectory.TOWNS) {
+            TownDirectory.TOWNS.clear();
+            
+            File folder = new File(NbtUtils.levelNameFolder().toFile(), CoreMod.MOD_ID);
+            File[] files = folder.listFiles((dir, name) -> name.startsWith(TownDirectory.PREFIX) && name.endsWith(TownDirectory.SUFFIX));
+            if (files != null) {
+                for (File file : files) {
+                    UUID uuid = TownDirectory.fromFileName(file.getName());
+                    if (uuid != null)
+                        TownDirectory.TOWNS.add(uuid);
+                }
+            }
+            
+            TownDirectory.loaded = true;
+        }
+        CoreMod.logDebug("Found " + TownDirectory.TOWNS.size() + " towns in the save folder.");
+    }
+    private static void assertLoaded() {
+        if (!TownDirectory.loaded) {
+            synchronized (TownDirectory.TOWNS) {
+                if (!TownDirectory.loaded)
+                    TownDirectory.load();
+            }
+        }
+    }
+    
+    public static boolean exists(@Nullable UUID town) {
+        if (town == null)
+            return false;
+        TownDirectory.assertLoaded();
+        return TownDirectory.TOWNS.contains(town);
+    }
+    public static void add(@NotNull UUID town) {
+        TownDirectory.assertLoaded();
+        TownDirectory.TOWNS.add(town);
+    }
+    public static void remove(@NotNull UUID town) {
+        TownDirectory.assertLoaded();
+        TownDirectory.TOWNS.remove(town);
+    }
+    public static @NotNull Set<UUID> getTowns() {
+        TownDirectory.assertLoaded();
+        return Collections.unmodifiableSet(TownDirectory.TOWNS);
+    }
+    
+    private static @Nullable UUID fromFileName(@NotNull String name) {
+        try {
+            return UUID.fromString(name.substring(TownDirectory.PREFIX.length(), name.length() - TownDirectory.SUFFIX.length()));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -25,6 +25,8 @@
 
 package net.TheElm.project.protections.events;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.TheElm.project.CoreMod;
 import net.TheElm.project.config.SewConfig;
 import net.TheElm.project.enums.ClaimSettings;
@@ -59,17 +61,26 @@ import net.minecraft.util.ActionResult;
 import net.minecraft.util.Hand;
 import net.minecraft.util.ItemScatterer;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.Direction;
 import net.minecraft.world.chunk.WorldChunk;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 public final class BlockBreak {
     
+    private static final LongAdder EXPLOSION_BLOCKS = new LongAdder();
+    private static final LongAdder EXPLOSION_DECISIONS = new LongAdder();
+    
     private BlockBreak() {}
     
     /**
@@ -255,6 +266,70 @@ public final class BlockBreak {
         return ActionResult.PASS;
     }
     
+    /**
+     * Remove any blocks from an explosion that the entity isn't allowed to break
+     * Blocks are grouped by the claim (Or claim slice) that they're in, and each group is only checked once
+     * @param entity The entity that caused the explosion
+     * @param world The world that the explosion is in
+     * @param positions The blocks affected by the explosion
+     */
+    public static void filterExplosion(@Nullable final Entity entity, @NotNull final ServerWorld world, @NotNull final List<BlockPos> positions) {
+        // Players are checked block-by-block because crops are treated differently
+        Entity source = entity;
+        while (source instanceof ExplosiveProjectileEntity projectile)
+            source = projectile.getOwner();
+        final boolean perBlock = source instanceof ServerPlayerEntity;
+        
+        int before = positions.size();
+        int decisions;
+        if (perBlock) {
+            positions.removeIf(blockPos -> !world.getBlockState(blockPos).isAir() && BlockBreak.explosionGroup(entity, world, blockPos) == ActionResult.FAIL);
+            decisions = before;
+        } else {
+            final Long2ObjectMap<WorldChunk> chunks = new Long2ObjectOpenHashMap<>();
+            decisions = BlockBreak.filterGrouped(
+                positions,
+                blockPos -> world.getBlockState(blockPos).isAir(),
+                blockPos -> {
+                    long chunkPos = ChunkPos.toLong(blockPos.getX() >> 4, blockPos.getZ() >> 4);
+                    WorldChunk chunk = chunks.computeIfAbsent(chunkPos, key -> ChunkUtils.getLoadedChunk(world, blockPos));
+                    
+                    // Unloaded chunks are answered by the claim index at the chunk level
+                    return chunk == null ? chunkPos : ((IClaimedChunk) chunk).getClaim(blockPos);
+                },
+                blockPos -> BlockBreak.explosionGroup(entity, world, blockPos)
+            );
+        }
+        
+        BlockBreak.EXPLOSION_BLOCKS.add(before);
+        BlockBreak.EXPLOSION_DECISIONS.add(decisions);
+    }
+    
+    /**
+     * Remove the blocks that are denied, only deciding once for each group of blocks
+     * @param positions The blocks to filter
+     * @param ignore Blocks that are kept without being checked
+     * @param group The group that a block belongs to (A claim, or a chunk position)
+     * @param decide Decide if the group of a block can be broken
+     * @return The number of decisions that were made
+     */
+    public static int filterGrouped(@NotNull final List<BlockPos> positions, @NotNull final Predicate<BlockPos> ignore, @NotNull final Function<BlockPos, Object> group, @NotNull final Function<BlockPos, ActionResult> decide) {
+        final Map<Object, ActionResult> groups = new HashMap<>();
+        positions.removeIf(blockPos -> !ignore.test(blockPos)
+            && groups.computeIfAbsent(group.apply(blockPos), key -> decide.apply(blockPos)) == ActionResult.FAIL);
+        return groups.size();
+    }
+    private static @NotNull ActionResult explosionGroup(@Nullable final Entity entity, @NotNull final ServerWorld world, @NotNull final BlockPos blockPos) {
+        return BlockBreakCallback.EVENT.invoker().interact(entity, world, Hand.MAIN_HAND, blockPos, null, null);
+    }
+    
+    public static long getExplosionBlocks() {
+        return BlockBreak.EXPLOSION_BLOCKS.sum();
+    }
+    public static long getExplosionDecisions() {
+        return BlockBreak.EXPLOSION_DECISIONS.sum();
+    }
+    
     /**
      * When a block is successfully run, perform actions based on the block
      * @param entity The entity responsible for breaking the block
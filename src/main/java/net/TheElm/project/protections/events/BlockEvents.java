@@ -27,6 +27,8 @@ package net.TheElm.project.protections.events;
 
 import net.TheElm.project.CoreMod;
 import net.TheElm.project.enums.ClaimSettings;
+import net.TheElm.project.interfaces.LogicalWorld;
+import net.TheElm.project.objects.ticking.ChainBreaker;
 import net.TheElm.project.utilities.ChunkUtils;
 import net.TheElm.project.utilities.CropUtils;
 import net.minecraft.block.Block;
@@ -41,10 +43,6 @@ import net.minecraft.util.math.Direction;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
-
 public class BlockEvents {
     private BlockEvents() {}
     
@@ -52,10 +50,16 @@ public class BlockEvents {
      * Tree Capacitator
      */
     public static ActionResult eventTreeCapacitator(@NotNull final ServerPlayerEntity player, @NotNull final ServerWorld world, @NotNull final Hand hand, @NotNull final BlockPos blockPos, @Nullable final Direction blockFace) {
-        if (!(ChunkUtils.isSetting(ClaimSettings.TREE_CAPACITATE, world, blockPos) && CropUtils.isTree(world.getBlockState(blockPos)) && player.isSneaking()))
+        BlockState blockState = world.getBlockState( blockPos );
+        if (!(ChunkUtils.isSetting(ClaimSettings.TREE_CAPACITATE, world, blockPos) && CropUtils.isTree(blockState) && player.isSneaking()))
             return ActionResult.PASS;
         
-        CoreMod.logInfo("Broke a tree block.");
+        // Only fell logs of the same type (Don't take down a neighbors house)
+        Block block = blockState.getBlock();
+        ChainBreaker tree = new ChainBreaker(player, world, hand, blockPos, blockFace, state -> state.isOf(block), ChainBreaker.BRANCHES);
+        CoreMod.logDebug("Broke a tree block, got " + tree.size() + " others");
+        if (tree.size() > 0)
+            ((LogicalWorld) world).addTickableEvent(tree);
         
         return ActionResult.SUCCESS;
     }
@@ -70,52 +74,11 @@ public class BlockEvents {
         if (!(ChunkUtils.isSetting(ClaimSettings.VEIN_MINER, world, blockPos) && block instanceof OreBlock && player.isSneaking()))
             return ActionResult.PASS;
         
-        Set<BlockPos> ores = BlockEvents.gatherOreVein(block, world, blockPos);
-        CoreMod.logInfo("Broke an ore block, got " + ores.size() + " others");
-        for (BlockPos pos : ores) {
-            if (BlockBreak.canBlockBreak(player, world, hand, pos, blockFace, null ) != ActionResult.FAIL)
-                world.breakBlock( pos, true, player );
-        }
+        ChainBreaker vein = new ChainBreaker(player, world, hand, blockPos, blockFace, state -> state.isOf(block), ChainBreaker.FACES);
+        CoreMod.logDebug("Broke an ore block, got " + vein.size() + " others");
+        if (vein.size() > 0)
+            ((LogicalWorld) world).addTickableEvent(vein);
         
         return ActionResult.SUCCESS;
     }
-    private static Set<BlockPos> gatherOreVein(@NotNull final Block block, @NotNull final ServerWorld world, @NotNull final BlockPos originPos) {
-        Set<BlockPos> set = new HashSet<>();
-        
-        // Get all of the adjacent ores
-        BlockEvents.gatherOreVein(block, world, originPos, set);
-        
-        return set;
-    }
-    private static void gatherOreVein(@NotNull final Block block, @NotNull final ServerWorld world, @NotNull final BlockPos originPos, @NotNull Set<BlockPos> set, Direction... directions) {
-        // For all possible directions
-        for (Direction direction : Direction.values()) {
-            Set<Direction> directionSet = new HashSet<>(Arrays.asList( directions ));
-            if (directionSet.contains( direction ))
-                continue;
-            
-            BlockPos searchPos = originPos.offset( direction );
-            BlockState state = world.getBlockState( searchPos );
-            
-            // If ore type is equal
-            if (state.getBlock().equals( block )) {
-                boolean added = true;
-                
-                // Add the currently location to the list
-                added = set.add( searchPos );
-                
-                // Get more adjacent ore
-                directionSet.add( direction.getOpposite() );
-                
-                // If position was added to the set (Not already in the set)
-                if ( added ) BlockEvents.gatherOreVein(
-                    block,
-                    world,
-                    searchPos,
-                    set,
-                    directionSet.toArray(new Direction[0])
-                );
-            }
-        }
-    }
 }
@@ -0,0 +1,117 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.TheElm.project.protections.logging;
+
+import net.TheElm.project.protections.logging.EventLogger.BlockAction;
+import net.TheElm.project.utilities.nbt.NbtUtils;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.passive.TameableEntity;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * A BlockEvent reduced to the values that are written to the database
+ * Doesn't hold onto any Entity or World, so it can sit in the queue (Or on disk) safely
+ */
+final class BlockRecord {
+    
+    private static final char SEPARATOR = '\t';
+    
+    final @NotNull String world;
+    final int x;
+    final int y;
+    final int z;
+    final @NotNull String block;
+    final @NotNull UUID responsible;
+    final @NotNull BlockAction action;
+    final long time;
+    
+    private BlockRecord(@NotNull String world, int x, int y, int z, @NotNull String block, @NotNull UUID responsible, @NotNull BlockAction action, long time) {
+        this.world = world;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.block = block;
+        this.responsible = responsible;
+        this.action = action;
+        this.time = time;
+    }
+    
+    static @Nullable BlockRecord of(@NotNull BlockEvent event) {
+        World world = event.getWorld();
+        Entity source = event.getSource();
+        if (world == null)
+            return null;
+        
+        UUID responsible = source instanceof PlayerEntity ? source.getUuid() : (source instanceof TameableEntity tameable ? tameable.getOwnerUuid() : null);
+        if (responsible == null)
+            return null;
+        
+        BlockPos blockPos = event.getPosition();
+        return new BlockRecord(
+            NbtUtils.worldToTag(world),
+            blockPos.getX(),
+            blockPos.getY(),
+            blockPos.getZ(),
+            event.getBlock().getTranslationKey(),
+            responsible,
+            event.getAction(),
+            System.currentTimeMillis()
+        );
+    }
+    
+    /*
+     * Spill file lines
+     */
+    @NotNull String toLine() {
+        return this.world + SEPARATOR + this.x + SEPARATOR + this.y + SEPARATOR + this.z + SEPARATOR + this.block + SEPARATOR + this.responsible + SEPARATOR + this.action.name() + SEPARATOR + this.time;
+    }
+    static @Nullable BlockRecord fromLine(@NotNull String line) {
+        String[] split = line.split(String.valueOf(SEPARATOR));
+        // Lines spilled before the time was recorded have one less value
+        if (split.length != 7 && split.length != 8)
+            return null;
+        try {
+            return new BlockRecord(
+                split[0],
+                Integer.parseInt(split[1]),
+                Integer.parseInt(split[2]),
+                Integer.parseInt(split[3]),
+                split[4],
+                UUID.fromString(split[5]),
+                BlockAction.valueOf(split[6]),
+                split.length == 8 ? Long.parseLong(split[7]) : System.currentTimeMillis()
+            );
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
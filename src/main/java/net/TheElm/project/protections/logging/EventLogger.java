@@ -28,27 +28,48 @@ package net.TheElm.project.protections.logging;
 import net.TheElm.project.CoreMod;
 import net.TheElm.project.MySQL.MySQLStatement;
 import net.TheElm.project.config.SewConfig;
-import net.TheElm.project.utilities.nbt.NbtUtils;
-import net.minecraft.entity.Entity;
-import net.minecraft.entity.passive.TameableEntity;
-import net.minecraft.entity.player.PlayerEntity;
-import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.registry.RegistryKey;
-import net.minecraft.world.World;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
-import java.util.UUID;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 public final class EventLogger implements Runnable {
     
+    private static final String INSERT = "INSERT INTO `logging_Blocks` ( `blockWorld`, `blockX`, `blockY`, `blockZ`, `block`, `updatedBy`, `updatedEvent`, `updatedAt` ) VALUES ( ?, ?, ?, ?, ?, ?, ?, ? );";
     private static final EventLogger INSTANCE = new EventLogger();
-    private static final LinkedBlockingDeque<LoggableEvent> actionLog = new LinkedBlockingDeque<>();
     
     private final Thread thread;
+    private volatile BlockingQueue<BlockRecord> actionLog = null;
+    
+    // Overflow to disk
+    private final Object spillLock = new Object();
+    private BufferedWriter spillWriter = null;
+    private volatile int spillPending = 0;
+    
+    // Metrics
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder inserted = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder insertNanos = new LongAdder();
+    private volatile long lastInsertNanos = 0;
     
     private EventLogger() {
         this.thread = new Thread(this);
@@ -58,20 +79,28 @@ public final class EventLogger implements Runnable {
     @Override
     public void run() {
         CoreMod.logInfo("Starting logger");
+        List<BlockRecord> batch = new ArrayList<>();
+        
+        // Write anything that was left on the disk from the last run
+        this.drainSpill();
+        
         while (true) {
             try {
-                this.wrapper();
+                this.wrapper(batch);
             } catch (InterruptedException e) {
                 
                 CoreMod.logInfo("Cleaning up backlog");
                 
                 // Log the remaining values and exit
-                actionLog.forEach(this::saveToDatabase);
+                this.actionLog.drainTo(batch);
+                this.saveToDatabase(batch);
+                this.drainSpill();
                 break;
                 
             } catch (Exception e) {
                 // Log and continue (Thread should not die)
                 CoreMod.logError( e );
+                batch.clear();
             }
         }
         
@@ -79,73 +108,256 @@ public final class EventLogger implements Runnable {
     }
     
     @SuppressWarnings("InfiniteLoopStatement")
-    private void wrapper() throws InterruptedException {
-        while ( true ) this.saveToDatabase(actionLog.takeFirst());
+    private void wrapper(@NotNull List<BlockRecord> batch) throws InterruptedException {
+        while ( true ) {
+            final int size = Math.max(1, SewConfig.get(SewConfig.LOG_BATCH_SIZE));
+            final long interval = TimeUnit.MILLISECONDS.toNanos(Math.max(1, SewConfig.get(SewConfig.LOG_BATCH_INTERVAL)));
+            
+            // Wait for the first event
+            BlockRecord first = this.actionLog.poll(interval, TimeUnit.NANOSECONDS);
+            if (first != null) {
+                batch.add(first);
+                
+                // Keep collecting until the batch is full or the flush interval has passed
+                long deadline = System.nanoTime() + interval;
+                while (batch.size() < size) {
+                    if (this.actionLog.drainTo(batch, size - batch.size()) > 0)
+                        continue;
+                    
+                    long remaining = deadline - System.nanoTime();
+                    BlockRecord next;
+                    if (remaining <= 0 || (next = this.actionLog.poll(remaining, TimeUnit.NANOSECONDS)) == null)
+                        break;
+                    batch.add(next);
+                }
+                
+                this.saveToDatabase(batch);
+            }
+            
+            // Once the queue has calmed down, write anything that overflowed to the disk
+            if (this.spillPending > 0 && this.actionLog.size() < this.actionLog.remainingCapacity())
+                this.drainSpill();
+        }
     }
     
     /*
      * Logging Handlers for different tables
      */
-    private boolean saveToDatabase(BlockEvent event) {
-        // Get the event information
-        World world = event.getWorld();
-        Entity source = event.getSource();
-        BlockPos blockPos = event.getPosition();
-        String translationKey = event.getBlock().getTranslationKey();
-        BlockAction action = event.getAction();
-        
-        // Get the dimension
-        RegistryKey<World> dimension = world.getRegistryKey();
-        
-        UUID responsible = source instanceof PlayerEntity ? source.getUuid() : ( source instanceof TameableEntity ? ((TameableEntity)source).getOwnerUuid() : null);
-        if (responsible == null)
-            return false;
+    private boolean saveToDatabase(@NotNull List<BlockRecord> batch) {
+        if (batch.isEmpty())
+            return true;
         
-        // Save the change
-        try (MySQLStatement stmt = CoreMod.getSQL().prepare("INSERT INTO `logging_Blocks` ( `blockWorld`, `blockX`, `blockY`, `blockZ`, `block`, `updatedBy`, `updatedEvent`, `updatedAt` ) VALUES ( ?, ?, ?, ?, ?, ?, ?, NOW() );")
-            .addPrepared(NbtUtils.worldToTag(dimension))
-            .addPrepared(blockPos.getX())
-            .addPrepared(blockPos.getY())
-            .addPrepared(blockPos.getZ())
-            .addPrepared(translationKey)
-            .addPrepared(responsible)
-            .addPrepared(action)) {
+        long start = System.nanoTime();
+        
+        // Save the changes
+        try (MySQLStatement stmt = CoreMod.getSQL().prepare(EventLogger.INSERT, true)) {
+            for (BlockRecord record : batch) {
+                stmt.addPrepared(record.world)
+                    .addPrepared(record.x)
+                    .addPrepared(record.y)
+                    .addPrepared(record.z)
+                    .addPrepared(record.block)
+                    .addPrepared(record.responsible)
+                    .addPrepared(record.action)
+                    .addPrepared(new Timestamp(record.time))
+                    .addBatch();
+            }
             
-            stmt.executeUpdate();
+            stmt.executeBatch();
             
+            this.inserted.add(batch.size());
             return true;
         } catch (SQLException e) {
             CoreMod.logError(e);
-            
             return false;
+        } finally {
+            long time = System.nanoTime() - start;
+            this.lastInsertNanos = time;
+            this.insertNanos.add(time);
+            this.batches.increment();
+            batch.clear();
         }
     }
-    private boolean saveToDatabase(TransferEvent event) {
-        System.out.println("Logging transfer!");
-        return true;
-    }
-    private boolean saveToDatabase(LoggableEvent event) {
-        if (event instanceof BlockEvent blockEvent) return saveToDatabase(blockEvent);
-        if (event instanceof TransferEvent transferEvent) return saveToDatabase(transferEvent);
-        CoreMod.logError(new Exception("Missing handler for " + event.getClass().getName()));
+    
+    /*
+     * Overflow handling
+     */
+    private boolean offer(@NotNull BlockingQueue<BlockRecord> queue, @NotNull BlockRecord record) {
+        if (queue.offer(record))
+            return true;
+        
+        switch (SewConfig.get(SewConfig.LOG_QUEUE_OVERFLOW)) {
+            case BLOCK -> {
+                try {
+                    queue.put(record);
+                    return true;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            case DROP_OLDEST -> {
+                do {
+                    if (queue.poll() != null)
+                        this.dropped.increment();
+                } while (!queue.offer(record));
+                return true;
+            }
+            case SPILL -> {
+                if (this.spill(record))
+                    return true;
+            }
+        }
+        
+        this.dropped.increment();
         return false;
     }
+    private boolean spill(@NotNull BlockRecord record) {
+        synchronized (this.spillLock) {
+            try {
+                if (this.spillWriter == null)
+                    this.spillWriter = Files.newBufferedWriter(EventLogger.getSpillFile().toPath(), StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                this.spillWriter.write(record.toLine());
+                this.spillWriter.newLine();
+                
+                // Overflow has to survive a crash, so don't leave it in the buffer
+                this.spillWriter.flush();
+                
+                this.spillPending++;
+                this.spilled.increment();
+                return true;
+            } catch (IOException e) {
+                CoreMod.logError(e);
+                return false;
+            }
+        }
+    }
+    private void drainSpill() {
+        File draining = new File(CoreMod.getConfDir(), "blocklog.spill.draining");
+        
+        // Swap the spill file out so that new overflow goes into a fresh file
+        synchronized (this.spillLock) {
+            if (this.spillPending <= 0 && !draining.exists() && !EventLogger.getSpillFile().exists())
+                return;
+            try {
+                if (this.spillWriter != null) {
+                    this.spillWriter.close();
+                    this.spillWriter = null;
+                }
+                
+                File spill = EventLogger.getSpillFile();
+                if (!draining.exists() && spill.exists())
+                    Files.move(spill.toPath(), draining.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                this.spillPending = 0;
+            } catch (IOException e) {
+                CoreMod.logError(e);
+                return;
+            }
+        }
+        
+        if (!draining.exists())
+            return;
+        
+        final int size = Math.max(1, SewConfig.get(SewConfig.LOG_BATCH_SIZE));
+        List<BlockRecord> batch = new ArrayList<>(size);
+        List<String> lines = new ArrayList<>(size);
+        File unsaved = new File(CoreMod.getConfDir(), "blocklog.spill.unsaved");
+        boolean failed = false;
+        try (BufferedReader reader = Files.newBufferedReader(draining.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while (!failed && (line = reader.readLine()) != null) {
+                BlockRecord record = BlockRecord.fromLine(line);
+                if (record == null)
+                    continue;
+                batch.add(record);
+                lines.add(line);
+                if (batch.size() >= size) {
+                    if (!this.saveToDatabase(batch))
+                        failed = true;
+                    else lines.clear();
+                }
+            }
+            if (!failed && !this.saveToDatabase(batch))
+                failed = true;
+            
+            // Keep the rows that weren't inserted, without the batches that already were
+            if (failed)
+                EventLogger.writeUnsaved(unsaved, lines, reader);
+        } catch (IOException e) {
+            CoreMod.logError(e);
+            return;
+        }
+        
+        if (failed) {
+            try {
+                Files.move(unsaved.toPath(), draining.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                CoreMod.logError(e);
+            }
+            CoreMod.logError("Could not insert the block logger spill file, it will be retried");
+            return;
+        }
+        
+        if (!draining.delete())
+            CoreMod.logError("Could not remove the block logger spill file " + draining.getAbsolutePath());
+    }
+    private static void writeUnsaved(@NotNull File file, @NotNull List<String> lines, @NotNull BufferedReader reader) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+    }
+    private static @NotNull File getSpillFile() {
+        return new File(CoreMod.getConfDir(), "blocklog.spill");
+    }
     
     // Static method for logging interactions
     public static boolean log(LoggableEvent action) {
+        BlockingQueue<BlockRecord> queue = INSTANCE.actionLog;
+        if (queue == null)
+            return false;
+        
         // If logging is disabled for a certain type, ignore
         if (action instanceof BlockEvent blockEvent) {
             if (
                 (blockEvent.getAction() == BlockAction.BREAK) && (!SewConfig.get(SewConfig.LOG_BLOCKS_BREAKING))
                 || (blockEvent.getAction() == BlockAction.PLACE) && (!SewConfig.get(SewConfig.LOG_BLOCKS_PLACING))
             ) return false;
+            
+            // Only events with a responsible player are stored
+            BlockRecord record = BlockRecord.of(blockEvent);
+            if (record == null)
+                return false;
+            
+            // Store the log action
+            return INSTANCE.offer(queue, record);
+        }
+        
+        CoreMod.logError(new Exception("Missing handler for " + action.getClass().getName()));
+        return false;
+    }
+    public static int log(@NotNull Collection<? extends LoggableEvent> actions) {
+        // Queued together, so that the writer picks them up in the same batch
+        int logged = 0;
+        for (LoggableEvent action : actions) {
+            if (EventLogger.log(action))
+                logged++;
         }
-        // Store the log action
-        return actionLog.offer(action);
+        return logged;
     }
     
     // Static method to start
     public static EventLogger start() {
+        // Create the queue using the configured size
+        if (INSTANCE.actionLog == null)
+            INSTANCE.actionLog = new ArrayBlockingQueue<>(SewConfig.get(SewConfig.LOG_QUEUE_SIZE));
+        
         // Start the runnable in a new Thread
         if (!INSTANCE.thread.isAlive())
             INSTANCE.thread.start();
@@ -160,6 +372,36 @@ public final class EventLogger implements Runnable {
         INSTANCE.thread.interrupt();
     }
     
+    /*
+     * Metrics
+     */
+    public static int getQueueDepth() {
+        BlockingQueue<BlockRecord> queue = INSTANCE.actionLog;
+        return queue == null ? 0 : queue.size();
+    }
+    public static int getSpillDepth() {
+        return INSTANCE.spillPending;
+    }
+    public static long getDropped() {
+        return INSTANCE.dropped.sum();
+    }
+    public static long getSpilled() {
+        return INSTANCE.spilled.sum();
+    }
+    public static long getInserted() {
+        return INSTANCE.inserted.sum();
+    }
+    public static long getBatches() {
+        return INSTANCE.batches.sum();
+    }
+    public static long getLastInsertNanos() {
+        return INSTANCE.lastInsertNanos;
+    }
+    public static long getAverageInsertNanos() {
+        long batches = EventLogger.getBatches();
+        return batches <= 0 ? 0 : INSTANCE.insertNanos.sum() / batches;
+    }
+    
     // Log clean
     public static void doCleanup() {
         // Ignore if disabled
@@ -183,6 +425,20 @@ public final class EventLogger implements Runnable {
         BREAK,
         EXPLODE;
     }
+    public enum LoggingOverflow {
+        BLOCK,
+        DROP_OLDEST,
+        SPILL;
+        
+        public static boolean contains(@NotNull String key) {
+            for ( LoggingOverflow i : LoggingOverflow.values() ) {
+                if ( key.equalsIgnoreCase(i.name()) )
+                    return true;
+            }
+            
+            return false;
+        }
+    }
     public enum LoggingIntervals {
         MINUTE( ChronoUnit.MINUTES ),
         HOUR( ChronoUnit.HOURS ),
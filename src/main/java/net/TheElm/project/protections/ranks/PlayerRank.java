@@ -32,15 +32,21 @@ import net.minecraft.text.Text;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.HashSet;
 import java.util.Objects;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.function.Function;
 
 public final class PlayerRank implements Comparable<PlayerRank> {
     
     private final @NotNull SortedSet<String> nodes = new TreeSet<>();
     private @Nullable String parent;
     
+    // The effective nodes of this rank and all of its parents
+    private volatile @Nullable CompiledNodes compiled = null;
+    
     private final @NotNull String iden;
     private final @Nullable Text display;
     
@@ -67,13 +73,17 @@ public final class PlayerRank implements Comparable<PlayerRank> {
         if (parent.equals(this.iden))
             throw new IllegalArgumentException("Rank \"" + this.iden + "\" cannot inherit from itself");
         this.parent = parent;
+        this.compiled = null;
     }
     public @Nullable String getParent() {
         return this.parent;
     }
     public @Nullable PlayerRank getParentReference() {
+        return this.getParentReference(RankUtils::getRank);
+    }
+    private @Nullable PlayerRank getParentReference(@NotNull Function<String, PlayerRank> ranks) {
         if (!Objects.equals(this.parent, this.iden)) {
-            PlayerRank rank = RankUtils.getRank(this.parent);
+            PlayerRank rank = ranks.apply(this.parent);
             if (rank != this)
                 return rank;
         }
@@ -84,20 +94,52 @@ public final class PlayerRank implements Comparable<PlayerRank> {
      * Permissions
      */
     public boolean addNode(String node) {
+        this.compiled = null;
         return this.nodes.add(node);
     }
-    private boolean hasNode(String node) {
-        boolean contains = this.nodes.contains(node);
-        PlayerRank parent;
-        if ((!contains) && ((parent = this.getParentReference()) != null))
-            return parent.hasNode(node);
-        return contains;
-    }
     public boolean isAdditive(String node) {
-        return this.hasNode("+" + Permissions.ALL_PERMISSIONS) || this.hasNode("+" + node);
+        return this.getCompiled().isAdditive(node);
     }
     public boolean isSubtractive(String node) {
-        return this.hasNode("-" + Permissions.ALL_PERMISSIONS) || this.hasNode("-" + node);
+        return this.getCompiled().isSubtractive(node);
+    }
+    
+    /**
+     * Flatten the nodes of this rank and its parents so that checks don't have to walk the inheritance chain
+     * Should be re-run on every rank after any rank is changed
+     */
+    public void compile() {
+        this.compile(RankUtils::getRank);
+    }
+    
+    /**
+     * @param ranks Where to find the parent ranks, for ranks that aren't loaded yet
+     */
+    public void compile(@NotNull Function<String, PlayerRank> ranks) {
+        Set<String> additive = new HashSet<>();
+        Set<String> subtractive = new HashSet<>();
+        Set<PlayerRank> visited = new HashSet<>();
+        
+        PlayerRank rank = this;
+        while (rank != null && visited.add(rank)) {
+            for (String node : rank.nodes) {
+                if (node.startsWith("+"))
+                    additive.add(node.substring(1));
+                else if (node.startsWith("-"))
+                    subtractive.add(node.substring(1));
+            }
+            rank = rank.getParentReference(ranks);
+        }
+        
+        this.compiled = new CompiledNodes(additive, subtractive);
+    }
+    private @NotNull CompiledNodes getCompiled() {
+        CompiledNodes compiled = this.compiled;
+        if (compiled == null) {
+            this.compile();
+            compiled = this.compiled;
+        }
+        return compiled;
     }
     
     /*
@@ -113,4 +155,25 @@ public final class PlayerRank implements Comparable<PlayerRank> {
         if (("*".equals(other.getIdentifier())) || (this.parent.equals(other.getIdentifier()))) return -1;
         return 0;
     }
+    
+    private static final class CompiledNodes {
+        private final @NotNull Set<String> additive;
+        private final @NotNull Set<String> subtractive;
+        private final boolean allAdditive;
+        private final boolean allSubtractive;
+        
+        private CompiledNodes(@NotNull Set<String> additive, @NotNull Set<String> subtractive) {
+            this.additive = Set.copyOf(additive);
+            this.subtractive = Set.copyOf(subtractive);
+            this.allAdditive = additive.contains(Permissions.ALL_PERMISSIONS.getNode());
+            this.allSubtractive = subtractive.contains(Permissions.ALL_PERMISSIONS.getNode());
+        }
+        
+        private boolean isAdditive(@NotNull String node) {
+            return this.allAdditive || this.additive.contains(node);
+        }
+        private boolean isSubtractive(@NotNull String node) {
+            return this.allSubtractive || this.subtractive.contains(node);
+        }
+    }
 }
@@ -0,0 +1,211 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.TheElm.project.protections.ranks;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import net.TheElm.project.CoreMod;
+import net.TheElm.project.exceptions.InvalidPermissionsException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The contents of the permissions file, parsed and validated once
+ * A snapshot is never changed after it is created, reloading the file creates and swaps in a new one
+ */
+public final class RankSnapshot {
+    
+    public static final @NotNull String GLOBAL_RANK = "*";
+    public static final @NotNull RankSnapshot EMPTY = new RankSnapshot(Collections.emptyMap(), Collections.emptyMap());
+    
+    private final @NotNull Map<String, PlayerRank> ranks;
+    private final @NotNull Map<String, List<String>> players;
+    
+    // Ranks of players as they are looked up, dropped along with the snapshot
+    private final @NotNull Map<UUID, PlayerRank[]> resolved = new ConcurrentHashMap<>();
+    
+    private RankSnapshot(@NotNull Map<String, PlayerRank> ranks, @NotNull Map<String, List<String>> players) {
+        this.ranks = Collections.unmodifiableMap(ranks);
+        this.players = Collections.unmodifiableMap(players);
+    }
+    
+    public @Nullable PlayerRank getRank(@Nullable String identifier) {
+        if (identifier == null)
+            return null;
+        return this.ranks.get(identifier);
+    }
+    public @NotNull Map<String, PlayerRank> getRanks() {
+        return this.ranks;
+    }
+    
+    public @NotNull PlayerRank[] getPlayerRanks(@NotNull UUID uuid) {
+        return this.resolved.computeIfAbsent(uuid, this::resolve);
+    }
+    public void clearPlayers() {
+        this.resolved.clear();
+    }
+    
+    private @NotNull PlayerRank[] resolve(@NotNull UUID uuid) {
+        List<PlayerRank> ranks = new ArrayList<>();
+        
+        // Everyone is a "GLOBAL"
+        PlayerRank rank = this.getRank(RankSnapshot.GLOBAL_RANK);
+        if (rank != null) ranks.add(rank);
+        
+        // Get all the players listed ranks
+        List<String> list = this.players.get(uuid.toString());
+        if (list == null)
+            list = this.players.getOrDefault(RankSnapshot.GLOBAL_RANK, Collections.emptyList());
+        for (String identifier : list) {
+            if (!RankSnapshot.GLOBAL_RANK.equals(identifier)) {
+                rank = this.getRank(identifier);
+                if (rank != null) ranks.add(rank);
+            }
+        }
+        
+        // Sort the ranks in ascending order
+        ranks.sort(PlayerRank::compareTo);
+        
+        // Return as a primitive array
+        return ranks.toArray(new PlayerRank[0]);
+    }
+    
+    /**
+     * @param main The root object of the permissions file
+     * @return A snapshot of the ranks and players in the file
+     * @throws InvalidPermissionsException If a rank is malformed, inherits from a rank that doesn't exist, or its inheritance loops
+     */
+    public static @NotNull RankSnapshot parse(@NotNull JsonObject main) throws InvalidPermissionsException {
+        List<String> errors = new ArrayList<>();
+        Map<String, PlayerRank> ranks = new LinkedHashMap<>();
+        Map<String, String> inherits = new HashMap<>();
+        
+        JsonObject object = main.get("ranks") instanceof JsonObject jsonObject ? jsonObject : new JsonObject();
+        for (Map.Entry<String, JsonElement> list : object.entrySet()) {
+            // Get the pair information
+            String identifier = list.getKey();
+            JsonElement tmp = list.getValue();
+            if (!tmp.isJsonObject()) continue;
+            
+            try {
+                // Get the rank information
+                JsonObject rankData = tmp.getAsJsonObject();
+                
+                // Get how the rank should be displayed
+                String display = null;
+                if (rankData.has("display") && (tmp = (rankData.get("display"))).getAsJsonPrimitive().isString())
+                    display = tmp.getAsString();
+                
+                // Create the rank
+                PlayerRank rank = new PlayerRank(identifier, display);
+                
+                // Set the rank parent
+                if (rankData.has("inherit") && (tmp = (rankData.get("inherit"))).getAsJsonPrimitive().isString()) {
+                    rank.setParent(tmp.getAsString());
+                    inherits.put(identifier, tmp.getAsString());
+                }
+                
+                // Add the ranks permissions
+                if (rankData.has("permissions") && (tmp = rankData.get("permissions")).isJsonArray()) {
+                    for (JsonElement node : tmp.getAsJsonArray()) {
+                        if (node.getAsJsonPrimitive().isString())
+                            rank.addNode(node.getAsString());
+                    }
+                }
+                
+                ranks.put(identifier, rank);
+            } catch (IllegalStateException | IllegalArgumentException e) {
+                errors.add("Rank \"" + identifier + "\" is malformed: " + e.getMessage());
+            }
+        }
+        
+        // Ranks can only inherit from ranks that exist
+        for (Map.Entry<String, String> inherit : inherits.entrySet()) {
+            String parent = inherit.getValue();
+            if (!RankSnapshot.GLOBAL_RANK.equals(parent) && !ranks.containsKey(parent))
+                errors.add("Rank \"" + inherit.getKey() + "\" inherits from unknown rank \"" + parent + "\"");
+        }
+        
+        // Inheritance must end without looping back on itself
+        Set<String> looped = new HashSet<>();
+        for (PlayerRank rank : ranks.values()) {
+            Set<String> chain = new LinkedHashSet<>();
+            PlayerRank current = rank;
+            while (current != null && chain.add(current.getIdentifier()))
+                current = ranks.get(current.getParent());
+            if (current != null && looped.add(current.getIdentifier()))
+                errors.add("Rank \"" + current.getIdentifier() + "\" inherits from itself: " + String.join(" -> ", chain) + " -> " + current.getIdentifier());
+        }
+        
+        if (!errors.isEmpty())
+            throw new InvalidPermissionsException(errors);
+        
+        // Permission to interact with the world should be given by default, unless taken away
+        PlayerRank global;
+        if ((global = ranks.get(RankSnapshot.GLOBAL_RANK)) != null) {
+            if (!( global.isAdditive("world.interact") || global.isSubtractive("world.interact") )) {
+                global.addNode("+world.interact");
+                CoreMod.logInfo("Added interact to the EVERYONE perm.");
+            } else CoreMod.logInfo("EVERYONE perm has perm.");
+        } else CoreMod.logInfo("Could not find EVERYONE perm.");
+        
+        // Flatten the inheritance of every rank now that they're all loaded
+        for (PlayerRank rank : ranks.values())
+            rank.compile(ranks::get);
+        
+        // Read which ranks each player has
+        Map<String, List<String>> players = new HashMap<>();
+        JsonObject playersObject = main.get("players") instanceof JsonObject jsonObject ? jsonObject : new JsonObject();
+        for (Map.Entry<String, JsonElement> player : playersObject.entrySet()) {
+            if (!(player.getValue() instanceof JsonArray array))
+                continue;
+            
+            List<String> identifiers = new ArrayList<>();
+            for (JsonElement element : array) {
+                String identifier = element.getAsString();
+                if (!ranks.containsKey(identifier) && !RankSnapshot.GLOBAL_RANK.equals(identifier))
+                    CoreMod.logInfo("Player \"" + player.getKey() + "\" has unknown rank \"" + identifier + "\", it will be ignored.");
+                identifiers.add(identifier);
+            }
+            players.put(player.getKey(), List.copyOf(identifiers));
+        }
+        
+        return new RankSnapshot(ranks, players);
+    }
+}
@@ -27,8 +27,9 @@ package net.TheElm.project.utilities;
 
 import com.mojang.datafixers.util.Either;
 import net.TheElm.project.enums.ClaimPermissions;
-import net.TheElm.project.interfaces.IClaimedChunk;
+import net.TheElm.project.interfaces.LogicalWorld;
 import net.TheElm.project.protections.BlockRange;
+import net.TheElm.project.protections.claiming.ProtectionCache;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
@@ -49,7 +50,6 @@ import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.BlockView;
 import net.minecraft.world.RaycastContext;
 import net.minecraft.world.World;
-import net.minecraft.world.chunk.WorldChunk;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -157,12 +157,11 @@ public final class BlockUtils {
      * @return Whether sourcePos is allowed to do something to protectedPos
      */
     public static boolean canBlockModifyBlock(@NotNull World world, @NotNull BlockPos protectedPos, @NotNull BlockPos sourcePos, @Nullable ClaimPermissions permission) {
-        // Get chunks
-        WorldChunk protectedChunk = world.getWorldChunk(protectedPos);
-        WorldChunk sourceChunk = world.getWorldChunk(sourcePos);
-        
-        // Check that first chunk owner can modify the next chunk
-        return ((IClaimedChunk) protectedChunk).canPlayerDo(protectedPos, ((IClaimedChunk) sourceChunk).getOwner(sourcePos), permission);
+        // Reuse the decision from the last time these chunks were checked
+        if (world instanceof LogicalWorld logicalWorld)
+            return logicalWorld.getProtectionCache()
+                .canModify(world, protectedPos, sourcePos, permission);
+        return ProtectionCache.check(world, protectedPos, sourcePos, permission);
     }
     
     public static boolean isBlockCarpet(@NotNull BlockState state) {
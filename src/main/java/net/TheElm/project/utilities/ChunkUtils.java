@@ -32,8 +32,11 @@ import net.TheElm.project.enums.ClaimRanks;
 import net.TheElm.project.enums.ClaimSettings;
 import net.TheElm.project.interfaces.Claim;
 import net.TheElm.project.interfaces.IClaimedChunk;
+import net.TheElm.project.interfaces.LogicalWorld;
 import net.TheElm.project.protections.BlockRange;
+import net.TheElm.project.protections.claiming.ClaimIndex;
 import net.TheElm.project.protections.claiming.ClaimantPlayer;
+import net.TheElm.project.protections.claiming.ClaimantTown;
 import net.TheElm.project.utilities.text.MessageUtils;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.server.network.ServerPlayerEntity;
@@ -41,6 +44,7 @@ import net.minecraft.server.world.ServerWorld;
 import net.minecraft.text.MutableText;
 import net.minecraft.util.Formatting;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.HeightLimitView;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldView;
@@ -50,23 +54,51 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.NavigableMap;
 import java.util.Optional;
-import java.util.TreeMap;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
 
 public final class ChunkUtils {
+    
+    // Changed whenever any claim changes ownership, so that cached locations know to check again
+    private static volatile int CLAIMS_VERSION = 0;
+    
+    private static final LongAdder MOVEMENT_FAST = new LongAdder();
+    private static final LongAdder MOVEMENT_CHECKED = new LongAdder();
+    
+    // Protection checks that were answered from the claim index instead of loading the chunk
+    private static final LongAdder UNLOADED_CHECKS = new LongAdder();
 
     /**
      * Check the database if a user can perform an action within the specified chunk
      */
     public static boolean canPlayerDoInChunk(@Nullable ClaimPermissions perm, @NotNull PlayerEntity player, @NotNull BlockPos blockPos) {
-        return ChunkUtils.canPlayerDoInChunk(perm, player, player.getEntityWorld().getWorldChunk(blockPos), blockPos);
+        // If claims are disabled
+        if (player.isCreative() && SewConfig.get(SewConfig.CLAIM_CREATIVE_BYPASS))
+            return true;
+        
+        return ChunkUtils.canPlayerDoInChunk(perm, player.getUuid(), player.getEntityWorld(), blockPos);
+    }
+    public static boolean canPlayerDoInChunk(@Nullable ClaimPermissions perm, @Nullable UUID playerId, @NotNull World world, @NotNull BlockPos blockPos) {
+        if (!SewConfig.get(SewConfig.DO_CLAIMS))
+            return true;
+        
+        WorldChunk chunk = ChunkUtils.getLoadedChunk(world, blockPos);
+        if (chunk != null)
+            return ((IClaimedChunk) chunk).canPlayerDo(blockPos, playerId, perm);
+        
+        // Don't load the chunk just to check who owns it
+        ChunkUtils.UNLOADED_CHECKS.increment();
+        return ChunkUtils.getClaimIndex(world)
+            .canPlayerDo(ChunkPos.toLong(blockPos.getX() >> 4, blockPos.getZ() >> 4), playerId, perm);
     }
     public static boolean canPlayerDoInChunk(@Nullable ClaimPermissions perm, @Nullable PlayerEntity player, @Nullable WorldChunk chunk, @NotNull BlockPos blockPos) {
         // If claims are disabled
@@ -121,7 +153,7 @@ public final class ChunkUtils {
         return ChunkUtils.canPlayerDoInChunk(ClaimPermissions.BLOCKS, player, blockPos);
     }
     public static boolean canPlayerBreakInChunk(@Nullable UUID playerId, @NotNull World world, @NotNull BlockPos blockPos) {
-        return ChunkUtils.canPlayerDoInChunk(ClaimPermissions.BLOCKS, playerId, world.getWorldChunk(blockPos), blockPos);
+        return ChunkUtils.canPlayerDoInChunk(ClaimPermissions.BLOCKS, playerId, world, blockPos);
     }
     
     /**
@@ -232,10 +264,63 @@ public final class ChunkUtils {
     }
     
     public static boolean isSetting(@NotNull ClaimSettings setting, @NotNull WorldView world, @NotNull BlockPos blockPos) {
-        Chunk chunk = world.getChunk(blockPos);
+        Chunk chunk;
+        if (world instanceof ServerWorld serverWorld) {
+            // Don't load the chunk just to check the setting
+            if ((chunk = ChunkUtils.getLoadedChunk(serverWorld, blockPos)) == null) {
+                ChunkUtils.UNLOADED_CHECKS.increment();
+                return ChunkUtils.getClaimIndex(serverWorld)
+                    .isSetting(ChunkPos.toLong(blockPos.getX() >> 4, blockPos.getZ() >> 4), setting);
+            }
+        } else chunk = world.getChunk(blockPos);
         return chunk instanceof IClaimedChunk claimedChunk ? claimedChunk.isSetting(blockPos, setting) : setting.getDefault(null);
     }
     
+    /**
+     * Check if a claimed area allows a player to do something
+     * @param chunkPlayer The owner of the area
+     * @param town The town that the area is a part of
+     * @param player The player to check
+     * @param perm The permission to check for
+     * @return If the player can do the action
+     */
+    public static boolean canPlayerDo(@Nullable ClaimantPlayer chunkPlayer, @Nullable ClaimantTown town, @Nullable UUID player, @Nullable ClaimPermissions perm) {
+        if (chunkPlayer == null || (player != null && player.equals(chunkPlayer.getId())))
+            return true;
+        if ( (town != null ) && (player != null) && player.equals( town.getOwner() ) )
+            return true;
+        
+        // Get the ranks of the user and the rank required for performing
+        ClaimRanks userRank = chunkPlayer.getFriendRank(player);
+        ClaimRanks permReq = chunkPlayer.getPermissionRankRequirement(perm);
+        
+        // Return the test if the user can perform the action (If friend of chunk owner OR if friend of town and chunk owned by town owner)
+        return permReq.canPerform(userRank) || ((town != null) && (chunkPlayer.getId().equals(town.getOwner())) && permReq.canPerform(town.getFriendRank(player)));
+    }
+    
+    /*
+     * Chunks that are already in memory
+     */
+    
+    /**
+     * @param world The world to get the chunk from
+     * @param blockPos A position inside of the chunk
+     * @return The chunk, or NULL if it isn't fully loaded
+     */
+    public static @Nullable WorldChunk getLoadedChunk(@NotNull World world, @NotNull BlockPos blockPos) {
+        int chunkX = blockPos.getX() >> 4;
+        int chunkZ = blockPos.getZ() >> 4;
+        if (world instanceof ServerWorld && !world.isChunkLoaded(chunkX, chunkZ))
+            return null;
+        return world.getChunk(chunkX, chunkZ);
+    }
+    public static @NotNull ClaimIndex getClaimIndex(@NotNull World world) {
+        return ((LogicalWorld) world).getClaimIndex();
+    }
+    public static long getUnloadedChecks() {
+        return ChunkUtils.UNLOADED_CHECKS.sum();
+    }
+    
     /*
      * Claim slices between two areas
      */
@@ -317,6 +402,26 @@ public final class ChunkUtils {
         return (SewConfig.get(SewConfig.CLAIM_CREATIVE_BYPASS) && (player.isCreative() || player.isSpectator()))
             || CoreMod.SPAWN_ID.equals(ChunkUtils.getPlayerLocation( player ));
     }
+    
+    /*
+     * Track changes to claims for players moving around
+     */
+    public static void claimsChanged() {
+        ChunkUtils.CLAIMS_VERSION++;
+    }
+    public static int getClaimsVersion() {
+        return ChunkUtils.CLAIMS_VERSION;
+    }
+    public static void countMovement(boolean fast) {
+        (fast ? ChunkUtils.MOVEMENT_FAST : ChunkUtils.MOVEMENT_CHECKED).increment();
+    }
+    public static long getFastMovements() {
+        return ChunkUtils.MOVEMENT_FAST.sum();
+    }
+    public static long getCheckedMovements() {
+        return ChunkUtils.MOVEMENT_CHECKED.sum();
+    }
+    
     public static int getPositionWithinChunk(BlockPos blockPos) {
         int chunkIndex = blockPos.getX() & 0xF;
         return (chunkIndex |= (blockPos.getZ() & 0xF) << 4);
@@ -331,7 +436,13 @@ public final class ChunkUtils {
     }
     
     public static Optional<UUID> getPosOwner(World world, BlockPos pos) {
-        return Optional.ofNullable( ((IClaimedChunk)world.getChunk( pos )).getOwner() );
+        WorldChunk chunk = ChunkUtils.getLoadedChunk(world, pos);
+        if (chunk != null)
+            return Optional.ofNullable( ((IClaimedChunk)chunk).getOwner() );
+        
+        ClaimIndex.Entry entry = ChunkUtils.getClaimIndex(world)
+            .get(ChunkPos.toLong(pos.getX() >> 4, pos.getZ() >> 4));
+        return Optional.ofNullable(entry == null ? null : entry.getOwner());
     }
     
     /*public static boolean lightChunk(WorldChunk chunk) {
@@ -371,7 +482,68 @@ public final class ChunkUtils {
      */
     public static final class ClaimSlice {
         
-        private final NavigableMap<Integer, InnerClaim> innerChunks = Collections.synchronizedNavigableMap(new TreeMap<>());
+        /**
+         * Immutable snapshot of the claims in the column, sorted by their lower Y and never overlapping.
+         * Readers only ever read the volatile reference, writers build a new snapshot and swap it in.
+         */
+        private static final class Column {
+            private static final Column EMPTY = new Column(new int[0], new int[0], new InnerClaim[0]);
+            
+            private final int[] lowers;
+            private final int[] uppers;
+            private final InnerClaim[] claims;
+            
+            private Column(int[] lowers, int[] uppers, InnerClaim[] claims) {
+                this.lowers = lowers;
+                this.uppers = uppers;
+                this.claims = claims;
+            }
+            
+            private static @NotNull Column of(@NotNull List<InnerClaim> claims) {
+                int size = claims.size();
+                if (size == 0)
+                    return Column.EMPTY;
+                
+                claims.sort(Comparator.comparingInt(InnerClaim::lower));
+                
+                int[] lowers = new int[size];
+                int[] uppers = new int[size];
+                InnerClaim[] array = new InnerClaim[size];
+                for (int i = 0; i < size; i++) {
+                    InnerClaim claim = claims.get(i);
+                    lowers[i] = claim.lower();
+                    uppers[i] = claim.upper();
+                    array[i] = claim;
+                }
+                
+                return new Column(lowers, uppers, array);
+            }
+            
+            /**
+             * @param y The Y position to search for
+             * @return The index of the claim with the greatest lower bound that is below or at Y, or -1
+             */
+            private int floor(int y) {
+                int low = 0;
+                int high = this.lowers.length - 1;
+                while (low <= high) {
+                    int mid = (low + high) >>> 1;
+                    int value = this.lowers[mid];
+                    if (value < y)
+                        low = mid + 1;
+                    else if (value > y)
+                        high = mid - 1;
+                    else return mid;
+                }
+                return high;
+            }
+            
+            private @NotNull List<InnerClaim> toList() {
+                return new ArrayList<>(Arrays.asList(this.claims));
+            }
+        }
+        
+        private volatile Column column = Column.EMPTY;
         private final HeightLimitView view;
         private final int chunkPos;
         
@@ -383,6 +555,9 @@ public final class ChunkUtils {
         public boolean has(int y) {
             return this.get(y) != null;
         }
+        public boolean isEmpty() {
+            return this.column.claims.length == 0;
+        }
         public boolean hasUpperNeighbor(@NotNull InnerClaim claim) {
             return this.has(claim.upper() + 1);
         }
@@ -390,75 +565,105 @@ public final class ChunkUtils {
             return this.has(claim.lower() - 1);
         }
         
-        public void set(@NotNull InnerClaim claim) {
-            this.innerChunks.put(claim.lower(), claim);
+        public synchronized void set(@NotNull InnerClaim claim) {
+            List<InnerClaim> claims = this.column.toList();
+            claims.removeIf(existing -> existing.lower() == claim.lower());
+            claims.add(claim);
+            this.column = Column.of(claims);
         }
-        public void setAll(@NotNull Collection<InnerClaim> claims) {
-            for (InnerClaim claim : claims)
-                this.set(claim);
+        public synchronized void setAll(@NotNull Collection<InnerClaim> claims) {
+            List<InnerClaim> updated = this.column.toList();
+            for (InnerClaim claim : claims) {
+                updated.removeIf(existing -> existing.lower() == claim.lower());
+                updated.add(claim);
+            }
+            this.column = Column.of(updated);
         }
         
         public InnerClaim remove(@NotNull InnerClaim claim) {
             return this.remove(claim.lower());
         }
-        public InnerClaim remove(int y) {
-            return this.innerChunks.remove(y);
+        public synchronized InnerClaim remove(int y) {
+            Column column = this.column;
+            int i = column.floor(y);
+            if (i < 0 || column.lowers[i] != y)
+                return null;
+            
+            List<InnerClaim> claims = column.toList();
+            InnerClaim removed = claims.remove(i);
+            this.column = Column.of(claims);
+            
+            return removed;
         }
         
         public @Nullable InnerClaim get(int y) {
-            Map.Entry<Integer, InnerClaim> pair = this.innerChunks.floorEntry(y);
-            if (pair == null)
+            Column column = this.column;
+            int i = column.floor(y);
+            if (i < 0 || y > column.uppers[i])
                 return null;
-            InnerClaim claim = pair.getValue();
-            return claim.isWithin(y) ? claim : null;
+            return column.claims[i];
         }
         public @Nullable InnerClaim get(@NotNull BlockPos blockPos) {
             return this.get(blockPos.getY());
         }
         
+        /**
+         * Get all of the owners that have claimed a part of the Y range
+         * @param yMin The lower Y position
+         * @param yMax The upper Y position
+         * @return Any owners of claims that intersect with the range
+         */
+        public @NotNull Set<UUID> getOwners(int yMin, int yMax) {
+            Column column = this.column;
+            Set<UUID> owners = new HashSet<>();
+            
+            int i = Math.max(0, column.floor(yMin));
+            for (; i < column.claims.length && column.lowers[i] <= yMax; i++) {
+                InnerClaim claim = column.claims[i];
+                if (column.uppers[i] >= yMin && claim.getOwner() != null)
+                    owners.add(claim.getOwner());
+            }
+            
+            return owners;
+        }
+        
         public void insert(@Nullable UUID owner, int upper, int lower) {
             this.displace(new InnerClaim(this.view, owner, upper, lower));
         }
-        public void displace(@NotNull InnerClaim newClaim) {
-            List<InnerClaim> updates = new ArrayList<>();
-            Iterator<InnerClaim> intersects = this.innerChunks.subMap(newClaim.lower(), true, newClaim.upper(), true)
-                .values()
-                .iterator();
-            while (intersects.hasNext()) {
-                InnerClaim claim = intersects.next();
-                if (claim.upper() <= newClaim.upper() && claim.lower() >= newClaim.lower()) {
-                    intersects.remove();
+        public synchronized void displace(@NotNull InnerClaim newClaim) {
+            List<InnerClaim> claims = new ArrayList<>();
+            for (InnerClaim claim : this.column.claims) {
+                // Keep any claims that don't intersect with the new region
+                if (claim.upper() < newClaim.lower() || claim.lower() > newClaim.upper()) {
+                    claims.add(claim);
                     continue;
                 }
                 
+                // Trim the parts of the intersecting claim that are above or below the new region
                 if (claim.upper() > newClaim.upper())
-                    updates.add(new InnerClaim(this.view, claim.getOwner(), claim.upper(), newClaim.upper()));
+                    claims.add(new InnerClaim(this.view, claim.getOwner(), claim.upper(), newClaim.upper() + 1));
                 if (claim.lower() < newClaim.lower())
-                    updates.add(new InnerClaim(this.view, claim.getOwner(), newClaim.lower(), claim.lower()));
+                    claims.add(new InnerClaim(this.view, claim.getOwner(), newClaim.lower() - 1, claim.lower()));
             }
             
-            // Add updated regions into the heightmap
-            this.setAll(updates);
-            
             // Don't save unclaimed regions into the heightmap
             if (newClaim.getOwner() != null)
-                this.set(newClaim);
+                claims.add(newClaim);
+            
+            this.column = Column.of(claims);
         }
         
-        public void reset() {
-            Iterator<Map.Entry<Integer, InnerClaim>> it = this.innerChunks.entrySet().iterator();
-            while ( it.hasNext() ) {
-                Map.Entry<Integer, InnerClaim> entry = it.next();
-                InnerClaim claim = entry.getValue();
-                
-                // Remove all that are not SPAWN
-                if (!CoreMod.SPAWN_ID.equals( claim.getOwner() ))
-                    it.remove();
-            }
+        public synchronized void reset() {
+            List<InnerClaim> claims = this.column.toList();
+            
+            // Remove all that are not SPAWN
+            if (claims.removeIf(claim -> !CoreMod.SPAWN_ID.equals(claim.getOwner())))
+                this.column = Column.of(claims);
         }
         
         public Iterator<InnerClaim> getClaims() {
-            return this.innerChunks.values().iterator();
+            return Collections.unmodifiableList(Arrays.asList(this.column.claims))
+                .iterator();
         }
     }
     public static final class InnerClaim implements Claim {
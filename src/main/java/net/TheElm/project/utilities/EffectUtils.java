@@ -26,6 +26,7 @@
 package net.TheElm.project.utilities;
 
 import net.TheElm.project.interfaces.LogicalWorld;
+import net.TheElm.project.objects.DetachedTickable;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.ai.pathing.Path;
 import net.minecraft.network.packet.s2c.play.ParticleS2CPacket;
@@ -55,7 +56,7 @@ public final class EffectUtils {
     public static <T extends ParticleEffect> void particleSwirl(@NotNull final T particle, @NotNull final LivingEntity mob, final boolean up, final int count) {
         if (mob.world.isClient)
             return;
-        ((LogicalWorld)mob.world).addTickableEvent(event -> {
+        ((LogicalWorld)mob.world).addTickableEvent(DetachedTickable.Priority.IMMEDIATE, event -> {
             int ticks = event.getTicks();
             if (event.isRemoved() || (ticks / EffectUtils.TICK_DELAY) > EffectUtils.TOTAL_STEPS)
                 return true;
@@ -89,7 +90,7 @@ public final class EffectUtils {
     public static <T extends ParticleEffect> void particleSwirl(@NotNull final T particle, @NotNull final ServerWorld world, final Vec3d mobPos, final boolean up, final int count) {
         if (world.isClient)
             return;
-        ((LogicalWorld)world).addTickableEvent(event -> {
+        ((LogicalWorld)world).addTickableEvent(DetachedTickable.Priority.IMMEDIATE, event -> {
             int ticks = event.getTicks();
             if (event.isRemoved() || (ticks / EffectUtils.TICK_DELAY) > EffectUtils.TOTAL_STEPS)
                 return true;
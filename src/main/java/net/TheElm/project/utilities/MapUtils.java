@@ -25,12 +25,18 @@
 
 package net.TheElm.project.utilities;
 
+import com.flowpowered.math.vector.Vector2d;
 import de.bluecolored.bluemap.api.BlueMapAPI;
 import de.bluecolored.bluemap.api.BlueMapMap;
 import de.bluecolored.bluemap.api.BlueMapWorld;
 import de.bluecolored.bluemap.api.marker.MarkerAPI;
 import de.bluecolored.bluemap.api.marker.MarkerSet;
+import de.bluecolored.bluemap.api.marker.Shape;
+import de.bluecolored.bluemap.api.marker.ShapeMarker;
 import net.TheElm.project.CoreMod;
+import net.TheElm.project.config.SewConfig;
+import net.TheElm.project.protections.claiming.ClaimMarkerSink;
+import net.TheElm.project.protections.claiming.ClaimRegions;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.registry.RegistryKey;
 import net.minecraft.world.World;
@@ -39,8 +45,12 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.util.ArrayDeque;
+import java.util.Iterator;
 import java.util.Optional;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiPredicate;
 import java.util.function.Consumer;
 
@@ -52,9 +62,19 @@ public final class MapUtils {
     private MapUtils() {}
     public static void init() {}
     
-    private static @Nullable MarkerAPI MARKERS;
+    private static volatile @Nullable MarkerAPI MARKERS;
     public static @NotNull Queue<Consumer<BlueMapAPI>> RUN = new ArrayDeque<>();
     
+    // Regions waiting to be drawn, any number of changes to a region between flushes is one redraw
+    private static final @NotNull Set<ClaimRegions> PENDING = ConcurrentHashMap.newKeySet();
+    private static final @NotNull ClaimMarkerSink BLUEMAP = new BlueMapSink("claims");
+    
+    private static final @NotNull LongAdder QUEUED = new LongAdder();
+    private static final @NotNull LongAdder COALESCED = new LongAdder();
+    private static final @NotNull LongAdder FLUSHES = new LongAdder();
+    private static final @NotNull LongAdder PUSHED = new LongAdder();
+    private static final @NotNull LongAdder FLUSH_NANOS = new LongAdder();
+    
     static {
         // When the API is made available
         BlueMapAPI.onEnable((api) -> {
@@ -64,6 +84,10 @@ public final class MapUtils {
                 MapUtils.MARKERS = api.getMarkerAPI();
                 CoreMod.logInfo("BlueMap Integration detected");
                 
+                // Nothing is queued until the map is available, so draw every Claimant that is already loaded
+                CoreMod.getCacheStream()
+                    .forEach(claimant -> MapUtils.queue(claimant.getRegions()));
+                
                 Consumer<BlueMapAPI> consumer;
                 while ((consumer = MapUtils.RUN.poll()) != null)
                     consumer.accept(api);
@@ -73,6 +97,52 @@ public final class MapUtils {
         });
     }
     
+    /**
+     * Queue the changed regions of a Claimant to be redrawn on the next flush
+     * @param regions The Claimants regions
+     */
+    public static void queue(@NotNull ClaimRegions regions) {
+        // Without a map to flush to, queued regions (And their Claimants) would be held forever
+        if (MapUtils.MARKERS == null)
+            return;
+        if (MapUtils.PENDING.add(regions))
+            MapUtils.QUEUED.increment();
+        else MapUtils.COALESCED.increment();
+    }
+    
+    /**
+     * Flush the queued regions to BlueMap every few ticks, once it is available
+     * @param ticks The current server tick
+     */
+    public static void tick(int ticks) {
+        if (MapUtils.MARKERS == null || MapUtils.PENDING.isEmpty() || ticks % SewConfig.get(SewConfig.CLAIM_MAP_FLUSH_TICKS) != 0)
+            return;
+        MapUtils.flush(MapUtils.BLUEMAP);
+    }
+    
+    /**
+     * Trace every queued region and push them to a sink
+     * @param sink The sink to draw the regions to
+     * @return The number of regions pushed
+     */
+    public static int flush(@NotNull ClaimMarkerSink sink) {
+        long start = System.nanoTime();
+        int pushed = 0;
+        
+        Iterator<ClaimRegions> iterator = MapUtils.PENDING.iterator();
+        while (iterator.hasNext()) {
+            ClaimRegions regions = iterator.next();
+            iterator.remove();
+            pushed += regions.drain(sink);
+        }
+        sink.flush();
+        
+        MapUtils.FLUSHES.increment();
+        MapUtils.PUSHED.add(pushed);
+        MapUtils.FLUSH_NANOS.add(System.nanoTime() - start);
+        return pushed;
+    }
+    
     public static void withMarker(@NotNull RegistryKey<World> worldKey, @NotNull String name, @NotNull final BiPredicate<BlueMapMap, MarkerSet> action) {
         if (MapUtils.MARKERS == null)
             return;
@@ -105,4 +175,70 @@ public final class MapUtils {
             return null;
         });
     }
+    
+    /*
+     * Statistics
+     */
+    public static int getPending() {
+        return MapUtils.PENDING.size();
+    }
+    public static long getQueued() {
+        return MapUtils.QUEUED.sum();
+    }
+    public static long getCoalesced() {
+        return MapUtils.COALESCED.sum();
+    }
+    public static long getFlushes() {
+        return MapUtils.FLUSHES.sum();
+    }
+    public static long getPushed() {
+        return MapUtils.PUSHED.sum();
+    }
+    public static long getFlushNanos() {
+        return MapUtils.FLUSH_NANOS.sum();
+    }
+    
+    private static final class BlueMapSink implements ClaimMarkerSink {
+        private final @NotNull String markerSet;
+        private boolean changed = false;
+        
+        private BlueMapSink(@NotNull String markerSet) {
+            this.markerSet = markerSet;
+        }
+        
+        @Override
+        public void push(@NotNull RegistryKey<World> world, @NotNull String id, @NotNull String label, @NotNull String detail, int @NotNull [] outline) {
+            if (MapUtils.MARKERS == null || outline.length < 6)
+                return;
+            
+            Vector2d[] points = new Vector2d[outline.length / 2];
+            for (int i = 0; i < points.length; i++)
+                points[i] = new Vector2d(outline[i * 2], outline[i * 2 + 1]);
+            
+            MapUtils.getWorldMap(world).ifPresent(map -> {
+                MarkerSet set = MapUtils.MARKERS.createMarkerSet(this.markerSet);
+                set.removeMarker(id);
+                
+                ShapeMarker marker = set.createShapeMarker(id, map, new Shape(points), 64);
+                marker.setLabel(label);
+                marker.setDetail(detail);
+                
+                this.changed = true;
+            });
+        }
+        
+        @Override
+        public void remove(@NotNull RegistryKey<World> world, @NotNull String id) {
+            if (MapUtils.MARKERS != null && MapUtils.MARKERS.createMarkerSet(this.markerSet).removeMarker(id))
+                this.changed = true;
+        }
+        
+        @Override
+        public void flush() {
+            if (this.changed) {
+                this.changed = false;
+                MapUtils.saveBlueMap();
+            }
+        }
+    }
 }
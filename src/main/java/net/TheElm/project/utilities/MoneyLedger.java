@@ -0,0 +1,377 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.TheElm.project.utilities;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.TheElm.project.CoreMod;
+import net.TheElm.project.exceptions.NbtNotFoundException;
+import net.TheElm.project.exceptions.NotEnoughMoneyException;
+import net.TheElm.project.utilities.nbt.NbtUtils;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtHelper;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The balances of players that are offline
+ * Every change is appended to a log before it is applied, and the log is compacted into a snapshot when the server saves
+ * While a player is online their balance is held by their DataTracker instead
+ */
+public final class MoneyLedger {
+    
+    // How many transaction IDs to remember to ignore repeats of
+    private static final int RECENT_TRANSACTIONS = 4096;
+    // How many log entries to allow before compacting without waiting for a save
+    private static final int COMPACT_AFTER = 1024;
+    
+    private static final @NotNull Object LOCK = new Object();
+    private static final @NotNull Object2IntMap<UUID> BALANCES = new Object2IntOpenHashMap<>();
+    private static final @NotNull Set<UUID> RECENT = new LinkedHashSet<>();
+    // Players that have joined, whose ledger balance is kept until their player data is saved
+    private static final @NotNull Set<UUID> CHECKED_OUT = new HashSet<>();
+    
+    private static @Nullable BufferedWriter log = null;
+    private static int logged = 0;
+    private static boolean loaded = false;
+    
+    private MoneyLedger() {}
+    
+    /**
+     * Read the snapshot and replay the log from the save folder
+     */
+    public static void load() {
+        synchronized (MoneyLedger.LOCK) {
+            MoneyLedger.close();
+            MoneyLedger.BALANCES.clear();
+            MoneyLedger.RECENT.clear();
+            MoneyLedger.CHECKED_OUT.clear();
+            MoneyLedger.logged = 0;
+            
+            // Read the last snapshot
+            NbtCompound tag = NbtUtils.readMoneyLedger();
+            NbtCompound balances = tag.getCompound("Balances");
+            for (String key : balances.getKeys()) {
+                try {
+                    MoneyLedger.BALANCES.put(UUID.fromString(key), balances.getInt(key));
+                } catch (IllegalArgumentException ignored) {}
+            }
+            for (NbtElement element : tag.getList("Transactions", NbtElement.INT_ARRAY_TYPE))
+                MoneyLedger.remember(NbtHelper.toUuid(element));
+            
+            // Replay anything that happened after the snapshot
+            File file = NbtUtils.moneyLedgerLog();
+            if (file.exists()) {
+                try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        // Stop at a line that was only partially written
+                        if (!MoneyLedger.replay(line))
+                            break;
+                        MoneyLedger.logged++;
+                    }
+                } catch (IOException e) {
+                    CoreMod.logError(e);
+                }
+            }
+            
+            MoneyLedger.loaded = true;
+            
+            // Fold the replayed log into the snapshot right away
+            if (MoneyLedger.logged > 0)
+                MoneyLedger.compact();
+        }
+        CoreMod.logDebug("Loaded " + MoneyLedger.BALANCES.size() + " offline balances.");
+    }
+    private static void assertLoaded() {
+        if (!MoneyLedger.loaded)
+            MoneyLedger.load();
+    }
+    
+    /**
+     * Compact the log into a new snapshot
+     */
+    public static void save() {
+        synchronized (MoneyLedger.LOCK) {
+            if (MoneyLedger.loaded && MoneyLedger.logged > 0)
+                MoneyLedger.compact();
+        }
+    }
+    
+    /**
+     * Compact the log and release the file
+     */
+    public static void stop() {
+        synchronized (MoneyLedger.LOCK) {
+            MoneyLedger.save();
+            MoneyLedger.close();
+            MoneyLedger.loaded = false;
+        }
+    }
+    
+    /*
+     * Balances
+     */
+    
+    /**
+     * @param player The offline player
+     * @return The balance of the player
+     * @throws NbtNotFoundException If the player has never joined the server
+     */
+    public static int getBalance(@NotNull UUID player) throws NbtNotFoundException {
+        synchronized (MoneyLedger.LOCK) {
+            MoneyLedger.assertLoaded();
+            if (MoneyLedger.BALANCES.containsKey(player))
+                return MoneyLedger.BALANCES.getInt(player);
+        }
+        
+        // Players that the ledger hasn't seen yet still have their balance in their player data
+        return OfflinePlayerCache.get(player)
+            .getBalance();
+    }
+    
+    /**
+     * @param transaction The ID of a transaction
+     * @return If the transaction has already been applied
+     */
+    public static boolean contains(@NotNull UUID transaction) {
+        synchronized (MoneyLedger.LOCK) {
+            MoneyLedger.assertLoaded();
+            return MoneyLedger.RECENT.contains(transaction);
+        }
+    }
+    
+    /**
+     * Apply changes to the balances of offline players, all together or not at all
+     * @param transaction A unique ID of the transaction, a repeated transaction is not applied again
+     * @param changes The amounts to add to (Or subtract from) each offline players balance
+     * @return If the transaction was applied (Or had already been applied)
+     * @throws NbtNotFoundException If a player has never joined the server
+     * @throws NotEnoughMoneyException If a player would be left with a negative balance
+     */
+    public static boolean apply(@NotNull UUID transaction, @NotNull Map<UUID, Integer> changes) throws NbtNotFoundException, NotEnoughMoneyException {
+        synchronized (MoneyLedger.LOCK) {
+            MoneyLedger.assertLoaded();
+            if (MoneyLedger.RECENT.contains(transaction))
+                return true;
+            
+            // Work out all of the new balances before changing anything
+            Map<UUID, Integer> updated = new HashMap<>();
+            for (Map.Entry<UUID, Integer> change : changes.entrySet()) {
+                long balance = (long) MoneyLedger.getBalance(change.getKey()) + change.getValue();
+                if (balance < 0)
+                    throw new NotEnoughMoneyException();
+                if (balance > Integer.MAX_VALUE)
+                    return false;
+                updated.put(change.getKey(), (int) balance);
+            }
+            
+            // Write to the log first so that a crash can't lose the transaction
+            StringBuilder line = new StringBuilder("T ").append(transaction);
+            for (Map.Entry<UUID, Integer> balance : updated.entrySet())
+                line.append(' ').append(balance.getKey()).append('=').append(balance.getValue());
+            if (!MoneyLedger.append(line.toString()))
+                return false;
+            
+            for (Map.Entry<UUID, Integer> balance : updated.entrySet())
+                MoneyLedger.BALANCES.put(balance.getKey(), balance.getValue());
+            MoneyLedger.remember(transaction);
+            MoneyLedger.maybeCompact();
+            return true;
+        }
+    }
+    
+    /*
+     * Online players
+     */
+    
+    /**
+     * Move a balance from the ledger into a player that has just joined
+     * The ledger keeps the balance until the player data has been saved with it, see {@link #onPlayerSaved(UUID)}
+     * @param player The player that joined
+     */
+    public static void checkOut(@NotNull ServerPlayerEntity player) {
+        UUID uuid = player.getUuid();
+        synchronized (MoneyLedger.LOCK) {
+            MoneyLedger.assertLoaded();
+            if (!MoneyLedger.BALANCES.containsKey(uuid))
+                return;
+            
+            // The ledger is newer than the player data, if the player was paid while offline
+            MoneyUtils.setPlayerMoney(player, MoneyLedger.BALANCES.getInt(uuid));
+            MoneyLedger.CHECKED_OUT.add(uuid);
+        }
+    }
+    
+    /**
+     * Remove the balance of a player that was checked out, now that their player data holds it
+     * @param player The player whose data was saved
+     */
+    public static void onPlayerSaved(@NotNull UUID player) {
+        synchronized (MoneyLedger.LOCK) {
+            if (!MoneyLedger.CHECKED_OUT.remove(player))
+                return;
+            if (MoneyLedger.append("R " + player)) {
+                MoneyLedger.BALANCES.removeInt(player);
+                MoneyLedger.maybeCompact();
+            } else MoneyLedger.CHECKED_OUT.add(player);
+        }
+    }
+    
+    /**
+     * Move the balance of a player that is leaving into the ledger
+     * @param player The player that is leaving
+     * @param balance The balance of the player
+     */
+    public static void checkIn(@NotNull UUID player, int balance) {
+        synchronized (MoneyLedger.LOCK) {
+            MoneyLedger.assertLoaded();
+            MoneyLedger.CHECKED_OUT.remove(player);
+            if (MoneyLedger.append("S " + player + " " + balance)) {
+                MoneyLedger.BALANCES.put(player, balance);
+                MoneyLedger.maybeCompact();
+            }
+        }
+    }
+    
+    /*
+     * Log
+     */
+    private static boolean append(@NotNull String line) {
+        try {
+            if (MoneyLedger.log == null) {
+                File file = NbtUtils.moneyLedgerLog();
+                File folder = file.getParentFile();
+                if ((!folder.exists()) && (!folder.mkdirs()))
+                    return false;
+                MoneyLedger.log = new BufferedWriter(new FileWriter(file, true));
+            }
+            
+            MoneyLedger.log.write(line);
+            MoneyLedger.log.newLine();
+            MoneyLedger.log.flush();
+        } catch (IOException e) {
+            CoreMod.logError(e);
+            return false;
+        }
+        
+        MoneyLedger.logged++;
+        return true;
+    }
+    private static boolean replay(@NotNull String line) {
+        String[] parts = line.split(" ");
+        try {
+            switch (parts[0]) {
+                case "T" -> {
+                    MoneyLedger.remember(UUID.fromString(parts[1]));
+                    for (int i = 2; i < parts.length; i++) {
+                        int split = parts[i].indexOf('=');
+                        MoneyLedger.BALANCES.put(UUID.fromString(parts[i].substring(0, split)), Integer.parseInt(parts[i].substring(split + 1)));
+                    }
+                }
+                case "S" -> MoneyLedger.BALANCES.put(UUID.fromString(parts[1]), Integer.parseInt(parts[2]));
+                case "R" -> MoneyLedger.BALANCES.removeInt(UUID.fromString(parts[1]));
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+    private static void remember(@NotNull UUID transaction) {
+        MoneyLedger.RECENT.add(transaction);
+        if (MoneyLedger.RECENT.size() > MoneyLedger.RECENT_TRANSACTIONS) {
+            Iterator<UUID> iterator = MoneyLedger.RECENT.iterator();
+            iterator.next();
+            iterator.remove();
+        }
+    }
+    
+    /**
+     * Compact the log once it is long enough, only called after a logged change was applied to the balances
+     */
+    private static void maybeCompact() {
+        if (MoneyLedger.logged >= MoneyLedger.COMPACT_AFTER)
+            MoneyLedger.compact();
+    }
+    
+    /**
+     * Write the balances to a new snapshot and then empty the log
+     * The log is only emptied once the snapshot was written, so replaying it again over the snapshot is harmless
+     */
+    private static void compact() {
+        NbtCompound balances = new NbtCompound();
+        for (Object2IntMap.Entry<UUID> entry : MoneyLedger.BALANCES.object2IntEntrySet())
+            balances.putInt(entry.getKey().toString(), entry.getIntValue());
+        
+        NbtList transactions = new NbtList();
+        for (UUID transaction : MoneyLedger.RECENT)
+            transactions.add(NbtHelper.fromUuid(transaction));
+        
+        NbtCompound tag = new NbtCompound();
+        tag.put("Balances", balances);
+        tag.put("Transactions", transactions);
+        if (!NbtUtils.writeMoneyLedger(tag))
+            return;
+        
+        MoneyLedger.close();
+        try {
+            new FileWriter(NbtUtils.moneyLedgerLog(), false).close();
+            MoneyLedger.logged = 0;
+        } catch (IOException e) {
+            CoreMod.logError(e);
+        }
+    }
+    private static void close() {
+        if (MoneyLedger.log != null) {
+            try {
+                MoneyLedger.log.close();
+            } catch (IOException e) {
+                CoreMod.logError(e);
+            }
+            MoneyLedger.log = null;
+        }
+    }
+}
@@ -28,13 +28,13 @@ package net.TheElm.project.utilities;
 import net.TheElm.project.exceptions.NbtNotFoundException;
 import net.TheElm.project.exceptions.NotEnoughMoneyException;
 import net.TheElm.project.interfaces.MoneyHolder;
-import net.TheElm.project.utilities.nbt.NbtUtils;
 import net.minecraft.entity.data.DataTracker;
 import net.minecraft.entity.player.PlayerEntity;
-import net.minecraft.nbt.NbtCompound;
 import net.minecraft.server.network.ServerPlayerEntity;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 public final class MoneyUtils {
@@ -51,10 +51,7 @@ public final class MoneyUtils {
             return MoneyUtils.getPlayerMoney( player );
         
         // If not online
-        NbtCompound tag = NbtUtils.readOfflinePlayerData( playerId );
-        
-        // Get the balance from the NBT tag
-        return tag.getInt( MoneyHolder.SAVE_KEY );
+        return MoneyLedger.getBalance( playerId );
     }
     public static int getPlayerMoney(@NotNull PlayerEntity player) {
         return player.getDataTracker().get(MoneyHolder.MONEY);
@@ -70,8 +67,7 @@ public final class MoneyUtils {
             return MoneyUtils.setPlayerMoney( player, amount );
         
         // If not online
-        NbtCompound nbt = NbtUtils.readOfflinePlayerData( playerId );
-        int balance = nbt.getInt( MoneyHolder.SAVE_KEY );
+        int balance = MoneyLedger.getBalance( playerId );
         if (amount < 0)
             return false;
         
@@ -79,10 +75,11 @@ public final class MoneyUtils {
         if (amount == balance)
             return true;
         
-        // Change the NBT tag
-        nbt.putInt( MoneyHolder.SAVE_KEY, amount );
-        
-        return NbtUtils.writeOfflinePlayerData( playerId, nbt );
+        try {
+            return MoneyLedger.apply(UUID.randomUUID(), Map.of(playerId, amount - balance));
+        } catch (NotEnoughMoneyException e) {
+            return false;
+        }
     }
     public static boolean setPlayerMoney(@NotNull PlayerEntity player, int amount) {
         player.getDataTracker().set(MoneyHolder.MONEY, amount);
@@ -98,22 +95,16 @@ public final class MoneyUtils {
         if ((player = EntityUtils.getPlayer( playerId )) != null)
             return MoneyUtils.givePlayerMoney( player, amount );
         
-        // If not online
-        double updateTo = 0;
-        NbtCompound nbt = NbtUtils.readOfflinePlayerData( playerId );
-        int balance = nbt.getInt( MoneyHolder.SAVE_KEY );
-        if (((updateTo = (double)(balance + amount))) > Integer.MAX_VALUE)
-            return false;
-        
         // If balance is unchanged, don't attempt saving
-        if (updateTo == balance)
+        if (amount == 0)
             return true;
         
-        // Change the NBT tag
-        nbt.putInt( MoneyHolder.SAVE_KEY, (int)updateTo );
-        
-        // Save the data
-        return NbtUtils.writeOfflinePlayerData( playerId, nbt );
+        // If not online
+        try {
+            return MoneyLedger.apply(UUID.randomUUID(), Map.of(playerId, amount));
+        } catch (NotEnoughMoneyException e) {
+            return false;
+        }
     }
     public static boolean givePlayerMoney(@NotNull PlayerEntity player, int amount) {
         DataTracker playerDataTracker = player.getDataTracker();
@@ -135,22 +126,12 @@ public final class MoneyUtils {
         if ((player = EntityUtils.getPlayer( playerId )) != null)
             return MoneyUtils.takePlayerMoney( player, amount );
         
-        // If not online
-        double updateTo = 0;
-        NbtCompound nbt = NbtUtils.readOfflinePlayerData( playerId );
-        int balance = nbt.getInt( MoneyHolder.SAVE_KEY );
-        if (((updateTo = (double)(balance - amount))) < Integer.MIN_VALUE)
-            return false;
-        
         // If balance is unchanged, don't attempt saving
-        if (updateTo == balance)
+        if (amount == 0)
             return true;
         
-        // Change the NBT tag
-        nbt.putInt( MoneyHolder.SAVE_KEY, (int)updateTo );
-        
-        // Save the data
-        return NbtUtils.writeOfflinePlayerData( playerId, nbt );
+        // If not online
+        return MoneyLedger.apply(UUID.randomUUID(), Map.of(playerId, -amount));
     }
     public static boolean takePlayerMoney(@NotNull PlayerEntity player, int amount) throws NotEnoughMoneyException {
         DataTracker playerDataTracker = player.getDataTracker();
@@ -170,5 +151,37 @@ public final class MoneyUtils {
         return true;
     }
     
+    /*
+     * Transfer player money
+     */
+    public static boolean transferPlayerMoney(@NotNull UUID transaction, @NotNull UUID fromId, @NotNull UUID toId, int amount) throws NbtNotFoundException, NotEnoughMoneyException {
+        // Don't repeat a transaction that has already happened
+        if (amount == 0 || MoneyLedger.contains(transaction))
+            return true;
+        
+        ServerPlayerEntity from = EntityUtils.getPlayer( fromId );
+        ServerPlayerEntity to = EntityUtils.getPlayer( toId );
+        
+        // Check the online players before anything is changed
+        if (from != null && MoneyUtils.getPlayerMoney(from) < amount)
+            throw new NotEnoughMoneyException();
+        if (to != null && ((long) MoneyUtils.getPlayerMoney(to) + amount) > Integer.MAX_VALUE)
+            return false;
+        
+        // Change the offline players (Or just record the transaction if both are online)
+        Map<UUID, Integer> offline = new HashMap<>();
+        if (from == null)
+            offline.put(fromId, -amount);
+        if (to == null)
+            offline.merge(toId, amount, Integer::sum);
+        if (!MoneyLedger.apply(transaction, offline))
+            return false;
+        
+        if (from != null)
+            MoneyUtils.takePlayerMoney(from, amount);
+        if (to != null)
+            MoneyUtils.givePlayerMoney(to, amount);
+        return true;
+    }
     
 }
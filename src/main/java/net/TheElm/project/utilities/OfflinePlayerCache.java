@@ -0,0 +1,170 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.TheElm.project.utilities;
+
+import net.TheElm.project.config.SewConfig;
+import net.TheElm.project.exceptions.NbtNotFoundException;
+import net.TheElm.project.interfaces.MoneyHolder;
+import net.TheElm.project.utilities.nbt.NbtUtils;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.text.MutableText;
+import net.minecraft.text.Text;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Parsed views of the player data files of offline players, holding only the values that this mod reads
+ * A view is dropped whenever its player logs in or out, as that is when the file on the disk can change
+ */
+public final class OfflinePlayerCache {
+    
+    // Players that have never joined are remembered too, so their missing file isn't checked again
+    private static final @NotNull View MISSING = new View(null);
+    
+    private static final @NotNull Map<UUID, View> VIEWS = new LinkedHashMap<>(16, 0.75f, true);
+    
+    private static final @NotNull LongAdder HITS = new LongAdder();
+    private static final @NotNull LongAdder MISSES = new LongAdder();
+    private static final @NotNull LongAdder DISK_READS = new LongAdder();
+    
+    private OfflinePlayerCache() {}
+    
+    /**
+     * @param uuid The UUID of the offline player
+     * @return The values read from the players data file
+     * @throws NbtNotFoundException If the player has never joined the server
+     */
+    public static @NotNull View get(@NotNull UUID uuid) throws NbtNotFoundException {
+        View view;
+        synchronized (OfflinePlayerCache.VIEWS) {
+            view = OfflinePlayerCache.VIEWS.get(uuid);
+        }
+        
+        if (view != null)
+            OfflinePlayerCache.HITS.increment();
+        else {
+            OfflinePlayerCache.MISSES.increment();
+            
+            // Read the file outside of the lock so other lookups aren't held up
+            view = OfflinePlayerCache.read(uuid);
+            synchronized (OfflinePlayerCache.VIEWS) {
+                OfflinePlayerCache.VIEWS.put(uuid, view);
+                OfflinePlayerCache.trim();
+            }
+        }
+        
+        if (view == OfflinePlayerCache.MISSING)
+            throw new NbtNotFoundException(uuid);
+        return view;
+    }
+    
+    /**
+     * Forget the view of a player, when they log in or out
+     * @param uuid The UUID of the player
+     */
+    public static void invalidate(@NotNull UUID uuid) {
+        synchronized (OfflinePlayerCache.VIEWS) {
+            OfflinePlayerCache.VIEWS.remove(uuid);
+        }
+    }
+    public static void clear() {
+        synchronized (OfflinePlayerCache.VIEWS) {
+            OfflinePlayerCache.VIEWS.clear();
+        }
+    }
+    
+    private static @NotNull View read(@NotNull UUID uuid) {
+        OfflinePlayerCache.DISK_READS.increment();
+        try {
+            return new View(NbtUtils.readOfflinePlayerData(uuid));
+        } catch (NbtNotFoundException e) {
+            return OfflinePlayerCache.MISSING;
+        }
+    }
+    private static void trim() {
+        int capacity = Math.max(0, SewConfig.get(SewConfig.OFFLINE_PLAYER_CACHE_SIZE));
+        Iterator<UUID> iterator = OfflinePlayerCache.VIEWS.keySet().iterator();
+        while (OfflinePlayerCache.VIEWS.size() > capacity && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+    
+    /*
+     * Statistics
+     */
+    public static int size() {
+        synchronized (OfflinePlayerCache.VIEWS) {
+            return OfflinePlayerCache.VIEWS.size();
+        }
+    }
+    public static long getHits() {
+        return OfflinePlayerCache.HITS.sum();
+    }
+    public static long getMisses() {
+        return OfflinePlayerCache.MISSES.sum();
+    }
+    public static long getDiskReads() {
+        return OfflinePlayerCache.DISK_READS.sum();
+    }
+    
+    public static final class View {
+        private final @NotNull Map<String, WarpUtils.Warp> warps;
+        private final @Nullable String nickname;
+        private final int balance;
+        
+        private View(@Nullable NbtCompound tag) {
+            if (tag == null) {
+                this.warps = Collections.emptyMap();
+                this.nickname = null;
+                this.balance = 0;
+            } else {
+                this.warps = Collections.unmodifiableMap(WarpUtils.fromNBT(tag));
+                this.nickname = tag.contains("PlayerNickname", NbtElement.STRING_TYPE) ? tag.getString("PlayerNickname") : null;
+                this.balance = tag.getInt(MoneyHolder.SAVE_KEY);
+            }
+        }
+        
+        public @NotNull Map<String, WarpUtils.Warp> getWarps() {
+            return this.warps;
+        }
+        public @Nullable MutableText getNickname() {
+            // Parse a new copy every time, since Text can be modified by whoever asked for it
+            return this.nickname == null ? null : Text.Serializer.fromJson(this.nickname);
+        }
+        public int getBalance() {
+            return this.balance;
+        }
+    }
+}
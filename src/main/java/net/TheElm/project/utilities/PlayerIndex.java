@@ -0,0 +1,217 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.TheElm.project.utilities;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.TheElm.project.interfaces.PlayerData;
+import net.TheElm.project.protections.claiming.ClaimantPlayer;
+import net.TheElm.project.protections.claiming.ClaimantTown;
+import net.minecraft.predicate.entity.EntityPredicates;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.registry.RegistryKey;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * An index of online players by the area of the world that they're in, and by the town that they're a member of
+ * Players are re-indexed as they tick, which only moves them between buckets when they cross into a new cell or change towns
+ * Only used from the server thread
+ */
+public final class PlayerIndex {
+    
+    // Cells are 16x16 chunks
+    private static final int CELL_SHIFT = 8;
+    
+    private static final @NotNull Map<UUID, Entry> PLAYERS = new HashMap<>();
+    private static final @NotNull Map<RegistryKey<World>, Long2ObjectMap<Set<Entry>>> CELLS = new HashMap<>();
+    private static final @NotNull Map<UUID, Set<Entry>> TOWNS = new HashMap<>();
+    
+    private PlayerIndex() {}
+    
+    /**
+     * Move the player into the cell and town that they're currently in
+     * @param player The player to update
+     */
+    public static void update(@NotNull ServerPlayerEntity player) {
+        Entry entry = PlayerIndex.PLAYERS.computeIfAbsent(player.getUuid(), uuid -> new Entry());
+        
+        // Respawning creates a new player entity
+        entry.player = player;
+        
+        RegistryKey<World> world = player.getWorld().getRegistryKey();
+        long cell = ChunkPos.toLong(player.getBlockX() >> PlayerIndex.CELL_SHIFT, player.getBlockZ() >> PlayerIndex.CELL_SHIFT);
+        if (entry.world != world || entry.cell != cell) {
+            PlayerIndex.removeFromCell(entry);
+            entry.world = world;
+            entry.cell = cell;
+            PlayerIndex.CELLS.computeIfAbsent(world, key -> new Long2ObjectOpenHashMap<>())
+                .computeIfAbsent(cell, key -> new LinkedHashSet<>())
+                .add(entry);
+        }
+        
+        ClaimantPlayer claimant = ((PlayerData) player).getClaim();
+        ClaimantTown town = claimant == null ? null : claimant.getTown();
+        PlayerIndex.moveToTown(entry, town == null ? null : town.getId());
+    }
+    
+    /**
+     * Move an online player into the town that they just joined or left
+     * @param player The player whose town changed
+     * @param town The new town of the player
+     */
+    public static void updateTown(@NotNull UUID player, @Nullable UUID town) {
+        Entry entry = PlayerIndex.PLAYERS.get(player);
+        if (entry != null)
+            PlayerIndex.moveToTown(entry, town);
+    }
+    
+    /**
+     * @param player The player that is leaving the server
+     */
+    public static void remove(@NotNull ServerPlayerEntity player) {
+        Entry entry = PlayerIndex.PLAYERS.get(player.getUuid());
+        if (entry == null || entry.player != player)
+            return;
+        
+        PlayerIndex.PLAYERS.remove(player.getUuid());
+        PlayerIndex.removeFromCell(entry);
+        PlayerIndex.removeFromTown(entry);
+    }
+    
+    /**
+     * @param world The world to search
+     * @param box The area to search
+     * @return The living players whose bounding box intersects the area
+     */
+    public static @NotNull List<ServerPlayerEntity> getPlayersWithin(@NotNull World world, @NotNull Box box) {
+        Long2ObjectMap<Set<Entry>> cells = PlayerIndex.CELLS.get(world.getRegistryKey());
+        if (cells == null)
+            return Collections.emptyList();
+        
+        // Pad by the width of a player so that anyone overlapping the edge is in a searched cell
+        int minX = ((int) Math.floor(box.minX) - 1) >> PlayerIndex.CELL_SHIFT;
+        int minZ = ((int) Math.floor(box.minZ) - 1) >> PlayerIndex.CELL_SHIFT;
+        int maxX = ((int) Math.floor(box.maxX) + 1) >> PlayerIndex.CELL_SHIFT;
+        int maxZ = ((int) Math.floor(box.maxZ) + 1) >> PlayerIndex.CELL_SHIFT;
+        
+        List<ServerPlayerEntity> players = new ArrayList<>();
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                Set<Entry> cell = cells.get(ChunkPos.toLong(x, z));
+                if (cell == null)
+                    continue;
+                for (Entry entry : cell) {
+                    ServerPlayerEntity player = entry.player;
+                    if (player.getWorld() == world && EntityPredicates.VALID_ENTITY.test(player) && player.getBoundingBox().intersects(box))
+                        players.add(player);
+                }
+            }
+        }
+        return players;
+    }
+    
+    /**
+     * @param town The town to get the members of
+     * @return The members of the town that are online
+     */
+    public static @NotNull List<ServerPlayerEntity> getTownMembers(@NotNull ClaimantTown town) {
+        Set<Entry> members = PlayerIndex.TOWNS.get(town.getId());
+        if (members == null)
+            return Collections.emptyList();
+        
+        List<ServerPlayerEntity> players = new ArrayList<>(members.size());
+        for (Entry entry : members)
+            players.add(entry.player);
+        return players;
+    }
+    
+    private static void removeFromCell(@NotNull Entry entry) {
+        if (entry.world == null)
+            return;
+        
+        Long2ObjectMap<Set<Entry>> cells = PlayerIndex.CELLS.get(entry.world);
+        Set<Entry> cell = cells.get(entry.cell);
+        if (cell != null && cell.remove(entry) && cell.isEmpty())
+            cells.remove(entry.cell);
+        entry.world = null;
+    }
+    private static void moveToTown(@NotNull Entry entry, @Nullable UUID town) {
+        if (Objects.equals(entry.town, town))
+            return;
+        
+        PlayerIndex.removeFromTown(entry);
+        entry.town = town;
+        if (town != null)
+            PlayerIndex.TOWNS.computeIfAbsent(town, key -> new LinkedHashSet<>())
+                .add(entry);
+    }
+    private static void removeFromTown(@NotNull Entry entry) {
+        if (entry.town == null)
+            return;
+        
+        Set<Entry> members = PlayerIndex.TOWNS.get(entry.town);
+        if (members != null && members.remove(entry) && members.isEmpty())
+            PlayerIndex.TOWNS.remove(entry.town);
+        entry.town = null;
+    }
+    
+    /*
+     * Statistics
+     */
+    public static int size() {
+        return PlayerIndex.PLAYERS.size();
+    }
+    public static int cells() {
+        int cells = 0;
+        for (Long2ObjectMap<Set<Entry>> world : PlayerIndex.CELLS.values())
+            cells += world.size();
+        return cells;
+    }
+    public static int towns() {
+        return PlayerIndex.TOWNS.size();
+    }
+    
+    private static final class Entry {
+        private ServerPlayerEntity player;
+        private @Nullable RegistryKey<World> world = null;
+        private long cell;
+        private @Nullable UUID town = null;
+    }
+}
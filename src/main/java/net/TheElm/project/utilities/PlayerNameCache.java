@@ -0,0 +1,205 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.TheElm.project.utilities;
+
+import net.TheElm.project.CoreMod;
+import net.TheElm.project.ServerCore;
+import net.TheElm.project.interfaces.NameResolver;
+import net.TheElm.project.utilities.nbt.NbtUtils;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.Util;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A persistent UUID to name store for players that aren't online
+ * Unknown names are looked up in the background by the {@link NameResolver}, never on the calling thread
+ */
+public final class PlayerNameCache {
+    
+    private static final long NEGATIVE_TTL = TimeUnit.MINUTES.toMillis(30);
+    
+    private static final @NotNull Map<UUID, String> NAMES = new ConcurrentHashMap<>();
+    private static final @NotNull Map<UUID, Long> FAILED = new ConcurrentHashMap<>();
+    private static final @NotNull Map<UUID, CompletableFuture<String>> PENDING = new ConcurrentHashMap<>();
+    
+    private static volatile @Nullable NameResolver resolver = null;
+    private static volatile boolean loaded = false;
+    private static volatile boolean dirty = false;
+    
+    private PlayerNameCache() {}
+    
+    /**
+     * Replace how unknown names are looked up, eg; To not use the network
+     * @param resolver The resolver to use, or NULL to use the default
+     */
+    public static void setResolver(@Nullable NameResolver resolver) {
+        PlayerNameCache.resolver = resolver;
+        PlayerNameCache.FAILED.clear();
+    }
+    private static @NotNull NameResolver getResolver() {
+        NameResolver resolver = PlayerNameCache.resolver;
+        if (resolver != null)
+            return resolver;
+        
+        // Offline servers can't ask Mojang about their players
+        MinecraftServer server = ServerCore.get();
+        return server.isOnlineMode() ? PlayerNameUtils::lookupPlayerName : uuid -> null;
+    }
+    
+    /**
+     * Read the stored names from the save folder
+     */
+    public static void load() {
+        synchronized (PlayerNameCache.NAMES) {
+            PlayerNameCache.NAMES.clear();
+            PlayerNameCache.FAILED.clear();
+            
+            NbtCompound tag = NbtUtils.readPlayerNames();
+            for (String key : tag.getKeys()) {
+                if (!tag.contains(key, NbtElement.STRING_TYPE))
+                    continue;
+                try {
+                    PlayerNameCache.NAMES.put(UUID.fromString(key), tag.getString(key));
+                } catch (IllegalArgumentException ignored) {}
+            }
+            
+            PlayerNameCache.dirty = false;
+            PlayerNameCache.loaded = true;
+        }
+        CoreMod.logDebug("Loaded " + PlayerNameCache.NAMES.size() + " stored player names.");
+    }
+    private static void assertLoaded() {
+        if (!PlayerNameCache.loaded) {
+            synchronized (PlayerNameCache.NAMES) {
+                if (!PlayerNameCache.loaded)
+                    PlayerNameCache.load();
+            }
+        }
+    }
+    
+    /**
+     * Write the stored names to the save folder if any have changed
+     */
+    public static void save() {
+        if (!PlayerNameCache.dirty)
+            return;
+        
+        NbtCompound tag = new NbtCompound();
+        synchronized (PlayerNameCache.NAMES) {
+            PlayerNameCache.dirty = false;
+            for (Map.Entry<UUID, String> entry : PlayerNameCache.NAMES.entrySet())
+                tag.putString(entry.getKey().toString(), entry.getValue());
+        }
+        
+        if (!NbtUtils.writePlayerNames(tag))
+            PlayerNameCache.dirty = true;
+    }
+    
+    /**
+     * Remember the name of a player
+     * @param uuid The UUID of the player
+     * @param name The name of the player
+     */
+    public static void put(@NotNull UUID uuid, @NotNull String name) {
+        PlayerNameCache.assertLoaded();
+        PlayerNameCache.FAILED.remove(uuid);
+        if (!name.equals(PlayerNameCache.NAMES.put(uuid, name)))
+            PlayerNameCache.dirty = true;
+    }
+    
+    /**
+     * Get the stored name of a player, and start looking it up if it isn't known
+     * @param uuid The UUID of the player
+     * @return The name of the player, or NULL if it isn't known yet
+     */
+    public static @Nullable String get(@NotNull UUID uuid) {
+        PlayerNameCache.assertLoaded();
+        String name = PlayerNameCache.NAMES.get(uuid);
+        if (name == null)
+            PlayerNameCache.resolve(uuid);
+        return name;
+    }
+    
+    /**
+     * Look up the name of a player in the background
+     * @param uuid The UUID of the player
+     * @return A future that completes with the name of the player, or NULL if it couldn't be found
+     */
+    public static @NotNull CompletableFuture<String> resolve(@NotNull UUID uuid) {
+        PlayerNameCache.assertLoaded();
+        String name = PlayerNameCache.NAMES.get(uuid);
+        if (name != null)
+            return CompletableFuture.completedFuture(name);
+        
+        // Don't keep asking about players that couldn't be found
+        Long failed = PlayerNameCache.FAILED.get(uuid);
+        if (failed != null) {
+            if (System.currentTimeMillis() < failed)
+                return CompletableFuture.completedFuture(null);
+            PlayerNameCache.FAILED.remove(uuid, failed);
+        }
+        
+        // Share the lookup with anything else waiting on it
+        CompletableFuture<String> future = new CompletableFuture<>();
+        CompletableFuture<String> pending = PlayerNameCache.PENDING.putIfAbsent(uuid, future);
+        if (pending != null)
+            return pending;
+        
+        NameResolver resolver = PlayerNameCache.getResolver();
+        Util.getIoWorkerExecutor().execute(() -> {
+            String resolved = null;
+            try {
+                CoreMod.logInfo("Looking up username of " + uuid);
+                resolved = resolver.resolve(uuid);
+            } catch (IOException e) {
+                CoreMod.logError(e);
+            } finally {
+                if (resolved == null) {
+                    CoreMod.logInfo("Player name of " + uuid + " [LOOKUP FAILED]");
+                    PlayerNameCache.FAILED.put(uuid, System.currentTimeMillis() + PlayerNameCache.NEGATIVE_TTL);
+                } else {
+                    CoreMod.logInfo("Player name of " + uuid + " is " + resolved);
+                    PlayerNameCache.put(uuid, resolved);
+                }
+                
+                PlayerNameCache.PENDING.remove(uuid, future);
+                future.complete(resolved);
+            }
+        });
+        
+        return future;
+    }
+}
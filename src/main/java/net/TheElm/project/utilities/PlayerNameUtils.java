@@ -25,7 +25,6 @@
 
 package net.TheElm.project.utilities;
 
-import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.mojang.authlib.GameProfile;
@@ -35,19 +34,15 @@ import net.TheElm.project.config.SewConfig;
 import net.TheElm.project.enums.ChatRooms;
 import net.TheElm.project.exceptions.NbtNotFoundException;
 import net.TheElm.project.interfaces.Nicknamable;
-import net.TheElm.project.utilities.nbt.NbtUtils;
 import net.TheElm.project.utilities.text.MessageUtils;
 import net.TheElm.project.utilities.text.StyleApplicator;
 import net.minecraft.entity.player.PlayerEntity;
-import net.minecraft.nbt.NbtCompound;
-import net.minecraft.nbt.NbtElement;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.ClickEvent;
 import net.minecraft.text.HoverEvent;
 import net.minecraft.text.LiteralText;
 import net.minecraft.text.MutableText;
-import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
 import net.minecraft.util.registry.RegistryKey;
 import net.minecraft.world.World;
@@ -128,19 +123,39 @@ public final class PlayerNameUtils {
             return playerName;
         
         String cachedName;
-        if (((cachedName = getCachedPlayerName(uuid)) != null) && (!StringUtils.isBlank(cachedName)))
+        if (((cachedName = getCachedPlayerName(uuid)) != null) && (!StringUtils.isBlank(cachedName))) {
+            PlayerNameCache.put(uuid, cachedName);
+            return new LiteralText(cachedName);
+        }
         
-        // Log that a request is being made
-        CoreMod.logInfo( "Looking up username of " + uuid.toString() );
+        // Check the stored names, or start looking the name up in the background
+        if ((cachedName = PlayerNameCache.get(uuid)) != null)
+            return new LiteralText(cachedName);
         
+        return new LiteralText("Unknown player");
+    }
+    
+    /**
+     * Look up the current name of a player from Mojang, blocks until the request is complete
+     * @param uuid The UUID of the player
+     * @return The name of the player, or NULL if the player doesn't exist
+     * @throws IOException If the request fails
+     */
+    public static @Nullable String lookupPlayerName(@NotNull UUID uuid) throws IOException {
         HttpURLConnection connection = null;
         try {
             // Create the URL
-            URL url = new URL( "https://api.mojang.com/user/profiles/" + PlayerNameUtils.stripUUID( uuid ) + "/names" );
+            URL url = new URL( "https://sessionserver.mojang.com/session/minecraft/profile/" + PlayerNameUtils.stripUUID( uuid ) );
             
             // Opening connection 
             connection = (HttpURLConnection) url.openConnection();
             connection.setRequestMethod( "GET" );
+            connection.setConnectTimeout( 5000 );
+            connection.setReadTimeout( 5000 );
+            
+            // Unknown profiles don't have a body
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK)
+                return null;
             
             // Buffered reader
             try (BufferedReader in = new BufferedReader(
@@ -152,30 +167,14 @@ public final class PlayerNameUtils {
                     content.append(line);
                 }
                 
-                JsonArray nameHistory = new JsonParser().parse(content.toString()).getAsJsonArray();
-                JsonObject nameLatest = nameHistory.get( nameHistory.size() - 1 ).getAsJsonObject();
-                
-                playerName = new LiteralText(nameLatest.get( "name" ).getAsString());
-                
-                // Save the player name to the cache
-                ServerCore.get().getUserCache().add(new GameProfile(
-                    uuid,
-                    playerName.getString()
-                ));
+                JsonObject profile = new JsonParser().parse(content.toString()).getAsJsonObject();
+                return profile.has("name") ? profile.get("name").getAsString() : null;
             }
             
-        } catch (IOException e) {
-            CoreMod.logError( e );
-            
         } finally {
             if (connection != null)
                 connection.disconnect();
-            if ( playerName == null )
-                CoreMod.logInfo("Player name of " + uuid.toString() + " [LOOKUP FAILED]");
-            else CoreMod.logInfo("Player name of " + uuid.toString() + " is " + playerName.getString());
         }
-        
-        return ( playerName == null ? new LiteralText("Unknown player") : playerName );
     }
     private static @Nullable MutableText getOnlinePlayerName(@NotNull UUID uuid) {
         MinecraftServer server = ServerCore.get();
@@ -193,9 +192,8 @@ public final class PlayerNameUtils {
     }
     private static @Nullable MutableText getOfflinePlayerNickname(@NotNull UUID uuid) {
         try {
-            NbtCompound tag = NbtUtils.readOfflinePlayerData(uuid);
-            if ((tag != null) && tag.contains("PlayerNickname", NbtElement.STRING_TYPE))
-                return Text.Serializer.fromJson(tag.getString("PlayerNickname"));
+            return OfflinePlayerCache.get(uuid)
+                .getNickname();
         } catch (NbtNotFoundException ignored) {}
         return null;
     }
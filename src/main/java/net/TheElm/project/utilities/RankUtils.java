@@ -25,20 +25,25 @@
 
 package net.TheElm.project.utilities;
 
-import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
 import com.mojang.authlib.GameProfile;
 import com.mojang.brigadier.suggestion.Suggestions;
 import com.mojang.brigadier.suggestion.SuggestionsBuilder;
 import net.TheElm.project.CoreMod;
+import net.TheElm.project.ServerCore;
 import net.TheElm.project.config.SewConfig;
+import net.TheElm.project.exceptions.InvalidPermissionsException;
 import net.TheElm.project.permissions.PermissionNode;
 import net.TheElm.project.protections.ranks.PlayerRank;
+import net.TheElm.project.protections.ranks.RankSnapshot;
 import net.TheElm.project.utilities.text.TextUtils;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.PlayerManager;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.LiteralText;
@@ -51,26 +56,30 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.List;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
 
 public final class RankUtils {
     
-    private static final HashMap<String, PlayerRank> RANKS = new LinkedHashMap<>();
-    private static final ConcurrentHashMap<UUID, PlayerRank[]> PLAYER_RANKS = new ConcurrentHashMap<>();
-    private static final String GLOBAL_RANK = "*";
+    private static final String FILE_NAME = "permissions.json";
+    
+    // Swapped as a whole when the file is reloaded, so readers never see a half loaded file
+    private static volatile @NotNull RankSnapshot SNAPSHOT = RankSnapshot.EMPTY;
+    private static final Object RELOAD_LOCK = new Object();
+    private static @Nullable Thread WATCHER = null;
     
     private RankUtils() {}
     
     public static @NotNull CompletableFuture<Suggestions> getSuggestions(@NotNull SuggestionsBuilder builder) {
-        Set<Map.Entry<String, PlayerRank>> ranks = RankUtils.RANKS.entrySet();
+        Set<Map.Entry<String, PlayerRank>> ranks = RankUtils.SNAPSHOT.getRanks().entrySet();
         for (Map.Entry<String, PlayerRank> entry : ranks) {
             String name = entry.getKey();
             PlayerRank rank = entry.getValue();
@@ -88,18 +97,17 @@ public final class RankUtils {
      * Stored ranks
      */
     public static @Nullable PlayerRank getRank(@Nullable String identifier) {
-        if (identifier == null) return null;
-        return RankUtils.RANKS.get(identifier);
+        return RankUtils.SNAPSHOT.getRank(identifier);
     }
     public static @NotNull Set<String> getRanks() {
-        return RankUtils.RANKS.keySet();
+        return RankUtils.SNAPSHOT.getRanks().keySet();
     }
     
     /*
      * Get player ranks
      */
     public static @NotNull PlayerRank[] getPlayerRanks(@NotNull UUID uuid) {
-        return RankUtils.PLAYER_RANKS.computeIfAbsent(uuid, RankUtils::loadPlayerRanks);
+        return RankUtils.SNAPSHOT.getPlayerRanks(uuid);
     }
     public static @NotNull PlayerRank[] getPlayerRanks(@NotNull GameProfile profile) {
         return RankUtils.getPlayerRanks(profile.getId());
@@ -107,43 +115,10 @@ public final class RankUtils {
     public static @NotNull PlayerRank[] getPlayerRanks(@NotNull ServerPlayerEntity player) {
         return RankUtils.getPlayerRanks(player.getUuid());
     }
-    public static @NotNull PlayerRank[] loadPlayerRanks(@NotNull GameProfile profile) {
-        return RankUtils.loadPlayerRanks(profile);
-    }
-    public static @NotNull PlayerRank[] loadPlayerRanks(@NotNull UUID profile) {
-        String uuid = profile.toString();
-        try {
-            JsonObject json = RankUtils.filePlayers();
-            List<PlayerRank> ranks = new ArrayList<>();
-            
-            // Everyone is a "GLOBAL"
-            PlayerRank rank = getRank(GLOBAL_RANK);
-            if (rank != null) ranks.add(rank);
-            
-            // Get all the players listed ranks
-            JsonElement list;
-            if ((json.has(uuid) && ((list = json.get(uuid)) instanceof JsonArray)) || (json.has(GLOBAL_RANK) && ((list = json.get(GLOBAL_RANK)) instanceof JsonArray))) {
-                for (JsonElement listElement : list.getAsJsonArray()) {
-                    String identifier = listElement.getAsString();
-                    if (!GLOBAL_RANK.equals(identifier)) {
-                        rank = getRank(identifier);
-                        if (rank != null) ranks.add(rank);
-                    }
-                }
-            }
-            
-            // Sort the ranks in ascending order
-            ranks.sort(PlayerRank::compareTo);
-            
-            // Return as a primitive array
-            return ranks.toArray(new PlayerRank[0]);
-        } catch (FileNotFoundException e) {
-            return new PlayerRank[0];
-        }
-    }
     
     public static void clearRanks() {
-        RankUtils.PLAYER_RANKS.clear();
+        RankUtils.SNAPSHOT.clearPlayers();
+        ServerListUtils.invalidate();
     }
     
     public static boolean hasPermission(@NotNull ServerCommandSource source, @Nullable PermissionNode permission) {
@@ -180,81 +155,107 @@ public final class RankUtils {
         // Check if enabled in the config
         if (!SewConfig.get(SewConfig.HANDLE_PERMISSIONS))
             return false;
-        RankUtils.RANKS.clear();
         
-        CoreMod.logInfo("Loading permissions file.");
+        synchronized (RankUtils.RELOAD_LOCK) {
+            CoreMod.logInfo("Loading permissions file.");
+            
+            // Read from the `permissions.json` file
+            try {
+                RankUtils.SNAPSHOT = RankSnapshot.parse(RankUtils.fileLoad());
+                return true;
+            } catch (FileNotFoundException e) {
+                RankUtils.SNAPSHOT = RankSnapshot.EMPTY;
+                if ( verbose ) CoreMod.logError( e );
+                return false;
+            } catch (InvalidPermissionsException e) {
+                // Keep using the ranks that were loaded before the bad edit
+                for (String error : e.getErrors())
+                    CoreMod.logError(error);
+                CoreMod.logError("The permissions file was not loaded, the previous permissions are still in use.");
+                return false;
+            } catch (IOException | JsonParseException | IllegalStateException e) {
+                CoreMod.logError("The permissions file could not be read, the previous permissions are still in use.", e);
+                return false;
+            }
+        }
+    }
+    private static @NotNull JsonObject fileLoad() throws IOException {
+        File ranksFile = new File(
+            CoreMod.getConfDir(),
+            RankUtils.FILE_NAME
+        );
         
-        // Read from the `ranks.json` file
-        try {
-            JsonObject object = RankUtils.fileRanks();
-            for (Map.Entry<String, JsonElement> list : object.entrySet()) {
-                // Get the pair information
-                String identifier = list.getKey();
-                JsonElement tmp = list.getValue();
-                if (!tmp.isJsonObject()) continue;
-    
-                // Get the rank information
-                JsonObject rankData = tmp.getAsJsonObject();
-    
-                // Get how the rank should be displayed
-                String display = null;
-                if (rankData.has("display") && (tmp = (rankData.get("display"))).getAsJsonPrimitive().isString())
-                    display = tmp.getAsString();
-    
-                // Create the rank
-                PlayerRank rank = new PlayerRank(identifier, display);
-    
-                // Set the rank parent
-                if (rankData.has("inherit") && (tmp = (rankData.get("inherit"))).getAsJsonPrimitive().isString())
-                    rank.setParent(tmp.getAsString());
+        try (Reader reader = new FileReader(ranksFile)) {
+            JsonElement element = JsonParser.parseReader(reader);
+            return element.getAsJsonObject();
+        }
+    }
     
-                // Add the ranks permissions
-                if (rankData.has("permissions") && (tmp = rankData.get("permissions")).isJsonArray()) {
-                    for (JsonElement node : tmp.getAsJsonArray()) {
-                        if (node.getAsJsonPrimitive().isString())
-                            rank.addNode(node.getAsString());
-                    }
+    /*
+     * Hot reloading
+     */
+    public static synchronized void startWatching() {
+        if (RankUtils.WATCHER != null || !SewConfig.get(SewConfig.HANDLE_PERMISSIONS) || !SewConfig.get(SewConfig.PERMISSIONS_HOT_RELOAD))
+            return;
+        
+        Thread thread = new Thread(RankUtils::watch, "Permissions watcher");
+        thread.setDaemon(true);
+        thread.start();
+        
+        RankUtils.WATCHER = thread;
+    }
+    public static synchronized void stopWatching() {
+        if (RankUtils.WATCHER != null) {
+            RankUtils.WATCHER.interrupt();
+            RankUtils.WATCHER = null;
+        }
+    }
+    private static void watch() {
+        Path directory = CoreMod.getConfDir().toPath();
+        try (WatchService service = directory.getFileSystem().newWatchService()) {
+            directory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = service.take();
+                boolean changed = RankUtils.isPermissionsChange(key);
+                key.reset();
+                if (!changed)
+                    continue;
+                
+                // Editors can save a file in more than one write, wait for them to settle
+                Thread.sleep(500);
+                while ((key = service.poll()) != null) {
+                    key.pollEvents();
+                    key.reset();
                 }
                 
-                RANKS.put(identifier, rank);
+                CoreMod.logInfo("Permissions file was changed, reloading.");
+                if (RankUtils.reload(true))
+                    RankUtils.onReloaded(ServerCore.get());
             }
-            
-            return true;
+        } catch (InterruptedException ignored) {
         } catch (IOException e) {
-            if ( verbose ) CoreMod.logError( e );
-            return false;
-        } finally {
-            // Permission to interact with the world should be given by default, unless taken away
-            PlayerRank rank;
-            if ((rank = getRank(GLOBAL_RANK)) != null) {
-                if (!( rank.isAdditive("world.interact") || rank.isSubtractive("world.interact") )) {
-                    rank.addNode("+world.interact");
-                    CoreMod.logInfo("Added interact to the EVERYONE perm.");
-                } else CoreMod.logInfo("EVERYONE perm has perm.");
-            } else CoreMod.logInfo("Could not find EVERYONE perm.");
+            CoreMod.logError("Could not watch the permissions file for changes.", e);
         }
     }
-    private static @NotNull JsonObject fileRanks() throws FileNotFoundException {
-        JsonObject main = RankUtils.fileLoad();
-        if (main.has("ranks") && (main.get("ranks") instanceof JsonObject jsonObject))
-            return jsonObject;
-        return new JsonObject();
-    }
-    private static @NotNull JsonObject filePlayers() throws FileNotFoundException {
-        JsonObject main = RankUtils.fileLoad();
-        if (main.has("players") && (main.get("players") instanceof JsonObject jsonObject))
-            return jsonObject;
-        return new JsonObject();
+    private static boolean isPermissionsChange(@NotNull WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path path && RankUtils.FILE_NAME.equals(path.getFileName().toString()))
+                changed = true;
+        }
+        return changed;
     }
-    private static @NotNull JsonObject fileLoad() throws FileNotFoundException {
-        File ranksFile = new File(
-            CoreMod.getConfDir(),
-            "permissions.json"
-        );
-        
-        JsonParser jp = new JsonParser();
-        JsonElement element = jp.parse(new FileReader(ranksFile));
-        return element.getAsJsonObject();
+    private static void onReloaded(@NotNull MinecraftServer server) {
+        server.execute(() -> {
+            PlayerManager playerManager = server.getPlayerManager();
+            
+            // Resend the player the command tree
+            RankUtils.clearRanks();
+            for (ServerPlayerEntity player : playerManager.getPlayerList())
+                playerManager.sendCommandTree(player);
+        });
     }
+    
     static { reload(); }
 }
@@ -0,0 +1,118 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.TheElm.project.utilities;
+
+import net.TheElm.project.config.SewConfig;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks when the cached server list ping response needs to be rebuilt,
+ *   and which clients are pinging too often to be allowed to rebuild it
+ */
+public final class ServerListUtils {
+    
+    private static final long WINDOW = TimeUnit.MINUTES.toNanos(1);
+    private static final int MAX_TRACKED = 4096;
+    
+    private static final Map<InetAddress, Window> REQUESTS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Boolean> THROTTLED = ThreadLocal.withInitial(() -> Boolean.FALSE);
+    private static volatile int GENERATION = 0;
+    
+    private ServerListUtils() {}
+    
+    /**
+     * Mark the cached ping response as outdated (Players joining, leaving, changing names or ranks)
+     */
+    public static void invalidate() {
+        ServerListUtils.GENERATION++;
+    }
+    public static int getGeneration() {
+        return ServerListUtils.GENERATION;
+    }
+    
+    /**
+     * @param ttl The time (In nanoseconds) that a cached response was built at
+     * @param generation The generation that a cached response was built at
+     * @return If the cached response should be rebuilt
+     */
+    public static boolean isExpired(long ttl, int generation) {
+        if (ServerListUtils.isThrottled())
+            return false;
+        return generation != ServerListUtils.GENERATION
+            || System.nanoTime() - ttl >= TimeUnit.SECONDS.toNanos(SewConfig.get(SewConfig.SERVER_PING_CACHE));
+    }
+    
+    /**
+     * @return If the current ping request has gone over the limit and should only be given cached responses
+     */
+    public static boolean isThrottled() {
+        return ServerListUtils.THROTTLED.get();
+    }
+    
+    /**
+     * Start handling a ping request from an address, throttling the address if it has gone over the limit
+     * @param address The remote address of the connection
+     */
+    public static void onRequest(@Nullable SocketAddress address) {
+        int limit = SewConfig.get(SewConfig.SERVER_PING_LIMIT);
+        if (limit <= 0 || !(address instanceof InetSocketAddress inet) || inet.getAddress() == null) {
+            ServerListUtils.THROTTLED.set(Boolean.FALSE);
+            return;
+        }
+        
+        long now = System.nanoTime();
+        if (ServerListUtils.REQUESTS.size() >= ServerListUtils.MAX_TRACKED)
+            ServerListUtils.REQUESTS.values().removeIf(window -> window.isOver(now));
+        
+        Window window = ServerListUtils.REQUESTS.compute(inet.getAddress(), (key, existing) -> existing == null || existing.isOver(now) ? new Window(now) : existing);
+        ServerListUtils.THROTTLED.set(window.requests.incrementAndGet() > limit);
+    }
+    public static void onResponded() {
+        ServerListUtils.THROTTLED.set(Boolean.FALSE);
+    }
+    
+    private static final class Window {
+        private final long started;
+        private final @NotNull AtomicInteger requests = new AtomicInteger();
+        
+        private Window(long started) {
+            this.started = started;
+        }
+        
+        private boolean isOver(long now) {
+            return now - this.started >= ServerListUtils.WINDOW;
+        }
+    }
+}
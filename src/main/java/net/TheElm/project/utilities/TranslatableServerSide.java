@@ -43,14 +43,24 @@ import net.minecraft.util.Formatting;
 import net.minecraft.util.Util;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.NumberFormat;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Locale;
-import java.util.Objects;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public final class TranslatableServerSide {
     
+    private static volatile Map<String, Map<String, Template>> LANGUAGES = null;
+    
     private TranslatableServerSide() {}
     
     public static void send(@NotNull ServerCommandSource source, String key, Object... objects) {
@@ -74,7 +84,7 @@ public final class TranslatableServerSide {
         return TranslatableServerSide.text(((PlayerServerLanguage)player).getClientLanguage(), key, objects);
     }
     public static @NotNull MutableText text(@NotNull Locale language, @NotNull String key, @NotNull Object... objects) {
-        String translation = TranslatableServerSide.getTranslation(language, key);
+        Template translation = TranslatableServerSide.getTranslation(language, key);
         
         for (int i = 0; i < objects.length; ++i) {
             Object obj = objects[i];
@@ -85,52 +95,7 @@ public final class TranslatableServerSide {
             }
         }
         
-        return TranslatableServerSide.replace(language, translation, objects);
-    }
-    private static @NotNull MutableText replace(@NotNull Locale language, @NotNull String text, @NotNull Object... objects) {
-        if ( objects.length <= 0 )
-            return new LiteralText(text);
-        String[] separated = text.split( "((?<=%[a-z])|(?=%[a-z]))" );
-        
-        // Get the formatter for numbers
-        NumberFormat formatter = NumberFormat.getInstance( language );
-        int c = 0;
-        
-        MutableText out = null;
-        for ( String seg : separated ) {
-            // If is a variable
-            if ( matchAny( seg, "%s", "%d", "%f" ) ) {
-                // Get the objects that were provided
-                Object obj = objects[c++];
-                if (obj instanceof ServerTranslatable translatable)
-                    obj = translatable.translate(language).formatted(Formatting.AQUA);
-                
-                if ( ("%s".equalsIgnoreCase(seg)) && ( obj instanceof MutableText mutableText) ) {
-                    // Create if null
-                    if (out == null) out = new LiteralText("");
-                    // Color translations
-                    if (obj instanceof TranslatableText translatableText) translatableText.formatted(Formatting.DARK_AQUA);
-                    // Append
-                    out.append(mutableText);
-                } else if ( ("%d".equalsIgnoreCase( seg )) && (obj instanceof Number number) ) {
-                    // Create if null
-                    if (out == null) out = new LiteralText("");
-                    // Append
-                    out.append(new LiteralText(formatter.format(number.longValue())).formatted(Formatting.AQUA));
-                } else {
-                    // Create if null
-                    if (out == null) out = new LiteralText(obj.toString());
-                    // Append if not null
-                    else out.append(obj.toString());
-                }
-            } else {
-                // If not a variable
-                if (out == null) out = new LiteralText(seg);
-                else out.append(seg);
-            }
-        }
-        
-        return (out == null ? new LiteralText( "" ) : out);
+        return translation.render(language, objects);
     }
     
     public static @NotNull ExceptionTranslatableServerSide exception(String key) {
@@ -140,34 +105,80 @@ public final class TranslatableServerSide {
         return new ExceptionTranslatableServerSide(key);
     }
     
-    private static String getTranslation(Locale language, String key) {
-        JsonObject object = TranslatableServerSide.readLanguageFile( language );
-        if ( !Objects.equals(language, Locale.US) && !object.has(key))
-            return TranslatableServerSide.getTranslation(Locale.US, key);
-        JsonElement element = object.get( key );
-        if ( element == null ) {
-            CoreMod.logInfo( "Missing translation key \"" + key + "\"!" );
-            return "";
+    private static @NotNull Template getTranslation(@NotNull Locale language, @NotNull String key) {
+        Map<String, Map<String, Template>> languages = TranslatableServerSide.getLanguages();
+        Map<String, Template> file = languages.get(TranslatableServerSide.getLanguageKey(language));
+        
+        Template template;
+        if (file != null && (template = file.get(key)) != null)
+            return template;
+        
+        // Fallback to English
+        Map<String, Template> fallback = languages.get(TranslatableServerSide.getLanguageKey(Locale.US));
+        if (fallback != null && (template = fallback.get(key)) != null)
+            return template;
+        
+        CoreMod.logInfo( "Missing translation key \"" + key + "\"!" );
+        return Template.EMPTY;
+    }
+    private static @NotNull Map<String, Map<String, Template>> getLanguages() {
+        Map<String, Map<String, Template>> languages = TranslatableServerSide.LANGUAGES;
+        if (languages == null) {
+            synchronized (TranslatableServerSide.class) {
+                if ((languages = TranslatableServerSide.LANGUAGES) == null)
+                    languages = TranslatableServerSide.LANGUAGES = TranslatableServerSide.readLanguageFiles();
+            }
+        }
+        return languages;
+    }
+    
+    /**
+     * Re-read all of the language files from the mod
+     * @return The number of languages that were loaded
+     */
+    public static int reload() {
+        Map<String, Map<String, Template>> languages = TranslatableServerSide.readLanguageFiles();
+        TranslatableServerSide.LANGUAGES = languages;
+        return languages.size();
+    }
+    private static @NotNull Map<String, Map<String, Template>> readLanguageFiles() {
+        Map<String, Map<String, Template>> languages = new HashMap<>();
+        
+        try (Stream<Path> files = Files.list(CoreMod.getMod().getPath("assets/" + CoreMod.MOD_ID + "/lang"))) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                String fileName = path.getFileName().toString();
+                if (!fileName.endsWith(".json"))
+                    continue;
+                
+                try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                    languages.put(fileName.substring(0, fileName.length() - 5).toLowerCase(), TranslatableServerSide.readLanguageFile(reader));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            CoreMod.logError("Failed to read the language files", e);
         }
-        return element.getAsString();
-    }
-    private static JsonObject readLanguageFile(Locale language) {
-        String filePath;
-        InputStream resource = CoreMod.class.getResourceAsStream(
-            filePath = TranslatableServerSide.getResourcePath( language )
-        );
-        if (resource == null) {
-            // If not already using English, Fallback to English
-            if (language != Locale.US)
-                return TranslatableServerSide.readLanguageFile(Locale.US);
-            // Throw an exception
-            throw new NullPointerException("Could not read language file \"" + filePath + "\"");
+        
+        // Always make sure that English is available
+        String fallback = TranslatableServerSide.getLanguageKey(Locale.US);
+        if (!languages.containsKey(fallback)) {
+            String filePath = "/assets/" + CoreMod.MOD_ID + "/lang/" + fallback + ".json";
+            InputStream resource = CoreMod.class.getResourceAsStream(filePath);
+            if (resource == null)
+                throw new NullPointerException("Could not read language file \"" + filePath + "\"");
+            languages.put(fallback, TranslatableServerSide.readLanguageFile(new InputStreamReader(resource, StandardCharsets.UTF_8)));
         }
-        // Return the JSON language file
-        return new JsonParser().parse(new InputStreamReader( resource )).getAsJsonObject();
+        
+        return Collections.unmodifiableMap(languages);
     }
-    private static @NotNull String getResourcePath(@NotNull Locale locale) {
-        return "/assets/" + CoreMod.MOD_ID + "/lang/" + (locale.getLanguage() + "_" + locale.getCountry()).toLowerCase() + ".json";
+    private static @NotNull Map<String, Template> readLanguageFile(@NotNull Reader reader) {
+        JsonObject object = JsonParser.parseReader(reader).getAsJsonObject();
+        Map<String, Template> templates = new HashMap<>();
+        for (Map.Entry<String, JsonElement> entry : object.entrySet())
+            templates.put(entry.getKey(), Template.compile(entry.getValue().getAsString()));
+        return Collections.unmodifiableMap(templates);
+    }
+    private static @NotNull String getLanguageKey(@NotNull Locale locale) {
+        return (locale.getLanguage() + "_" + locale.getCountry()).toLowerCase();
     }
     
     private static boolean matchAny(@NotNull String needle, @NotNull String... haystack ) {
@@ -178,4 +189,81 @@ public final class TranslatableServerSide {
         return false;
     }
     
+    /**
+     * A translation string split ahead of time into literal text and variables
+     */
+    private static final class Template {
+        private static final Template EMPTY = new Template("", new String[0], new char[0]);
+        
+        private final @NotNull String raw;
+        private final @NotNull String[] segments;
+        private final @NotNull char[] types; // The variable type, or 0 if the segment is literal text
+        
+        private Template(@NotNull String raw, @NotNull String[] segments, @NotNull char[] types) {
+            this.raw = raw;
+            this.segments = segments;
+            this.types = types;
+        }
+        
+        private static @NotNull Template compile(@NotNull String text) {
+            String[] separated = text.split( "((?<=%[a-z])|(?=%[a-z]))" );
+            char[] types = new char[separated.length];
+            for (int i = 0; i < separated.length; i++) {
+                String seg = separated[i];
+                if ( matchAny( seg, "%s", "%d", "%f" ) )
+                    types[i] = Character.toLowerCase(seg.charAt(1));
+            }
+            return new Template(text, separated, types);
+        }
+        
+        private @NotNull MutableText render(@NotNull Locale language, @NotNull Object... objects) {
+            if ( objects.length <= 0 )
+                return new LiteralText(this.raw);
+            
+            // Get the formatter for numbers
+            NumberFormat formatter = null;
+            int c = 0;
+            
+            MutableText out = null;
+            for ( int i = 0; i < this.segments.length; i++ ) {
+                String seg = this.segments[i];
+                char type = this.types[i];
+                
+                // If is a variable
+                if ( type != 0 && c < objects.length ) {
+                    // Get the objects that were provided
+                    Object obj = objects[c++];
+                    if (obj instanceof ServerTranslatable translatable)
+                        obj = translatable.translate(language).formatted(Formatting.AQUA);
+                    
+                    if ( (type == 's') && ( obj instanceof MutableText mutableText) ) {
+                        // Create if null
+                        if (out == null) out = new LiteralText("");
+                        // Color translations
+                        if (obj instanceof TranslatableText translatableText) translatableText.formatted(Formatting.DARK_AQUA);
+                        // Append
+                        out.append(mutableText);
+                    } else if ( (type == 'd') && (obj instanceof Number number) ) {
+                        // Create if null
+                        if (out == null) out = new LiteralText("");
+                        if (formatter == null) formatter = NumberFormat.getInstance( language );
+                        // Append
+                        out.append(new LiteralText(formatter.format(number.longValue())).formatted(Formatting.AQUA));
+                    } else {
+                        // Create if null
+                        if (out == null) out = new LiteralText(obj.toString());
+                        // Append if not null
+                        else out.append(obj.toString());
+                    }
+                } else {
+                    // If not a variable
+                    if (out == null) out = new LiteralText(seg);
+                    else out.append(seg);
+                }
+            }
+            
+            return (out == null ? new LiteralText( "" ) : out);
+        }
+    }
+    
 }
@@ -71,9 +71,11 @@ import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.registry.Registry;
 import net.minecraft.util.registry.RegistryKey;
+import net.minecraft.world.Heightmap;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldProperties;
 import net.minecraft.world.biome.Biome;
+import net.minecraft.world.chunk.Chunk;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -112,7 +114,7 @@ public final class WarpUtils {
         this.updateWarpPos(pos);
     }
     
-    private boolean updateWarpPos(@Nullable BlockPos warpPos) {
+    public boolean updateWarpPos(@Nullable BlockPos warpPos) {
         if (warpPos == null)
             return false;
         
@@ -125,17 +127,6 @@ public final class WarpUtils {
         return true;
     }
     
-    public boolean getNewWarpPositionIn() {
-        int x = WarpUtils.getRandom(this.createWarpAt.getX());
-        int z = WarpUtils.getRandom(this.createWarpAt.getZ());
-        int height = this.world.getDimension().getHeight();
-        
-        WarpUtils.logSearchBegin(this.world, x, z);
-        this.updateWarpPos(new BlockPos(x, height, z));
-        
-        // Return if the warp is a valid position
-        return this.updateWarpPos(WarpUtils.isValid(this.world, this.createWarpAt,height, 10, true));
-    }
     public @Nullable BlockPos getLastWarpPositionIn() {
         return this.createWarpAt;
     }
@@ -169,7 +160,7 @@ public final class WarpUtils {
         return this.createWarpAt.up(2);
     }
     
-    private static int getRandom(int position) {
+    public static int getRandom(int position) {
         int random = ThreadLocalRandom.current().nextInt(
             position - SewConfig.get(SewConfig.WARP_MAX_DISTANCE),
             position + SewConfig.get(SewConfig.WARP_MAX_DISTANCE)
@@ -177,6 +168,15 @@ public final class WarpUtils {
         return ( 16 * Math.round(random >> 4) ) + 8;
     }
     
+    /**
+     * Find the ground of a loaded chunk from its heightmap, rather than walking down from the build limit
+     */
+    public static @Nullable BlockPos getSurfacePos(@NotNull World world, @NotNull Chunk chunk, int x, int z) {
+        WarpUtils.logSearchBegin(world, x, z);
+        
+        int top = chunk.sampleHeightmap(Heightmap.Type.MOTION_BLOCKING, x, z);
+        return WarpUtils.isValid(world, new BlockPos(x, top + 1, z), 8, 0, true);
+    }
     private static @Nullable BlockPos isValid(@NotNull final World world, @NotNull final BlockPos startingPos, final int maxDown, final int maxUp, boolean verbose) {
         int count = 0;
         int steps = maxDown + maxUp;
@@ -425,12 +425,9 @@ public final class WarpUtils {
             return WarpUtils.getWarps(player);
         
         try {
-            // Read from the NBT file
-            NbtCompound playerNBT;
-            if ((playerNBT = NbtUtils.readOfflinePlayerData(uuid)) == null)
-                return Collections.emptyMap();
-            
-            return WarpUtils.fromNBT(playerNBT);
+            // Read from the offline players data
+            return OfflinePlayerCache.get(uuid)
+                .getWarps();
         } catch (NbtNotFoundException ignored) {}
         
         return Collections.emptyMap();
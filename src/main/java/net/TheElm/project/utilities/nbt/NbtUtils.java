@@ -75,9 +75,12 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.regex.Pattern;
 
 public final class NbtUtils {
     
+    private static final @NotNull Pattern CLAIM_FILE = Pattern.compile("^(player|town)_[0-9a-f\\-]{36}\\.dat$");
+    
     private NbtUtils() {}
     
     public static @NotNull Path levelNameFolder() {
@@ -152,7 +155,39 @@ public final class NbtUtils {
         
         return NbtUtils.emptyTag(type, uuid);
     }
-    public static boolean writeClaimData(@NotNull Claimant claimant) {
+    /**
+     * Read every saved Claimant file, without creating the Claimants
+     * @param action The consumer of each files data
+     */
+    public static void forEachClaimData(@NotNull Consumer<NbtCompound> action) {
+        File folder = new File(
+            NbtUtils.levelNameFolder().toFile(),
+            "sewing-machine"
+        );
+        
+        File[] files = folder.listFiles((directory, name) -> NbtUtils.CLAIM_FILE.matcher(name).matches());
+        if (files == null)
+            return;
+        
+        for (File file : files) {
+            try (FileInputStream stream = new FileInputStream(file)) {
+                action.accept(NbtIo.readCompressed(stream));
+            } catch (IOException e) {
+                CoreMod.logError( "Error reading " + file.getName() );
+                CoreMod.logError( e );
+            }
+        }
+    }
+    public static @NotNull NbtCompound writeClaimTag(@NotNull Claimant claimant) {
+        // Create an empty tag
+        NbtCompound write = NbtUtils.emptyTag(claimant.getType(), claimant.getId());
+        
+        // Write the save data
+        claimant.writeCustomDataToTag(write);
+        
+        return write;
+    }
+    public static boolean writeClaimData(@NotNull Claimant.ClaimantType type, @NotNull UUID uuid, @NotNull NbtCompound write) {
         File folder = new File(
             NbtUtils.levelNameFolder().toFile(),
             "sewing-machine"
@@ -164,19 +199,128 @@ public final class NbtUtils {
         
         File file = new File(
             folder,
-            claimant.getType().name().toLowerCase() + "_" + claimant.getId().toString() + ".dat"
+            type.name().toLowerCase() + "_" + uuid.toString() + ".dat"
         );
         
-        // Create an empty tag
-        NbtCompound write = NbtUtils.emptyTag(claimant.getType(), claimant.getId());
-        
-        // Write the save data
-        claimant.writeCustomDataToTag(write);
-        
         // Don't write an empty file
         return write.isEmpty() || NbtUtils.writeBackupAndMove(file, write);
     }
     
+    /*
+     * Claim index
+     */
+    public static @NotNull NbtCompound readClaimIndex(@NotNull RegistryKey<World> world) {
+        File file = NbtUtils.claimIndexFile(world);
+        if (!file.exists())
+            return new NbtCompound();
+        
+        try (FileInputStream stream = new FileInputStream(file)) {
+            return NbtIo.readCompressed(stream);
+            
+        } catch (IOException e) {
+            CoreMod.logError( "Error reading claim index of " + world.getValue() );
+            CoreMod.logError( e );
+        }
+        
+        return new NbtCompound();
+    }
+    public static boolean writeClaimIndex(@NotNull RegistryKey<World> world, @NotNull NbtCompound tag) {
+        File file = NbtUtils.claimIndexFile(world);
+        
+        // If the directories don't exist
+        File folder = file.getParentFile();
+        if ((!folder.exists()) && (!folder.mkdirs()))
+            return false;
+        
+        return NbtUtils.writeBackupAndMove(file, tag);
+    }
+    private static @NotNull File claimIndexFile(@NotNull RegistryKey<World> world) {
+        return Paths.get(
+            NbtUtils.worldSaveFolder(world).toAbsolutePath().toString(),
+            CoreMod.MOD_ID,
+            "claims.dat"
+        ).toFile();
+    }
+    
+    /*
+     * Player names
+     */
+    public static @NotNull NbtCompound readPlayerNames() {
+        File file = NbtUtils.playerNamesFile();
+        if (!file.exists())
+            return new NbtCompound();
+        
+        try (FileInputStream stream = new FileInputStream(file)) {
+            return NbtIo.readCompressed(stream);
+            
+        } catch (IOException e) {
+            CoreMod.logError( "Error reading player names" );
+            CoreMod.logError( e );
+        }
+        
+        return new NbtCompound();
+    }
+    public static boolean writePlayerNames(@NotNull NbtCompound tag) {
+        File file = NbtUtils.playerNamesFile();
+        
+        // If the directories don't exist
+        File folder = file.getParentFile();
+        if ((!folder.exists()) && (!folder.mkdirs()))
+            return false;
+        
+        return NbtUtils.writeBackupAndMove(file, tag);
+    }
+    private static @NotNull File playerNamesFile() {
+        return Paths.get(
+            NbtUtils.levelNameFolder().toAbsolutePath().toString(),
+            CoreMod.MOD_ID,
+            "player_names.dat"
+        ).toFile();
+    }
+    
+    /*
+     * Money ledger
+     */
+    public static @NotNull NbtCompound readMoneyLedger() {
+        File file = NbtUtils.moneyLedgerFile();
+        if (!file.exists())
+            return new NbtCompound();
+        
+        try (FileInputStream stream = new FileInputStream(file)) {
+            return NbtIo.readCompressed(stream);
+            
+        } catch (IOException e) {
+            CoreMod.logError( "Error reading money ledger" );
+            CoreMod.logError( e );
+        }
+        
+        return new NbtCompound();
+    }
+    public static boolean writeMoneyLedger(@NotNull NbtCompound tag) {
+        File file = NbtUtils.moneyLedgerFile();
+        
+        // If the directories don't exist
+        File folder = file.getParentFile();
+        if ((!folder.exists()) && (!folder.mkdirs()))
+            return false;
+        
+        return NbtUtils.writeBackupAndMove(file, tag);
+    }
+    private static @NotNull File moneyLedgerFile() {
+        return Paths.get(
+            NbtUtils.levelNameFolder().toAbsolutePath().toString(),
+            CoreMod.MOD_ID,
+            "money_ledger.dat"
+        ).toFile();
+    }
+    public static @NotNull File moneyLedgerLog() {
+        return Paths.get(
+            NbtUtils.levelNameFolder().toAbsolutePath().toString(),
+            CoreMod.MOD_ID,
+            "money_ledger.log"
+        ).toFile();
+    }
+    
     /*
      * Additional World DAT
      */
@@ -34,6 +34,7 @@ import net.TheElm.project.objects.ChatFormat;
 import net.TheElm.project.protections.claiming.ClaimantPlayer;
 import net.TheElm.project.protections.claiming.ClaimantTown;
 import net.TheElm.project.utilities.FormattingUtils;
+import net.TheElm.project.utilities.PlayerIndex;
 import net.TheElm.project.utilities.TranslatableServerSide;
 import net.minecraft.block.Block;
 import net.minecraft.client.option.ChatVisibility;
@@ -42,7 +43,6 @@ import net.minecraft.enchantment.EnchantmentHelper;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.network.MessageType;
-import net.minecraft.predicate.entity.EntityPredicates;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.PlayerManager;
 import net.minecraft.server.command.ServerCommandSource;
@@ -75,12 +75,25 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
 import java.util.stream.Stream;
 
 public final class MessageUtils {
+    private static final @NotNull LongAdder[] DELIVERED = new LongAdder[ChatRooms.values().length];
+    private static final @NotNull LongAdder[] DELIVERY_NANOS = new LongAdder[ChatRooms.values().length];
+    private static final @NotNull LongAccumulator[] DELIVERY_MAX = new LongAccumulator[ChatRooms.values().length];
+    static {
+        for (int i = 0; i < ChatRooms.values().length; i++) {
+            MessageUtils.DELIVERED[i] = new LongAdder();
+            MessageUtils.DELIVERY_NANOS[i] = new LongAdder();
+            MessageUtils.DELIVERY_MAX[i] = new LongAccumulator(Math::max, 0L);
+        }
+    }
+    
     private MessageUtils() {}
     
     // General send
@@ -88,23 +101,31 @@ public final class MessageUtils {
         MessageUtils.sendTo(chatRoom, player, Collections.emptyList(), chatText);
     }
     public static boolean sendTo(@NotNull ChatRooms chatRoom, @NotNull ServerPlayerEntity player, @NotNull Collection<ServerPlayerEntity> tags, @NotNull Text chatText) {
-        switch (chatRoom) {
-            // Local message
-            case LOCAL: {
-                return MessageUtils.sendToLocal(player.world, player.getBlockPos(), tags, chatText);
-            }
-            // Global message
-            case GLOBAL: {
-                MessageUtils.sendToAll(chatText, tags);
-                return true;
-            }
-            // Message to the players town
-            case TOWN: {
-                ClaimantPlayer claimantPlayer = ((PlayerData) player).getClaim();
-                return MessageUtils.sendToTown(claimantPlayer.getTown(), tags, chatText);
+        long start = System.nanoTime();
+        try {
+            // Make sure the sender is indexed where they are right now
+            PlayerIndex.update(player);
+            
+            switch (chatRoom) {
+                // Local message
+                case LOCAL: {
+                    return MessageUtils.sendToLocal(player.world, player.getBlockPos(), tags, chatText);
+                }
+                // Global message
+                case GLOBAL: {
+                    MessageUtils.sendToAll(chatText, tags);
+                    return true;
+                }
+                // Message to the players town
+                case TOWN: {
+                    ClaimantPlayer claimantPlayer = ((PlayerData) player).getClaim();
+                    return MessageUtils.sendToTown(claimantPlayer.getTown(), tags, chatText);
+                }
             }
+            return false;
+        } finally {
+            MessageUtils.recordDelivery(chatRoom, System.nanoTime() - start);
         }
-        return false;
     }
     
     // Send a text blob from a target to a player
@@ -116,6 +137,14 @@ public final class MessageUtils {
                 .formatted(Formatting.RED, Formatting.ITALIC), false);
     }
     public static boolean sendAsWhisper(@Nullable ServerPlayerEntity sender, @NotNull ServerPlayerEntity target, @NotNull Text text) {
+        long start = System.nanoTime();
+        try {
+            return MessageUtils.whisper(sender, target, text);
+        } finally {
+            MessageUtils.recordDelivery(ChatRooms.WHISPER, System.nanoTime() - start);
+        }
+    }
+    private static boolean whisper(@Nullable ServerPlayerEntity sender, @NotNull ServerPlayerEntity target, @NotNull Text text) {
         // Log the the server
         ServerCore.get()
             .sendSystemMessage(text, ServerCore.SPAWN_ID);
@@ -154,7 +183,7 @@ public final class MessageUtils {
         // Get the players in the area
         BlockPos outerA = new BlockPos(pos.getX() + 800, 0, pos.getZ() + 800);
         BlockPos outerB = new BlockPos(pos.getX() - 800, 800, pos.getZ() - 800);
-        List<ServerPlayerEntity> players = world.getEntitiesByClass(ServerPlayerEntity.class, new Box(outerA, outerB), EntityPredicates.VALID_ENTITY);
+        List<ServerPlayerEntity> players = PlayerIndex.getPlayersWithin(world, new Box(outerA, outerB));
         
         // Send the message to the players
         MessageUtils.sendChat(
@@ -204,12 +233,8 @@ public final class MessageUtils {
     
     // Send a translation blob to a Town
     public static void sendToTown(@NotNull final ClaimantTown town, @NotNull Collection<ServerPlayerEntity> tags, @NotNull final String translationKey, final Object... objects) {
-        final MinecraftServer server = ServerCore.get();
         MessageUtils.sendSystem(
-            server.getPlayerManager().getPlayerList().stream().filter((player) -> {
-                ClaimantPlayer claimant = ((PlayerData) player).getClaim();
-                return (claimant != null) && (claimant.getTown() != null) && town.getId().equals(claimant.getTown().getId());
-            }),
+            PlayerIndex.getTownMembers(town).stream(),
             translationKey,
             objects
         );
@@ -222,10 +247,7 @@ public final class MessageUtils {
         
         // Send to the players
         MessageUtils.sendChat(
-            server.getPlayerManager().getPlayerList().stream().filter((player) -> {
-                ClaimantPlayer claimant = ((PlayerData) player).getClaim();
-                return (claimant != null) && (claimant.getTown() != null) && town.getId().equals(claimant.getTown().getId());
-            }),
+            PlayerIndex.getTownMembers(town).stream(),
             text
         );
         return false;
@@ -276,6 +298,25 @@ public final class MessageUtils {
         players.forEach((player) -> player.sendMessage( text, MessageType.CHAT, Util.NIL_UUID ));
     }
     
+    /*
+     * Chat delivery statistics
+     */
+    private static void recordDelivery(@NotNull ChatRooms chatRoom, long nanos) {
+        int i = chatRoom.ordinal();
+        MessageUtils.DELIVERED[i].increment();
+        MessageUtils.DELIVERY_NANOS[i].add(nanos);
+        MessageUtils.DELIVERY_MAX[i].accumulate(nanos);
+    }
+    public static long getDelivered(@NotNull ChatRooms chatRoom) {
+        return MessageUtils.DELIVERED[chatRoom.ordinal()].sum();
+    }
+    public static long getDeliveryNanos(@NotNull ChatRooms chatRoom) {
+        return MessageUtils.DELIVERY_NANOS[chatRoom.ordinal()].sum();
+    }
+    public static long getDeliveryMax(@NotNull ChatRooms chatRoom) {
+        return MessageUtils.DELIVERY_MAX[chatRoom.ordinal()].get();
+    }
+    
     // Convert a Block Position to a Text component
     public static MutableText xyzToText(@NotNull final BlockPos pos) {
         return MessageUtils.xyzToText(pos, ", ");
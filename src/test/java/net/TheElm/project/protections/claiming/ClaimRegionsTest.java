@@ -0,0 +1,142 @@
+/*
+ * This software is licensed under the MIT License
+ * https://github.com/GStefanowich/MC-Server-Protection
+ *
+ * Copyright (c) 2019 Gregory Stefanowich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.TheElm.project.protections.claiming;
+
+import net.TheElm.project.objects.ClaimTag;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.registry.RegistryKey;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+class ClaimRegionsTest {
+    private static final @NotNull RegistryKey<World> WORLD = RegistryKey.of(RegistryKey.ofRegistry(new Identifier("dimension")), new Identifier("overworld"));
+    
+    private FakeSink sink;
+    private ClaimRegions regions;
+    
+    @BeforeEach
+    void setup() {
+        this.sink = new FakeSink();
+        this.regions = new ClaimRegions("claim-test", () -> "Test", () -> "Test's claimed area");
+    }
+    
+    @Test
+    void singleChunk() {
+        this.claim(0, 0);
+        
+        Assertions.assertEquals(1, this.regions.drain(this.sink));
+        Assertions.assertArrayEquals(new int[] { 0, 0, 16, 0, 16, 16, 0, 16 }, this.sink.markers.get("claim-test-minecraft:overworld-0,0"));
+    }
+    
+    @Test
+    void neighborsMerge() {
+        this.claim(0, 0);
+        this.regions.drain(this.sink);
+        
+        this.claim(1, 0);
+        Assertions.assertEquals(1, this.regions.drain(this.sink));
+        Assertions.assertEquals(1, this.sink.markers.size());
+        Assertions.assertArrayEquals(new int[] { 0, 0, 32, 0, 32, 16, 0, 16 }, this.sink.markers.get("claim-test-minecraft:overworld-0,0"));
+    }
+    
+    @Test
+    void unchangedRegionsAreNotPushed() {
+        this.claim(0, 0);
+        this.claim(5, 5);
+        Assertions.assertEquals(2, this.regions.drain(this.sink));
+        
+        this.claim(6, 5);
+        Assertions.assertEquals(1, this.regions.drain(this.sink));
+        Assertions.assertEquals(0, this.regions.drain(this.sink));
+        Assertions.assertEquals(3, this.sink.pushes);
+    }
+    
+    @Test
+    void unclaimSplits() {
+        for (int x = 0; x < 3; x++)
+            this.claim(x, 0);
+        this.regions.drain(this.sink);
+        
+        this.regions.remove(ClaimTag.toLong(ClaimRegionsTest.WORLD, 1, 0));
+        Assertions.assertEquals(2, this.regions.size());
+        Assertions.assertEquals(2, this.regions.drain(this.sink));
+        Assertions.assertEquals(2, this.sink.markers.size());
+        Assertions.assertArrayEquals(new int[] { 0, 0, 16, 0, 16, 16, 0, 16 }, this.sink.markers.get("claim-test-minecraft:overworld-0,0"));
+        Assertions.assertArrayEquals(new int[] { 32, 0, 48, 0, 48, 16, 32, 16 }, this.sink.markers.get("claim-test-minecraft:overworld-2,0"));
+    }
+    
+    @Test
+    void unclaimingTheAnchorMovesTheMarker() {
+        this.claim(0, 0);
+        this.claim(1, 0);
+        this.regions.drain(this.sink);
+        
+        this.regions.remove(ClaimTag.toLong(ClaimRegionsTest.WORLD, 0, 0));
+        this.regions.drain(this.sink);
+        Assertions.assertEquals(1, this.sink.markers.size());
+        Assertions.assertTrue(this.sink.markers.containsKey("claim-test-minecraft:overworld-1,0"));
+    }
+    
+    @Test
+    void holesAreSkipped() {
+        // A ring of chunks, touching the outside only at a corner
+        for (int x = 0; x < 3; x++) {
+            for (int z = 0; z < 3; z++) {
+                if (!(x == 1 && z == 1) && !(x == 2 && z == 2))
+                    this.claim(x, z);
+            }
+        }
+        this.regions.drain(this.sink);
+        
+        Assertions.assertArrayEquals(new int[] { 0, 0, 48, 0, 48, 32, 32, 32, 32, 48, 0, 48 }, this.sink.markers.get("claim-test-minecraft:overworld-0,0"));
+    }
+    
+    private void claim(int x, int z) {
+        this.regions.add(ClaimTag.toLong(ClaimRegionsTest.WORLD, x, z));
+    }
+    
+    private static final class FakeSink implements ClaimMarkerSink {
+        private final @NotNull Map<String, int[]> markers = new HashMap<>();
+        private int pushes = 0;
+        
+        @Override
+        public void push(@NotNull RegistryKey<World> world, @NotNull String id, @NotNull String label, @NotNull String detail, int @NotNull [] outline) {
+            this.markers.put(id, outline);
+            this.pushes++;
+        }
+        
+        @Override
+        public void remove(@NotNull RegistryKey<World> world, @NotNull String id) {
+            this.markers.remove(id);
+        }
+    }
+}